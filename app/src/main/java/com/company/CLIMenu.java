@@ -0,0 +1,665 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Consumer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/* Class for a menu UI at the command line, with methods to print all todo instances, create a new todo instance,
+  update a todo and delete a todo */
+public class CLIMenu {
+
+  // Most todos listed in each section of the overdue & upcoming listing
+  private static final int DUE_SOON_LIMIT = 20;
+  // How many todos are listed on each page when listing them in full, and when listing them one per line
+  private static final int FULL_PAGE_SIZE = 20;
+  private static final int COMPACT_PAGE_SIZE = 100;
+  // Most todos listed as the results of a search
+  private static final int SEARCH_LIMIT = 20;
+
+  // Class instance variables
+  private TodoList todos;
+  // Each todo's text for printing, kept until the todo changes so listing the todos again doesn't re-format them
+  private final RenderCache<String> rendered = new RenderCache<>(Todo::toString);
+  // Writes listings of the todos through one buffer, instead of a println (and flush) per todo
+  private final TodoLister lister = new TodoLister(System.out, rendered::get);
+  private DueIndex dueIndex;
+  private TodoSearchIndex searchIndex;
+  private ReminderScheduler reminders;
+  private TodoJournal journal;
+  // Category-sharded storage the todos are opened from, if the menu was started with one
+  private TodoShards shards;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to take and validate integer input for menus where selection is integer based
+
+  private int getIntInput(Scanner scan, String options, int maxOption) {
+
+    int option = 0;
+    boolean optionValid = false;
+
+    do {
+      System.out.println(options);
+      while (!scan.hasNextInt()) {
+        System.out.println("\nOption not recognised");
+        System.out.println(options);
+        scan.next();
+      }
+      option = scan.nextInt();
+      if (option < 1 || option > maxOption) {
+        System.out.println("\nOption not recognised");
+      } else {
+        optionValid = true;
+      }
+    } while (!optionValid);
+
+    return option;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to print each todo instance in the todos arraylist, if it contains todos. Otherwise, prints a message
+      that the user hasn't created any todos */
+
+  private void listAll() {
+    if (todos.size() < 1) {
+      System.out.println("\nYou haven't made any todos yet");
+    } else {
+      System.out.println("\nYour current Todos are:");
+      lister.setCompact(false);
+      lister.listAll(todos);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to list the todos a page at a time, either in full or one line per todo, until the user stops or the end of the list is reached.
+    Compact listings can also be printed all at once, e.g. when the output is piped to a file */
+
+  private void listAll(Scanner scan) {
+
+    String modePrompt = "\nHow should your todos be listed:\n1) In full, a page at a time\n2) One per line, a page at a time\n3) One per line, all at once";
+
+    if (todos.size() < 1) {
+      System.out.println("\nYou haven't made any todos yet");
+      return;
+    }
+
+    int mode = getIntInput(scan, modePrompt, 3);
+    // Drop the rest of the line the option was typed on, so it isn't taken as the answer to the first "more?" prompt
+    scan.nextLine();
+    lister.setCompact(mode != 1);
+    int pageSize = mode == 1 ? FULL_PAGE_SIZE : mode == 2 ? COMPACT_PAGE_SIZE : 0;
+
+    System.out.println("\nYour current Todos are:");
+    int offset = 0;
+    while (true) {
+      offset = lister.listPage(todos, offset, pageSize);
+      if (offset >= todos.size()) {
+        break;
+      }
+      System.out.println("\nShowing " + offset + " of " + todos.size() + " todos. Press Enter for the next page, or type q to stop");
+      if (!scan.hasNextLine() || scan.nextLine().trim().equalsIgnoreCase("q")) {
+        break;
+      }
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to listen for & validate input for the title of a Todo. Used in addTodo & updateTodo methods
+
+  private String getTitle(Scanner scan) {
+
+    String title;
+    boolean titleValid = false;
+
+    /* Prompt the user to input a title for their Todo. Keep prompting user & checking for input until the input is 1-30
+      characters long, containing only letters, digits, spaces and apostrophes */
+    do {
+      System.out.println("\nEnter a title for your Todo:\n");
+      while (!scan.hasNext()) {
+        scan.next();
+      }
+      title = scan.nextLine().trim();
+      if (TodoRules.isValidTitle(title)) {
+        titleValid = true;
+      } else if (title.length() > 0) {
+        System.out.println("\nTitle must be 1-30 characters long, containing only letters, digits, spaces and apostrophes.\nTitle cannot be a single apostrophe\n");
+      }
+    } while (!titleValid);
+    return title;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to lsiten for & validate a date for the Todo's due date. Used in addTodo & updateTodo methods
+
+  private LocalDateTime getDue(Scanner scan, String mode) {
+
+    LocalDateTime dueDate = null;
+    Boolean dueDateValid = false;
+
+    /* Prompt the user to input a title for their Todo. Keep prompting user & checking for input until a valid date is entered
+      (valid if in the specified format and after the current moment) */
+    do {
+      String dateInputPrompt = "\nEnter the date that your todo should be done by, in the format YYYY-MM-DDTHH:MM\n";
+      System.out.println(dateInputPrompt);
+      while (!scan.hasNext()) {
+        System.out.println(dateInputPrompt);
+        scan.next();
+      }
+      String dateInput = scan.nextLine();
+      try {
+        dueDate = LocalDateTime.parse(dateInput);
+        if (mode.equals("new")) {
+          dueDateValid = dueDate.isAfter(LocalDateTime.now());
+        } else {
+          dueDateValid = TodoRules.isValidDue(dueDate);
+        }
+        if (!dueDateValid) {
+          System.out.println(mode.equals("new") ? "\nYour Todo can't be due for completion in the past!\n" : "Your Todo can't be due before this app was released!");
+        }
+      } catch (DateTimeParseException exc) {
+        System.out.println("\nThe due date you entered is not valid\n");
+      }
+    } while (!dueDateValid);
+    return dueDate;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to listen for & validate the selection of a category to attribute to a Todo
+
+  private Category getCat(Scanner scan) {
+
+    String catPrompt = "\nSelect a category:\n1: Red\n2: White\n3: Blue\n4: Purple\n5: Yellow\n6: Green\n";
+    int catSelection = 0;
+    Category cat = null;
+
+    catSelection = getIntInput(scan, catPrompt, 6);
+
+    cat = switch (catSelection) {
+      case 1:
+        yield Category.red;
+      case 2:
+        yield Category.white;
+      case 3:
+        yield Category.blue;
+      case 4:
+        yield Category.purple;
+      case 5:
+        yield Category.yellow;
+      default:
+        yield Category.green;
+    };
+
+    return cat;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to get user's choice of Importance
+
+  private Importance getImportance(Scanner scan) {
+
+    String priorityPrompt = "\nSelect a priority level:\n1: Low\n2: Normal\n3: High\n";
+    int prioritySelection = 0;
+    Importance priority = null;
+
+    prioritySelection = getIntInput(scan, priorityPrompt, 3);
+
+    priority = switch (prioritySelection) {
+      case 1:
+        yield Importance.low;
+      case 2:
+        yield Importance.normal;
+      default:
+        yield Importance.high;
+    };
+
+    return priority;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to get user's choice of a new completion status, for use in updateTodo method below
+
+  private Status getStatus(Scanner scan) {
+
+    String statusPrompt = "\nSelect the new status for your todo:\n1) Pending\n2) Started\n3) Partial\n4)Completed\n";
+    int statusSelection = 0;
+    Status newStatus = null;
+
+    statusSelection = getIntInput(scan, statusPrompt, 4);
+
+    newStatus = switch (statusSelection) {
+      case 1:
+        yield Status.pending;
+      case 2:
+        yield Status.started;
+      case 3:
+        yield Status.partial;
+      default:
+        yield Status.completed;
+    };
+
+    return newStatus;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to create a new instance of Todo from user input and add it to the todos arraylist uses the methods defined above
+    to take & validate input for each property of the Todo */
+
+  private void addTodo(Scanner scan) {
+
+    String title;
+    LocalDateTime dueDate;
+    Category cat;
+    Importance priority;
+
+    title = getTitle(scan);
+
+    dueDate = getDue(scan, "new");
+
+    cat = getCat(scan);
+
+    priority = getImportance(scan);
+
+    long started = TodoMetrics.start();
+    Todo newTodo = new Todo(title, dueDate, cat, priority, Status.pending);
+    // Journalled before it's added, so a todo which couldn't be saved is never listed
+    if (!journalChange("create", newTodo)) {
+      return;
+    }
+    this.todos.add(newTodo);
+    TodoMetrics.record(TodoOperation.create, started);
+    System.out.println("\nCreated new todo:\n" + newTodo);
+
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to get the index - of a Todo in todos array - that user wants to update or delete
+
+  private int getIndex(Scanner scan, String mode) {
+
+    String selectionPrompt = "\nEnter the number of the Todo you want to " + mode + ":\n";
+    int index = 0;
+
+    if (todos.size() < 1) {
+      System.out.println("\nYou can't " + mode + " a todo if you don't have any!");
+      return -1;
+    }
+
+    listAll();
+    index = getIntInput(scan, selectionPrompt, todos.size());
+
+    return --index;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to update an instance of Todo
+
+  private void updateTodo(Scanner scan) {
+
+    String fieldPrompt = "\nWhich field of your todo do you want to update:\n1) Title\n2) Due by\n3) Category\n4) Importance \n5) Completion status";
+    int fieldToUpdate = 0;
+
+    int indexToUpdate = getIndex(scan, "update");
+    if (indexToUpdate == -1) {
+      return;
+    }
+
+    fieldToUpdate = getIntInput(scan, fieldPrompt, 5);
+
+    // The new value is read first, so only the change itself is timed, not the time spent typing it. The journal records the
+    // changed Todo, so the change is made first & undone if it can't be journalled
+    Todo toUpdate = todos.get(indexToUpdate);
+    Consumer<Todo> change;
+    Consumer<Todo> undo;
+    switch (fieldToUpdate) {
+      case 1:
+        String newTitle = getTitle(scan);
+        String oldTitle = toUpdate.getText();
+        change = aTodo -> aTodo.setText(newTitle);
+        undo = aTodo -> aTodo.setText(oldTitle);
+        break;
+      case 2:
+        LocalDateTime newDueDate = getDue(scan, "update");
+        LocalDateTime oldDueDate = toUpdate.getDue();
+        change = aTodo -> aTodo.setDue(newDueDate);
+        undo = aTodo -> aTodo.setDue(oldDueDate);
+        break;
+      case 3:
+        Category newCat = getCat(scan);
+        Category oldCat = toUpdate.getCat();
+        change = aTodo -> aTodo.setCat(newCat);
+        undo = aTodo -> aTodo.setCat(oldCat);
+        break;
+      case 4:
+        Importance newPriority = getImportance(scan);
+        Importance oldPriority = toUpdate.getImportance();
+        change = aTodo -> aTodo.setImportance(newPriority);
+        undo = aTodo -> aTodo.setImportance(oldPriority);
+        break;
+      default:
+        Status newStatus = getStatus(scan);
+        Status oldStatus = toUpdate.getCompletion();
+        change = aTodo -> aTodo.setCompletion(newStatus);
+        undo = aTodo -> aTodo.setCompletion(oldStatus);
+        break;
+    };
+    long started = TodoMetrics.start();
+    change.accept(toUpdate);
+    if (!journalChange("update", toUpdate)) {
+      undo.accept(toUpdate);
+      return;
+    }
+    TodoMetrics.record(TodoOperation.update, started);
+
+    System.out.println("\nYour todo was updated:\n\n" + rendered.get(todos.get(indexToUpdate)));
+
+  }
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to delete a Todo
+
+  private void deleteTodo(Scanner scan) {
+
+    int toDelete = getIndex(scan, "delete");
+
+    if (toDelete == -1) {
+      return;
+    }
+
+    long started = TodoMetrics.start();
+    if (!journalChange("delete", todos.get(toDelete))) {
+      return;
+    }
+    todos.remove(toDelete);
+    TodoMetrics.record(TodoOperation.delete, started);
+
+    System.out.println("\nTodo #" + (toDelete + 1) + " was deleted");
+    listAll();
+
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to print the todos which are overdue and the todos due in the next 24 hours, using the due date index
+
+  private void listDueSoon() {
+
+    LocalDateTime now = LocalDateTime.now();
+    List<Todo> overdue = dueIndex.overdue(now, DUE_SOON_LIMIT);
+    List<Todo> upcoming = dueIndex.dueBetween(now, now.plusHours(24));
+
+    System.out.println(overdue.isEmpty() ? "\nNothing is overdue" : "\nOverdue todos:");
+    overdue.forEach(aTodo -> System.out.println("\n" + rendered.get(aTodo)));
+    System.out.println(upcoming.isEmpty() ? "\nNothing is due in the next 24 hours" : "\nDue in the next 24 hours:");
+    upcoming.stream().limit(DUE_SOON_LIMIT).forEach(aTodo -> System.out.println("\n" + rendered.get(aTodo)));
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to search the titles of the todos, printing the best matches with their numbers in the list
+
+  private void searchTodos(Scanner scan) {
+
+    String query;
+
+    // Drop the rest of the line the menu option was typed on
+    scan.nextLine();
+    do {
+      System.out.println("\nEnter the words to search your todos for:\n");
+      query = scan.nextLine().trim();
+    } while (query.isEmpty());
+
+    List<Todo> found = searchIndex.search(query, SEARCH_LIMIT);
+    if (found.isEmpty()) {
+      System.out.println("\nNo todos match \"" + query + "\"");
+      return;
+    }
+
+    System.out.println("\nTodos matching \"" + query + "\", best match first:");
+    lister.setCompact(true);
+    found.forEach(match -> lister.list(todos.indexOf(match) + 1, match));
+    lister.flush();
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to print how many times each operation has run & how long it took, as counted by TodoMetrics
+
+  private void printStats() {
+    System.out.println("\nOperations since the app started (times are the mean, percentiles & longest):\n");
+    System.out.print(TodoMetrics.report());
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to choose which categories' todos are listed & edited, when the todos are stored in category shards. Only the shards
+    of the categories chosen are read from disk */
+
+  private void chooseCategories(Scanner scan) {
+
+    if (shards == null) {
+      System.out.println("\nThe todos aren't stored by category. Start the app with --shards <directory> to choose categories");
+      return;
+    }
+
+    Category[] cats = Category.values();
+    int option;
+    do {
+      StringBuilder prompt = new StringBuilder("\nSelect a category to open or close it:\n");
+      for (int i = 0; i < cats.length; i++) {
+        String count;
+        try {
+          count = String.format("%,d", shards.count(cats[i]));
+        } catch (IOException exc) {
+          count = "?";
+        }
+        prompt.append(i + 1).append(": ").append(cats[i]).append(shards.isOpen(cats[i]) ? " (open, " : " (closed, ")
+            .append(count).append(" todos)\n");
+      }
+      prompt.append(cats.length + 1).append(": Done\n");
+      option = getIntInput(scan, prompt.toString(), cats.length + 1);
+
+      if (option <= cats.length) {
+        Category cat = cats[option - 1];
+        if (shards.isOpen(cat)) {
+          shards.close(cat);
+        } else {
+          try {
+            shards.open(cat);
+          } catch (IOException exc) {
+            System.out.println("\nReading the " + cat + " todos failed");
+          }
+        }
+      }
+    } while (option <= cats.length);
+
+    System.out.println("\n" + todos.size() + " todos are open");
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to page through a todo file too big to load. The file is indexed (or its saved index read) and only the pages listed are
+    read from it, so the whole file is never in memory. Typing a number jumps to that todo */
+
+  private void browseFile(Scanner scan) {
+
+    scan.nextLine();
+    String path;
+    do {
+      System.out.println("\nEnter the path of the todo file to browse:\n");
+      path = scan.nextLine().trim();
+    } while (path.isEmpty());
+
+    PagedTodoFile browsing;
+    try {
+      browsing = PagedTodoFile.open(Paths.get(path));
+    } catch (NoSuchFileException | InvalidPathException exc) {
+      System.out.println("\nFile not found");
+      return;
+    } catch (IOException exc) {
+      System.out.println("\nReading " + path + " failed. " + exc.getMessage());
+      return;
+    }
+
+    try (browsing) {
+      TodoFileIndex index = browsing.getIndex();
+      System.out.printf("%n%,d todos in %s%n", index.getCount(), path);
+      if (index.getRejected() > 0) {
+        System.out.printf("%,d bad lines were skipped. They're in %s%n", index.getRejected(), ImportQuarantine.pathFor(Paths.get(path)));
+      }
+
+      lister.setCompact(true);
+      int offset = 0;
+      while (offset < browsing.size()) {
+        int pageStart = offset;
+        offset = lister.listPage(browsing, offset, COMPACT_PAGE_SIZE);
+        if (offset >= browsing.size()) {
+          break;
+        }
+        System.out.println("\nShowing " + (pageStart + 1) + "-" + offset + " of " + browsing.size() + " todos. Press Enter for the next page, type a todo number to jump to it, or q to stop");
+        String answer = scan.hasNextLine() ? scan.nextLine().trim() : "q";
+        if (answer.equalsIgnoreCase("q")) {
+          break;
+        }
+        if (!answer.isEmpty()) {
+          try {
+            offset = Math.max(0, Math.min(browsing.size() - 1, Integer.parseInt(answer) - 1));
+          } catch (NumberFormatException exc) {
+            System.out.println("\nOption not recognised");
+          }
+        }
+      }
+    } catch (IOException exc) {
+      System.out.println("\nClosing " + path + " failed");
+    } catch (RuntimeException exc) {
+      System.out.println("\nReading " + path + " failed. " + exc.getMessage());
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to record a created, updated or deleted Todo in the journal, if there is one. Returns false if it couldn't be, after saying so
+
+  private boolean journalChange(String change, Todo todo) {
+
+    if (journal == null) {
+      return true;
+    }
+
+    try {
+      switch (change) {
+        case "create":
+          journal.created(todo);
+          break;
+        case "update":
+          journal.updated(todo);
+          break;
+        default:
+          journal.deleted(todo);
+      }
+    } catch (IOException exc) {
+      System.out.println("\nYour change couldn't be saved to the journal, so it wasn't made");
+      return false;
+    }
+    return true;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Constructor for main menu UI. Prompts the user to input an int 1-10 to choose an option. Keeps prompting & checking for new input
+    until user enters 10 to quit */
+
+  CLIMenu(ArrayList<Todo> todos) {
+    this(todos, null);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Constructor for a main menu whose changes are also recorded in a journal
+
+  CLIMenu(ArrayList<Todo> todos, TodoJournal journal) {
+    this(todos, journal, null);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Constructor for a main menu working on the categories opened from category-sharded storage
+
+  CLIMenu(TodoShards shards) {
+    this(shards.getTodos(), null, shards);
+  }
+
+
+  private CLIMenu(ArrayList<Todo> todos, TodoJournal journal, TodoShards shards) {
+
+    this.shards = shards;
+    this.todos = todos instanceof TodoList ? (TodoList) todos : new TodoList(todos);
+    this.journal = journal;
+    this.dueIndex = new DueIndex(this.todos);
+    this.searchIndex = new TodoSearchIndex(this.todos);
+    // Reminders are printed as they fall due, between whatever the menu is printing
+    this.reminders = new ReminderScheduler(this.todos);
+    this.reminders.addListener(aTodo -> System.out.println("\nReminder: " + aTodo.getText() + " is due now"));
+    this.reminders.start();
+    String menuOptions = "\nSelect an option by typing the corresponding number:\n1) List all 'todo' notes\n2) Create a new 'todo'\n3) Update a todo \n4) Delete a todo\n5) Show overdue & upcoming todos\n6) Search todos\n7) Show stats\n8) Choose categories\n9) Browse a todo file\n10) Quit";
+    int option = 0;
+    Scanner in = new Scanner(System.in);
+
+    do {
+
+      option = getIntInput(in, menuOptions, 10);
+
+      switch (option) {
+        case 1:
+          this.listAll(in);
+          break;
+        case 2:
+          this.addTodo(in);
+          break;
+        case 3:
+          this.updateTodo(in);
+          break;
+        case 4:
+          this.deleteTodo(in);
+          break;
+        case 5:
+          this.listDueSoon();
+          break;
+        case 6:
+          this.searchTodos(in);
+          break;
+        case 7:
+          this.printStats();
+          break;
+        case 8:
+          this.chooseCategories(in);
+          break;
+        case 9:
+          this.browseFile(in);
+          break;
+      }
+
+    } while (option != 10);
+
+    reminders.stop();
+    System.out.println("Goodbye");
+
+  }
+
+}
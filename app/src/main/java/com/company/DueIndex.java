@@ -0,0 +1,143 @@
+package com.company;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/* Index of the Todos in a TodoList ordered by due date, so that questions like "what's overdue?" or "what's due in the next
+  24 hours?" can be answered in logarithmic time instead of scanning or sorting the whole list. The index listens to the list,
+  so it stays up to date as Todos are added, removed or given a new due date or status. Todos which haven't been completed
+  are kept apart from completed ones, since completed Todos can't be overdue and aren't worth reminding anyone about */
+public class DueIndex implements TodoListener {
+
+  // A Todo's position in the index. seq breaks ties between Todos due at the same moment, in the order they were indexed
+  private static class Entry implements Comparable<Entry> {
+
+    private final LocalDateTime due;
+    private final long seq;
+    private final Todo todo;
+
+    Entry(LocalDateTime due, long seq, Todo todo) {
+      this.due = due;
+      this.seq = seq;
+      this.todo = todo;
+    }
+
+    public int compareTo(Entry other) {
+      int byDue = due.compareTo(other.due);
+      return byDue != 0 ? byDue : Long.compare(seq, other.seq);
+    }
+  }
+
+  private final TreeSet<Entry> open = new TreeSet<>();
+  private final TreeSet<Entry> completed = new TreeSet<>();
+  private final IdentityHashMap<Todo, Entry> entries = new IdentityHashMap<>();
+  private long nextSeq;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Index every Todo already in the list, then listen to the list for changes
+
+  public DueIndex(TodoList todos) {
+    todos.forEach(this::todoAdded);
+    todos.addListener(this);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods called by the list to keep the index up to date
+
+  public void todoAdded(Todo todo) {
+    Entry entry = new Entry(todo.getDue(), nextSeq++, todo);
+    entries.put(todo, entry);
+    setFor(todo.getCompletion()).add(entry);
+  }
+
+  public void todoRemoved(Todo todo) {
+    Entry entry = entries.remove(todo);
+    if (entry != null) {
+      open.remove(entry);
+      completed.remove(entry);
+    }
+  }
+
+  public void todoChanged(Todo todo, TodoField field, Object oldValue) {
+    if (field == TodoField.due || field == TodoField.completion) {
+      todoRemoved(todo);
+      todoAdded(todo);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Todos (completed or not) due from (inclusive) to (exclusive), in due date order
+
+  public List<Todo> dueBetween(LocalDateTime from, LocalDateTime to) {
+    List<Todo> found = new ArrayList<>();
+    Iterator<Entry> openDue = range(open, from, to).iterator();
+    Iterator<Entry> completedDue = range(completed, from, to).iterator();
+    Entry nextOpen = openDue.hasNext() ? openDue.next() : null;
+    Entry nextCompleted = completedDue.hasNext() ? completedDue.next() : null;
+
+    // Merge the two sets, which are both already in order
+    while (nextOpen != null || nextCompleted != null) {
+      if (nextCompleted == null || (nextOpen != null && nextOpen.compareTo(nextCompleted) <= 0)) {
+        found.add(nextOpen.todo);
+        nextOpen = openDue.hasNext() ? openDue.next() : null;
+      } else {
+        found.add(nextCompleted.todo);
+        nextCompleted = completedDue.hasNext() ? completedDue.next() : null;
+      }
+    }
+    return found;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Up to limit Todos which aren't completed and were due before now, most overdue first
+
+  public List<Todo> overdue(LocalDateTime now, int limit) {
+    return take(open.headSet(firstAt(now), false), limit);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The next count Todos which aren't completed and are due at or after now, soonest first
+
+  public List<Todo> nextDue(LocalDateTime now, int count) {
+    return take(open.tailSet(firstAt(now), true), count);
+  }
+
+
+  public int size() {
+    return entries.size();
+  }
+
+
+  private NavigableSet<Entry> range(TreeSet<Entry> set, LocalDateTime from, LocalDateTime to) {
+    return set.subSet(firstAt(from), true, firstAt(to), false);
+  }
+
+  // An entry which sorts before every real entry due at the given moment
+  private static Entry firstAt(LocalDateTime moment) {
+    return new Entry(moment, Long.MIN_VALUE, null);
+  }
+
+  private static List<Todo> take(NavigableSet<Entry> entries, int limit) {
+    List<Todo> found = new ArrayList<>(Math.min(limit, 64));
+    Iterator<Entry> it = entries.iterator();
+    while (found.size() < limit && it.hasNext()) {
+      found.add(it.next().todo);
+    }
+    return found;
+  }
+
+  private TreeSet<Entry> setFor(Status completion) {
+    return completion == Status.completed ? completed : open;
+  }
+
+}
@@ -0,0 +1,1389 @@
+/* GUI with methods to handle user interactions such as creating/updating/deleting a todo note,
+  loading todo notes from a .txt file and exporting your todo notes out to a .txt file.
+
+  Unfortunately, some of the business logic (which should be separated out in Menu class) is in this class with
+  the GUI logic, because I didn't quite figure out how I could access & modify GUI's instance variables from
+  Menu.java. Tried public access modifiers but couldn't figure it out, perhaps should have tried static members.
+  Updating instance variables (e.g. JLabels) is necessary for providing feedback to user. */
+
+package com.company;
+
+// Dependencies
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+// Extending JFrame and calling super() in the GUI constructor creates the JFrame instance
+public class GUI extends JFrame implements ListSelectionListener, ActionListener {
+
+  // Most todos listed in each section of the 'Due soon' dialog
+  private static final int DUE_SOON_LIMIT = 20;
+  // Todos being loaded in the background are added to the list in batches of at most this many, at least this often
+  private static final int LOAD_BATCH_SIZE = 10_000;
+  private static final long LOAD_BATCH_NANOS = 100_000_000L;
+  // Most todos shown in the list as the results of a search
+  private static final int SEARCH_LIMIT = 1000;
+
+  // Instance variables
+  private TodoList todos;
+  private DueIndex dueIndex;
+  private ReminderScheduler reminders;
+  private SortedView[] sortedViews = new SortedView[SortOrder.values().length];
+  private SortedView currentView;
+  private TodoListModel todosListModel;
+  private TodoSearchIndex searchIndex;
+  private JTextField searchBox;
+  private boolean searchPending;
+  private JList<Todo> todosJList;
+  private int todoIndex;
+  private int width;
+  private int height;
+  private JLabel heading;
+  private JLabel listHeading;
+  private TodoDetailPanel todoData;
+  private JButton addButton;
+  private JButton updateButton;
+  private JButton deleteButton;
+  private JPanel defaultView;
+  private JComboBox sortBy;
+  private JPanel newTodoPanel;
+  private JLabel titleLabel;
+  private JTextField title;
+  private JLabel dueLabel;
+  private JTextField dueBy;
+  private JLabel catLabel;
+  private String[] categories;
+  private JComboBox catDropdown;
+  private JLabel priorityLabel;
+  private String[] priorities;
+  private JComboBox priorityDropdown;
+  private JButton cancelButton;
+  private JButton createButton;
+  private JPanel updatePanel;
+  private JComboBox statusDropdown;
+  private JButton saveButton;
+  private JButton loadButton;
+  private JButton dueSoonButton;
+  private JButton categoriesButton;
+  private JButton browseButton;
+  private JPanel browsePanel;
+  private JButton closeBrowseButton;
+  // The file being browsed, read a page at a time as the list is scrolled
+  private PagedTodoFile browsing;
+  public FileDialog fileBrowser;
+  private TodoJournal journal;
+  // Category-sharded storage the todos are opened from, if the GUI was started with one
+  private TodoShards shards;
+  private LoadWorker loadWorker;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Constructor. Initializes instance variables, creates and configures components, inserts components into frame & displays the frame
+
+  public GUI(ArrayList<Todo> allTodos) {
+    this(allTodos, null);
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Constructor for a GUI whose changes are also recorded in a journal, so each one is persisted as it is made
+
+  public GUI(ArrayList<Todo> allTodos, TodoJournal todoJournal) {
+    this(allTodos, todoJournal, null);
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Constructor for a GUI working on the categories opened from category-sharded storage. More categories can be opened with the Categories button
+
+  public GUI(TodoShards todoShards) {
+    this(todoShards.getTodos(), null, todoShards);
+  }
+
+
+  private GUI(ArrayList<Todo> allTodos, TodoJournal todoJournal, TodoShards todoShards) {
+
+    super();
+
+    journal = todoJournal;
+    shards = todoShards;
+
+    todos = allTodos instanceof TodoList ? (TodoList) allTodos : new TodoList(allTodos);
+    dueIndex = new DueIndex(todos);
+    currentView = viewFor(SortOrder.due);
+    todoIndex = -1;
+    categories = new String[]{"red", "white", "blue", "purple", "yellow", "green"};
+    priorities = new String[]{"low", "normal", "high"};
+    Dimension screensize = Toolkit.getDefaultToolkit().getScreenSize();
+    width = screensize.width;
+    height = screensize.height;
+    setSize(new Dimension(width / 3, height / 3));
+    setLocation(width / 3, 25);
+    setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    setTitle("Todo list");
+    defaultView();
+    setVisible(true);
+
+    // Reminders are fired on the scheduler's thread, so they're shown on the event dispatch thread
+    reminders = new ReminderScheduler(todos);
+    reminders.addListener(aTodo -> SwingUtilities.invokeLater(() -> showReminder(aTodo)));
+    reminders.start();
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Listen for list change events & run methods defined above depending on which JList the selection change event emanated from
+
+  public void valueChanged(ListSelectionEvent event) {
+
+    if (event.getSource() == todosJList) {
+      todoIndex = todosJList.getSelectedIndex();
+      if (todoIndex == -1) {
+        heading.setText(todos.size() > 0 ? "Select a todo" : "You haven't made any Todos yet");
+        updateButton.setVisible(false);
+        deleteButton.setVisible(false);
+        todoData.setTodo(null);
+      } else {
+        updateButton.setVisible(true);
+        deleteButton.setVisible(true);
+        displayTodo(todosListModel.getElementAt(todoIndex));
+      }
+    }
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Button click event listeners to run methods declared above, depending on which button triggered the event
+
+  public void actionPerformed(ActionEvent event) {
+
+    Object trigger = event.getSource();
+
+    if (trigger == addButton) {
+      remove(defaultView);
+      createTodoPanel();
+    } else if (trigger == updateButton) {
+      remove(defaultView);
+      updatePanel();
+    } else if (trigger == deleteButton) {
+      deleteTodo();
+    } else if (trigger == cancelButton) {
+      todoIndex = -1;
+      showDefaultView(event.getActionCommand().equals("Cancel insert") ? newTodoPanel : updatePanel);
+      todosJList.clearSelection();
+    } else if (trigger == createButton) {
+      if (event.getActionCommand().equals("Create")) {
+        createTodo();
+      } else {
+        updateTodo();
+      }
+    } else if (trigger == sortBy) {
+      // Timed from before the view is looked up, since the first switch to each order sorts the todos into its view
+      long started = TodoMetrics.start();
+      applySorting(viewFor(SortOrder.valueOf((String) sortBy.getSelectedItem())));
+      TodoMetrics.record(TodoOperation.sort, started);
+    } else if (trigger == loadButton) {
+      if (loadWorker != null) {
+        loadWorker.cancel(false);
+      } else {
+        fileBrowser = new FileDialog(GUI.this, "Load Todos from file", FileDialog.LOAD);
+        Path toLoad = Menu.chooseFileToLoad(fileBrowser);
+        if (toLoad != null) {
+          // With category shards the file's todos are added to their shards like --load does. Clearing the list would delete the open categories' todos
+          List<Todo> previous = null;
+          if (shards == null) {
+            previous = new ArrayList<>(todos);
+            todos.clear();
+            refreshDefaultView();
+          }
+          loadButton.setText("Cancel load");
+          loadWorker = new LoadWorker(toLoad, previous);
+          loadWorker.execute();
+        }
+      }
+    } else if (trigger == dueSoonButton) {
+      showDueSoon();
+    } else if (trigger == categoriesButton) {
+      chooseCategories();
+    } else if (trigger == browseButton) {
+      fileBrowser = new FileDialog(GUI.this, "Browse a todo file", FileDialog.LOAD);
+      Path toBrowse = Menu.chooseFileToLoad(fileBrowser);
+      if (toBrowse != null) {
+        browseButton.setEnabled(false);
+        listHeading.setForeground(Color.black);
+        listHeading.setText("Indexing " + toBrowse.getFileName() + "...");
+        new BrowseWorker(toBrowse).execute();
+      }
+    } else if (trigger == closeBrowseButton) {
+      closeBrowsePanel();
+    } else if (trigger == saveButton) {
+      fileBrowser = new FileDialog(GUI.this, "Save your Todos to a file", FileDialog.SAVE);
+      Path toSave = Menu.chooseFileToSave(fileBrowser);
+      if (toSave != null) {
+        saveButton.setEnabled(false);
+        saveButton.setText("Saving...");
+        new SaveWorker(toSave, TodoSnapshot.copyOf(todos)).execute();
+      }
+    }
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to create the list of titles of current todos. The list reads the todos straight from the current sorted view, so it is only created once & the model's events keep it up to date
+
+  private void populateJList() {
+
+    todosListModel = new TodoListModel(currentView);
+    todosJList = new JList<>(todosListModel);
+    todosJList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    todosJList.setCellRenderer(new TodoCellRenderer());
+    // Every row is the same size, so the JList doesn't have to measure every todo to lay itself out, only paint the visible rows
+    todosJList.setPrototypeCellValue(new Todo("Prototype title 30 characters", LocalDateTime.now(), Category.green, Importance.normal, Status.pending));
+    todosJList.addListSelectionListener(this);
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to create the UI for default view of the application. It is created once, then shown again (by showDefaultView) after each form is closed
+
+  public void defaultView() {
+
+    populateJList();
+    defaultView = new JPanel(new GridBagLayout());
+    defaultView.setPreferredSize(new Dimension(width / 3, height / 3));
+    GridBagConstraints defaultCons = new GridBagConstraints();
+
+    listHeading = new JLabel(todos.size() > 0 ? "Select a todo" : "You haven't made any Todos yet", JLabel.CENTER);
+    heading = listHeading;
+    defaultCons.gridx = 0;
+    defaultCons.gridy = 0;
+    defaultCons.gridwidth = 3;
+    defaultCons.weightx = 0.5;
+    defaultCons.anchor = GridBagConstraints.CENTER;
+    defaultView.add(heading, defaultCons);
+
+    JScrollPane scrollTodos = new JScrollPane(todosJList);
+//    scrollTodos.setPreferredSize(new Dimension(500, 300));
+    defaultCons.gridx = 0;
+    defaultCons.gridy = 1;
+    defaultCons.gridwidth = 2;
+    defaultCons.anchor = GridBagConstraints.WEST;
+    defaultCons.fill = GridBagConstraints.HORIZONTAL;
+    defaultCons.fill = GridBagConstraints.VERTICAL;
+    defaultCons.weightx = 1;
+    defaultCons.weighty = 1;
+    defaultView.add(scrollTodos, defaultCons);
+
+    todoData = new TodoDetailPanel();
+    defaultCons.gridx = 2;
+    defaultCons.gridy = 1;
+    defaultCons.gridwidth = 1;
+    defaultCons.fill = GridBagConstraints.HORIZONTAL;
+    defaultView.add(todoData, defaultCons);
+
+    JLabel sortByLabel = new JLabel("Sort by:", JLabel.RIGHT);
+    defaultCons.gridx = 0;
+    defaultCons.gridy = 2;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    defaultCons.anchor = GridBagConstraints.WEST;
+    defaultView.add(sortByLabel, defaultCons);
+
+    String[] sortByOptions = {"due", "priority", "status"};
+    sortBy = new JComboBox(sortByOptions);
+    sortBy.setSelectedItem(currentView.getOrder().name());
+    defaultCons.gridx = 1;
+    defaultCons.gridy = 2;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    defaultCons.anchor = GridBagConstraints.EAST;
+    sortBy.addActionListener(this);
+    defaultView.add(sortBy, defaultCons);
+
+    loadButton = new JButton("Load file");
+    defaultCons.gridx = 2;
+    defaultCons.gridy = 2;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    defaultCons.anchor = GridBagConstraints.CENTER;
+    loadButton.addActionListener(this);
+    defaultView.add(loadButton, defaultCons);
+
+    addButton = new JButton("New Todo");
+    defaultCons.gridx = 0;
+    defaultCons.gridy = 3;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    addButton.addActionListener(this);
+    defaultView.add(addButton, defaultCons);
+
+    updateButton = new JButton("Update");
+    defaultCons.gridx = 1;
+    defaultCons.gridy = 3;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    updateButton.addActionListener(this);
+    updateButton.setVisible(false);
+    defaultView.add(updateButton, defaultCons);
+
+    deleteButton = new JButton("Delete");
+    defaultCons.gridx = 2;
+    defaultCons.gridy = 3;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    deleteButton.addActionListener(this);
+    deleteButton.setVisible(false);
+    defaultView.add(deleteButton, defaultCons);
+
+    dueSoonButton = new JButton("Due soon");
+    defaultCons.gridx = 3;
+    defaultCons.gridy = 3;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    dueSoonButton.addActionListener(this);
+    defaultView.add(dueSoonButton, defaultCons);
+
+    saveButton = new JButton("Save");
+    defaultCons.gridx = 3;
+    defaultCons.gridy = 2;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    saveButton.addActionListener(this);
+    saveButton.setVisible(todos.size() > 0);
+    defaultView.add(saveButton, defaultCons);
+
+    JLabel searchLabel = new JLabel("Search:", JLabel.RIGHT);
+    defaultCons.gridx = 0;
+    defaultCons.gridy = 4;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    defaultView.add(searchLabel, defaultCons);
+
+    // The list is searched again on every keystroke, so it narrows down as the user types
+    searchBox = new JTextField(20);
+    defaultCons.gridx = 1;
+    defaultCons.gridy = 4;
+    defaultCons.gridwidth = 2;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    searchBox.getDocument().addDocumentListener(new DocumentListener() {
+      public void insertUpdate(DocumentEvent event) {
+        search();
+      }
+
+      public void removeUpdate(DocumentEvent event) {
+        search();
+      }
+
+      public void changedUpdate(DocumentEvent event) {
+        search();
+      }
+    });
+    defaultView.add(searchBox, defaultCons);
+
+    categoriesButton = new JButton("Categories");
+    defaultCons.gridx = 3;
+    defaultCons.gridy = 4;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    categoriesButton.addActionListener(this);
+    categoriesButton.setVisible(shards != null);
+    defaultView.add(categoriesButton, defaultCons);
+
+    browseButton = new JButton("Browse file");
+    defaultCons.gridx = 3;
+    defaultCons.gridy = 0;
+    defaultCons.gridwidth = 1;
+    defaultCons.weightx = 0;
+    defaultCons.weighty = 0;
+    browseButton.addActionListener(this);
+    defaultView.add(browseButton, defaultCons);
+
+    add(defaultView);
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Swap the given form for the default view built by defaultView, without rebuilding the view or its list
+
+  private void showDefaultView(JPanel from) {
+    remove(from);
+    heading = listHeading;
+    add(defaultView);
+    refreshDefaultView();
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Update the parts of the default view which depend on whether there are any todos & whether one is selected
+
+  private void refreshDefaultView() {
+    heading.setForeground(Color.black);
+    heading.setText(todos.size() > 0 ? "Select a todo" : "You haven't made any Todos yet");
+    saveButton.setVisible(todos.size() > 0);
+    updateButton.setVisible(todoIndex != -1);
+    deleteButton.setVisible(todoIndex != -1);
+    repaint();
+    revalidate();
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Show the todos in a different sorted view. The list's model switches to the new view rather than the list being rebuilt
+
+  private void applySorting(SortedView view) {
+    currentView = view;
+    todosListModel.setView(view);
+    refreshDefaultView();
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Select the given todo in the list, scroll it into view & display it
+
+  private void selectTodo(Todo todo) {
+    todoIndex = todosListModel.indexOf(todo);
+    todosJList.setSelectedIndex(todoIndex);
+    todosJList.ensureIndexIsVisible(todoIndex);
+    updateButton.setVisible(true);
+    deleteButton.setVisible(true);
+    displayTodo(todo);
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Show the todos whose titles match what's in the search box in the list, best match first, or all the todos again once the box is emptied. The search
+    index is built the first time the user searches, then kept up to date by the list, and the search runs again whenever the todos change */
+
+  private void search() {
+
+    searchPending = false;
+    String query = searchBox.getText();
+
+    if (searchIndex == null) {
+      if (query.isBlank()) {
+        return;
+      }
+      searchIndex = new TodoSearchIndex(todos);
+      todos.addListener(new TodoListener() {
+        public void todoAdded(Todo todo) {
+          searchAgain();
+        }
+
+        public void todoRemoved(Todo todo) {
+          searchAgain();
+        }
+
+        public void todosAdded(List<Todo> added) {
+          searchAgain();
+        }
+
+        public void todosRemoved(List<Todo> removed) {
+          searchAgain();
+        }
+
+        public void todoChanged(Todo todo, TodoField field, Object oldValue) {
+          searchAgain();
+        }
+      });
+    }
+
+    // Keep the selected todo selected if it's still in the list
+    Todo selected = todoIndex != -1 ? todosListModel.getElementAt(todoIndex) : null;
+    todosListModel.showMatches(query.isBlank() ? null : searchIndex.search(query, SEARCH_LIMIT));
+    if (selected != null && todosListModel.indexOf(selected) != -1) {
+      selectTodo(selected);
+    }
+    if (todosListModel.isShowingMatches() && todosListModel.getSize() == 0) {
+      listHeading.setText("No todos match your search");
+    }
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Run the search again once the todos have finished changing, if the list is showing search results. Several changes in a row only search once
+
+  private void searchAgain() {
+    if (todosListModel.isShowingMatches() && !searchPending) {
+      searchPending = true;
+      SwingUtilities.invokeLater(this::search);
+    }
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Return the view of the todos sorted in the given order. Each view is built the first time it's needed, then kept up to date as the todos change
+
+  private SortedView viewFor(SortOrder order) {
+    if (sortedViews[order.ordinal()] == null) {
+      sortedViews[order.ordinal()] = new SortedView(todos, order);
+    }
+    return sortedViews[order.ordinal()];
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Show a dialog listing the todos which are overdue and the todos due in the next 24 hours, looked up in the due date index
+
+  private void showDueSoon() {
+
+    LocalDateTime now = LocalDateTime.now();
+    List<Todo> overdue = dueIndex.overdue(now, DUE_SOON_LIMIT);
+    List<Todo> upcoming = dueIndex.dueBetween(now, now.plusHours(24));
+
+    StringBuilder message = new StringBuilder();
+    message.append(overdue.isEmpty() ? "Nothing is overdue" : "Overdue:");
+    overdue.forEach(aTodo -> message.append("\n  ").append(aTodo.getText()).append(" (").append(aTodo.getDue()).append(")"));
+    message.append(upcoming.isEmpty() ? "\n\nNothing is due in the next 24 hours" : "\n\nDue in the next 24 hours:");
+    upcoming.stream().limit(DUE_SOON_LIMIT).forEach(aTodo -> message.append("\n  ").append(aTodo.getText()).append(" (").append(aTodo.getDue()).append(")"));
+
+    JOptionPane.showMessageDialog(this, message.toString(), "Due soon", JOptionPane.INFORMATION_MESSAGE);
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Show a dialog with a check box for each category, then open the categories checked & close the ones unchecked. A category's
+    todos are only read from its shard the first time it's opened, and closed categories are dropped from memory once they've been idle a while */
+
+  private void chooseCategories() {
+
+    Category[] cats = Category.values();
+    JPanel choices = new JPanel(new GridLayout(0, 1));
+    JCheckBox[] boxes = new JCheckBox[cats.length];
+    for (int i = 0; i < cats.length; i++) {
+      String count;
+      try {
+        count = String.format("%,d", shards.count(cats[i]));
+      } catch (IOException exc) {
+        count = "?";
+      }
+      boxes[i] = new JCheckBox(cats[i] + " (" + count + " todos)", shards.isOpen(cats[i]));
+      choices.add(boxes[i]);
+    }
+
+    if (JOptionPane.showConfirmDialog(this, choices, "Open categories", JOptionPane.OK_CANCEL_OPTION) != JOptionPane.OK_OPTION) {
+      return;
+    }
+
+    todoIndex = -1;
+    todosJList.clearSelection();
+    for (int i = 0; i < cats.length; i++) {
+      if (boxes[i].isSelected() == shards.isOpen(cats[i])) {
+        continue;
+      }
+      if (!boxes[i].isSelected()) {
+        shards.close(cats[i]);
+        continue;
+      }
+      try {
+        shards.open(cats[i]);
+      } catch (IOException exc) {
+        refreshDefaultView();
+        listHeading.setForeground(Color.red);
+        listHeading.setText("Reading the " + cats[i] + " todos failed");
+        return;
+      }
+    }
+    refreshDefaultView();
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to tell the user a todo has fallen due, in the heading above the list, with a beep
+
+  private void showReminder(Todo dueTodo) {
+
+    listHeading.setForeground(Color.red);
+    listHeading.setText("Reminder: " + dueTodo.getText() + " is due now");
+    Toolkit.getDefaultToolkit().beep();
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to retrieve the data from the todo currently selected in the list, and display it in the detail panel next to the list
+
+  private void displayTodo(Todo toBeDisplayed) {
+
+    todoData.setTodo(toBeDisplayed);
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Create the components & layout for the new todo entry form, add it to the frame, repaint & revalidate the frame
+
+  private void createTodoPanel() {
+
+    newTodoPanel = new JPanel(new GridBagLayout());
+    newTodoPanel.setPreferredSize(new Dimension(width / 3, height / 3));
+    GridBagConstraints newTodoCons = new GridBagConstraints();
+
+    heading = new JLabel("Create a new Todo");
+    newTodoCons.gridx = 0;
+    newTodoCons.gridy = 0;
+    newTodoCons.gridwidth = 2;
+    newTodoCons.weighty = 0.75;
+    newTodoCons.anchor = GridBagConstraints.CENTER;
+    newTodoPanel.add(heading, newTodoCons);
+
+    titleLabel = new JLabel("Title:");
+    newTodoCons.gridx = 0;
+    newTodoCons.gridy = 1;
+    newTodoCons.weighty = 0.5;
+    newTodoCons.anchor = GridBagConstraints.WEST;
+    newTodoPanel.add(titleLabel, newTodoCons);
+
+    title = new JTextField(30);
+    newTodoCons.gridx = 1;
+    newTodoCons.gridy = 1;
+    newTodoCons.anchor = GridBagConstraints.EAST;
+    newTodoPanel.add(title, newTodoCons);
+
+    dueLabel = new JLabel("<html>Due by <br>(YYYY-MM-DDTHH:MM):</html>");
+    newTodoCons.gridx = 0;
+    newTodoCons.gridy = 2;
+    newTodoCons.anchor = GridBagConstraints.WEST;
+    newTodoPanel.add(dueLabel, newTodoCons);
+
+    dueBy = new JTextField(16);
+    newTodoCons.gridx = 1;
+    newTodoCons.gridy = 2;
+    newTodoCons.anchor = GridBagConstraints.EAST;
+    newTodoPanel.add(dueBy, newTodoCons);
+
+    catLabel = new JLabel("Category:");
+    newTodoCons.gridx = 0;
+    newTodoCons.gridy = 3;
+    newTodoCons.anchor = GridBagConstraints.WEST;
+    newTodoPanel.add(catLabel, newTodoCons);
+
+    catDropdown = new JComboBox(categories);
+    newTodoCons.gridx = 1;
+    newTodoCons.gridy = 3;
+    newTodoCons.anchor = GridBagConstraints.EAST;
+    newTodoPanel.add(catDropdown, newTodoCons);
+
+    priorityLabel = new JLabel("Priority:");
+    newTodoCons.gridx = 0;
+    newTodoCons.gridy = 4;
+    newTodoCons.anchor = GridBagConstraints.WEST;
+    newTodoPanel.add(priorityLabel, newTodoCons);
+
+    priorityDropdown = new JComboBox(priorities);
+    newTodoCons.gridx = 1;
+    newTodoCons.gridy = 4;
+    newTodoCons.anchor = GridBagConstraints.EAST;
+    newTodoPanel.add(priorityDropdown, newTodoCons);
+
+    cancelButton = new JButton("Cancel");
+    newTodoCons.gridx = 0;
+    newTodoCons.gridy = 5;
+    newTodoCons.anchor = GridBagConstraints.WEST;
+    cancelButton.addActionListener(this);
+    cancelButton.setActionCommand("Cancel insert");
+    newTodoPanel.add(cancelButton, newTodoCons);
+
+    createButton = new JButton("Create");
+    newTodoCons.gridx = 1;
+    newTodoCons.gridy = 5;
+    newTodoCons.anchor = GridBagConstraints.EAST;
+    createButton.addActionListener(this);
+    createButton.setActionCommand("Create");
+    newTodoPanel.add(createButton, newTodoCons);
+
+    newTodoPanel.setVisible(true);
+    add(newTodoPanel);
+    repaint();
+    revalidate();
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to create a new Todo
+
+  private void createTodo() {
+
+    heading.setForeground(Color.black);
+    titleLabel.setForeground(Color.black);
+    dueLabel.setForeground(Color.black);
+
+    String titleInput = title.getText();
+    boolean titleValid;
+    String dueInput = dueBy.getText();
+    boolean dueDateValid = false;
+    LocalDateTime dueDateTime = null;
+    String catInput = (String) catDropdown.getSelectedItem();
+    Category category;
+    String priorityInput = (String) priorityDropdown.getSelectedItem();
+    Importance priority;
+    Status status;
+    String errorPrompt = "<html><p color='red'>";
+    String titlePrompt = "Title must be 1-30 characters long, containing only letters, digits, spaces and apostrophes.<br>Title cannot be a single apostrophe<br>";
+    String dueDatePassed = "Your Todo can't be due for completion in the past!<br>";
+    String invalidDueDate = "The due date you entered is not valid<br>";
+
+    titleValid = TodoRules.isValidTitle(titleInput);
+    if (!titleValid) {
+      titleLabel.setForeground(Color.red);
+      errorPrompt += titlePrompt;
+    }
+
+    try {
+      dueDateTime = LocalDateTime.parse(dueInput);
+      LocalDateTime now = LocalDateTime.now();
+      dueDateValid = dueDateTime.isAfter(now);
+      errorPrompt += dueDateValid ? "" : dueDatePassed;
+    } catch (DateTimeParseException exc) {
+      errorPrompt += invalidDueDate;
+    }
+
+    if (!dueDateValid) {
+      dueLabel.setForeground(Color.red);
+    }
+
+    if (titleValid & dueDateValid) {
+
+      category = Menu.stringToCat(catInput);
+      priority = Menu.stringToImportance(priorityInput);
+      status = Status.pending;
+
+      long started = TodoMetrics.start();
+      Todo newTodo = new Todo(titleInput, dueDateTime, category, priority, status);
+      // Journalled before it's added, so a todo which couldn't be saved is never listed
+      if (!journalChange("create", newTodo)) {
+        heading.setForeground(Color.red);
+        heading.setText("Your Todo couldn't be saved to the journal, so it wasn't created");
+        return;
+      }
+      todos.add(newTodo);
+      TodoMetrics.record(TodoOperation.create, started);
+
+      showDefaultView(newTodoPanel);
+      selectTodo(newTodo);
+
+    } else {
+      errorPrompt += "</p></html>";
+      heading.setText(errorPrompt);
+    }
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to create the 'update todo' form/view
+
+  private void updatePanel() {
+
+    Todo toBeUpdated = todosListModel.getElementAt(todoIndex);
+
+    updatePanel = new JPanel(new GridBagLayout());
+    updatePanel.setPreferredSize(new Dimension(width / 3, height / 3));
+    GridBagConstraints updateCons = new GridBagConstraints();
+
+    String headingText = "Update Todo: " + toBeUpdated.getText();
+    heading = new JLabel(headingText);
+    updateCons.gridx = 0;
+    updateCons.gridy = 0;
+    updateCons.gridwidth = 2;
+    updateCons.weighty = 0.75;
+    updateCons.anchor = GridBagConstraints.CENTER;
+    updatePanel.add(heading, updateCons);
+
+    titleLabel = new JLabel("Title:");
+    updateCons.gridx = 0;
+    updateCons.gridy = 1;
+    updateCons.anchor = GridBagConstraints.WEST;
+    updatePanel.add(titleLabel, updateCons);
+
+    title = new JTextField(toBeUpdated.getText(), 30);
+    updateCons.gridx = 1;
+    updateCons.gridy = 1;
+    updateCons.weightx = 0.5;
+    updateCons.anchor = GridBagConstraints.EAST;
+    updatePanel.add(title, updateCons);
+
+    dueLabel = new JLabel("<html>Due by <br>(YYYY-MM-DDTHH:MM):</html>");
+    updateCons.gridx = 0;
+    updateCons.gridy = 2;
+    updateCons.anchor = GridBagConstraints.WEST;
+    updatePanel.add(dueLabel, updateCons);
+
+    LocalDateTime currDue = toBeUpdated.getDue();
+    String currDueString = currDue.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    dueBy = new JTextField(currDueString, 16);
+    updateCons.gridx = 1;
+    updateCons.gridy = 2;
+    updateCons.anchor = GridBagConstraints.EAST;
+    updatePanel.add(dueBy, updateCons);
+
+    catLabel = new JLabel("Category:");
+    updateCons.gridx = 0;
+    updateCons.gridy = 3;
+    updateCons.anchor = GridBagConstraints.WEST;
+    updatePanel.add(catLabel, updateCons);
+
+    int catIndex = toBeUpdated.getCat().ordinal();
+    catDropdown = new JComboBox(categories);
+    updateCons.gridx = 1;
+    updateCons.gridy = 3;
+    updateCons.anchor = GridBagConstraints.EAST;
+    catDropdown.setSelectedIndex(catIndex);
+    updatePanel.add(catDropdown, updateCons);
+
+    priorityLabel = new JLabel("Priority:");
+    updateCons.gridx = 0;
+    updateCons.gridy = 4;
+    updateCons.anchor = GridBagConstraints.WEST;
+    updatePanel.add(priorityLabel, updateCons);
+
+    int priorIndex = toBeUpdated.getImportance().ordinal();
+    priorityDropdown = new JComboBox(priorities);
+    updateCons.gridx = 1;
+    updateCons.gridy = 4;
+    updateCons.anchor = GridBagConstraints.EAST;
+    priorityDropdown.setSelectedIndex(priorIndex);
+    updatePanel.add(priorityDropdown, updateCons);
+
+    JLabel statusLabel = new JLabel("Status:");
+    updateCons.gridx = 0;
+    updateCons.gridy = 5;
+    updateCons.anchor = GridBagConstraints.WEST;
+    updatePanel.add(statusLabel, updateCons);
+
+    int statusIndex = toBeUpdated.getCompletion().ordinal();
+    String[] statuses = {"pending", "started", "partial", "completed"};
+    statusDropdown = new JComboBox(statuses);
+    updateCons.gridx = 1;
+    updateCons.gridy = 5;
+    updateCons.anchor = GridBagConstraints.EAST;
+    statusDropdown.setSelectedIndex(statusIndex);
+    updatePanel.add(statusDropdown, updateCons);
+
+    cancelButton = new JButton("Cancel");
+    updateCons.gridx = 0;
+    updateCons.gridy = 6;
+    updateCons.anchor = GridBagConstraints.WEST;
+    cancelButton.addActionListener(this);
+    cancelButton.setActionCommand("Cancel update");
+    updatePanel.add(cancelButton, updateCons);
+
+    createButton = new JButton("Update");
+    updateCons.gridx = 1;
+    updateCons.gridy = 6;
+    updateCons.anchor = GridBagConstraints.EAST;
+    createButton.addActionListener(this);
+    createButton.setActionCommand("Update");
+    updatePanel.add(createButton, updateCons);
+
+    updatePanel.setVisible(true);
+    add(updatePanel);
+    repaint();
+    revalidate();
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to validate form data & update the provided Todo instance
+
+  private void updateTodo() {
+
+    heading.setForeground(Color.black);
+    titleLabel.setForeground(Color.black);
+    dueLabel.setForeground(Color.black);
+
+    String newTitle = title.getText();
+    String titlePrompt = "Title must be 1-30 characters long, containing only letters, digits, spaces and apostrophes.<br>Title cannot be a single apostrophe<br>";
+    String dueBeforeRelease = "Your Todo can't be due for completion before this app was released!<br>";
+    String errorPrompt = "<html><p>";
+
+    boolean titleValid = TodoRules.isValidTitle(newTitle);
+
+    if (!titleValid) {
+      titleLabel.setForeground(Color.red);
+      errorPrompt += titlePrompt;
+    }
+
+    LocalDateTime dateInput = null;
+    boolean validDate = false;
+    String invalidDueDate = "The due date you entered is not valid<br>";
+
+    try {
+      dateInput = LocalDateTime.parse(dueBy.getText());
+      validDate = TodoRules.isValidDue(dateInput);
+      errorPrompt += validDate ? "" : dueBeforeRelease;
+    } catch (DateTimeParseException exc) {
+      errorPrompt += invalidDueDate;
+      dueLabel.setForeground(Color.red);
+    }
+
+    if (titleValid && validDate) {
+
+      Category newCat = Menu.stringToCat((String) catDropdown.getSelectedItem());
+
+      Importance priority = Menu.stringToImportance((String) priorityDropdown.getSelectedItem());
+
+      Status status = Menu.stringToStatus((String) statusDropdown.getSelectedItem());
+
+      long started = TodoMetrics.start();
+      Todo toBeUpdated = todosListModel.getElementAt(todoIndex);
+      // The journal records the changed Todo, so the change is made first & undone if it can't be journalled
+      Todo before = new Todo(toBeUpdated.getText(), toBeUpdated.getDue(), toBeUpdated.getCat(), toBeUpdated.getImportance(), toBeUpdated.getCompletion());
+      setFields(toBeUpdated, newTitle, dateInput, newCat, priority, status);
+      if (!journalChange("update", toBeUpdated)) {
+        setFields(toBeUpdated, before.getText(), before.getDue(), before.getCat(), before.getImportance(), before.getCompletion());
+        heading.setForeground(Color.red);
+        heading.setText("Your changes couldn't be saved to the journal, so they weren't made");
+        return;
+      }
+      TodoMetrics.record(TodoOperation.update, started);
+
+      showDefaultView(updatePanel);
+      selectTodo(toBeUpdated);
+
+    } else {
+      errorPrompt += "</p></html>";
+      heading.setForeground(Color.red);
+      heading.setText(errorPrompt);
+    }
+
+  }
+
+
+  private static void setFields(Todo todo, String text, LocalDateTime due, Category cat, Importance importance, Status completion) {
+    todo.setText(text);
+    todo.setDue(due);
+    todo.setCat(cat);
+    todo.setImportance(importance);
+    todo.setCompletion(completion);
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to delete an instance of Todo from the todos arrayList
+
+  private void deleteTodo() {
+
+    int option = JOptionPane.showConfirmDialog(null, "Are you sure you want to delete " + todosListModel.getElementAt(todoIndex).getText() + "?");
+
+    if (option == 0) {
+      long started = TodoMetrics.start();
+      Todo toDelete = todosListModel.getElementAt(todoIndex);
+      if (!journalChange("delete", toDelete)) {
+        listHeading.setForeground(Color.red);
+        listHeading.setText(toDelete.getText() + " couldn't be deleted from the journal, so it wasn't deleted");
+        return;
+      }
+      todos.remove(toDelete);
+      TodoMetrics.record(TodoOperation.delete, started);
+      todoIndex = -1;
+      refreshDefaultView();
+    }
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Record a created, updated or deleted Todo in the journal (if there is one), so the change is persisted without rewriting the whole file. Returns false
+    if it couldn't be, so the change isn't made, as in the CLI & batch mode */
+
+  private boolean journalChange(String change, Todo todo) {
+
+    if (journal == null) {
+      return true;
+    }
+
+    try {
+      switch (change) {
+        case "create":
+          journal.created(todo);
+          break;
+        case "update":
+          journal.updated(todo);
+          break;
+        default:
+          journal.deleted(todo);
+      }
+    } catch (IOException e) {
+      System.out.println("Writing " + change + " of " + todo.getText() + " to the journal failed");
+      return false;
+    }
+    return true;
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Loads a todo file on a background thread, so the GUI keeps responding while a big file is read. Todos are added to the list in batches as they
+    are read, so the first ones can be browsed straight away, and the heading shows how far through the file loading is & how fast it's going.
+    Loading is cancelled by clicking the load button again, keeping the todos loaded so far. If the load fails, or every line of the file is rejected,
+    the todos from before the load are put back. With a journal, only a load which finishes replaces the journalled todos, so a cancelled load also
+    puts the todos from before back. With category shards, the todos are added to their categories' shards rather than replacing the list, and only
+    those of open categories are listed */
+
+  private class LoadWorker extends SwingWorker<List<Todo>, Void> {
+
+    private final Path toLoad;
+    // The todos listed before the load (null if they weren't cleared), put back if the load doesn't replace them
+    private final List<Todo> previous;
+    // Lines which can't be loaded are put here, and the rest of the file still loaded
+    private final ImportQuarantine quarantine;
+    private final long started = System.nanoTime();
+    // Every todo read, kept on the background thread for the journal, since batches can still be queued for the list when done() runs
+    private final List<Todo> read = new ArrayList<>();
+    private List<Todo> batch = new ArrayList<>();
+    private long lastBatch;
+    private long loaded;
+    // Set once done() has run, after which batches still queued are dropped rather than added to the list
+    private boolean finished;
+    // Set if a category's shard couldn't be read to add todos to it, which stops the load
+    private boolean shardsFailed;
+
+    LoadWorker(Path toLoad, List<Todo> previous) {
+      this.toLoad = toLoad;
+      this.previous = previous;
+      this.quarantine = new ImportQuarantine(ImportQuarantine.pathFor(toLoad));
+    }
+
+    // Runs on the background thread. Batches are handed to the event dispatch thread with invokeLater rather than publish, since published batches can
+    // arrive after done() has been called, while invokeLater keeps them in order
+    @Override
+    protected List<Todo> doInBackground() throws IOException {
+      long fileSize = Math.max(1, Files.size(toLoad));
+      try {
+        Menu.streamFromPath(toLoad, aTodo -> {
+          if (isCancelled()) {
+            throw new CancellationException();
+          }
+          read.add(aTodo);
+          batch.add(aTodo);
+          long now = System.nanoTime();
+          if (batch.size() >= LOAD_BATCH_SIZE || now - lastBatch >= LOAD_BATCH_NANOS) {
+            addBatch();
+            lastBatch = now;
+          }
+        }, bytesRead -> setProgress((int) Math.min(100, bytesRead * 100 / fileSize)), quarantine);
+      } finally {
+        quarantine.close();
+      }
+      addBatch();
+      return read;
+    }
+
+    private void addBatch() {
+      List<Todo> toAdd = batch;
+      batch = new ArrayList<>();
+      SwingUtilities.invokeLater(() -> {
+        if (finished || shardsFailed) {
+          return;
+        }
+        if (shards == null) {
+          todos.addAll(toAdd);
+        } else {
+          try {
+            shards.addAll(toAdd);
+          } catch (IOException exc) {
+            shardsFailed = true;
+            cancel(false);
+            return;
+          }
+        }
+        loaded += toAdd.size();
+        long perSecond = loaded * 1_000_000_000L / Math.max(1, System.nanoTime() - started);
+        listHeading.setText(String.format("Loading... %,d todos (%d%%), %,d todos/s", loaded, getProgress(), perSecond));
+        saveButton.setVisible(true);
+      });
+    }
+
+    // Runs on the event dispatch thread once loading has finished, failed or been cancelled
+    @Override
+    protected void done() {
+      loadWorker = null;
+      finished = true;
+      loadButton.setText("Load file");
+      listHeading.setForeground(Color.black);
+
+      double seconds = (System.nanoTime() - started) / 1e9;
+      // The todos read, if the load finished & they replace the ones before
+      List<Todo> loadedTodos = null;
+      if (shardsFailed) {
+        listHeading.setForeground(Color.red);
+        listHeading.setText(String.format("Reading a category's todos failed, so loading stopped after %,d todos", loaded));
+      } else if (isCancelled()) {
+        if (journal != null) {
+          restorePrevious();
+          listHeading.setText("Loading cancelled. The todos from before the load are kept");
+        } else {
+          listHeading.setText(String.format("Loading cancelled after %,d todos", loaded));
+        }
+      } else {
+        try {
+          loadedTodos = get();
+          listHeading.setText(String.format("Loaded %,d todos in %.1f seconds", loaded, seconds));
+          if (quarantine.getRejected() > 0) {
+            listHeading.setForeground(Color.red);
+            if (loadedTodos.isEmpty()) {
+              loadedTodos = null;
+              restorePrevious();
+              listHeading.setText(String.format("Every line was bad, so nothing was loaded. The lines were put in %s", quarantine.getFile().getFileName()));
+            } else {
+              listHeading.setText(String.format("Loaded %,d todos in %.1f seconds. %,d bad lines were put in %s", loaded, seconds,
+                  quarantine.getRejected(), quarantine.getFile().getFileName()));
+            }
+          }
+        } catch (ExecutionException exc) {
+          Throwable cause = exc.getCause();
+          restorePrevious();
+          listHeading.setForeground(Color.red);
+          if (cause instanceof NoSuchFileException) {
+            listHeading.setText("File not found");
+          } else if (cause instanceof IOException) {
+            listHeading.setText("Reading from file failed");
+          } else {
+            listHeading.setText("Loading stopped at a bad line. " + cause.getMessage());
+          }
+        } catch (InterruptedException exc) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      saveButton.setVisible(todos.size() > 0);
+
+      if (journal != null && loadedTodos != null) {
+        new JournalWorker(loadedTodos).execute();
+      }
+    }
+
+    // Put back the todos listed before the load, if it cleared them
+    private void restorePrevious() {
+      if (previous != null) {
+        todos.clear();
+        todos.addAll(previous);
+        refreshDefaultView();
+      }
+    }
+  }
+
+
+  /* Writes the loaded todos to the journal as its new snapshot on a background thread, since for a big file that takes a while. Todos can't be created,
+    changed or deleted (or another file loaded) until it's written, so no change is journalled against the todos being replaced */
+
+  private class JournalWorker extends SwingWorker<Void, Void> {
+
+    private final List<Todo> loaded;
+
+    JournalWorker(List<Todo> loaded) {
+      this.loaded = loaded;
+      setEditingEnabled(false);
+    }
+
+    @Override
+    protected Void doInBackground() throws IOException {
+      journal.replaceAll(loaded);
+      return null;
+    }
+
+    @Override
+    protected void done() {
+      setEditingEnabled(true);
+      try {
+        get();
+      } catch (ExecutionException exc) {
+        System.out.println("Writing loaded Todos to the journal failed");
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+
+  private void setEditingEnabled(boolean enabled) {
+    addButton.setEnabled(enabled);
+    updateButton.setEnabled(enabled);
+    deleteButton.setEnabled(enabled);
+    loadButton.setEnabled(enabled);
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to create the UI for browsing a todo file too big to load. The list's model reads the todos from the PagedTodoFile as they're scrolled into view,
+    and since every row is the same size the list never has to look at the rows it isn't showing. The todos can be looked at but not changed */
+
+  private void browsePanel() {
+
+    browsePanel = new JPanel(new GridBagLayout());
+    browsePanel.setPreferredSize(new Dimension(width / 3, height / 3));
+    GridBagConstraints browseCons = new GridBagConstraints();
+
+    TodoFileIndex index = browsing.getIndex();
+    heading = new JLabel(String.format("%,d todos in %s%s", index.getCount(), browsing.getFile().getFileName(),
+        index.getRejected() > 0 ? String.format(" (%,d bad lines skipped)", index.getRejected()) : ""), JLabel.CENTER);
+    browseCons.gridx = 0;
+    browseCons.gridy = 0;
+    browseCons.gridwidth = 2;
+    browseCons.weightx = 0.5;
+    browseCons.anchor = GridBagConstraints.CENTER;
+    browsePanel.add(heading, browseCons);
+
+    JList<Todo> browseJList = new JList<>(new AbstractListModel<Todo>() {
+      public int getSize() {
+        return browsing.size();
+      }
+
+      public Todo getElementAt(int index) {
+        return browsing.get(index);
+      }
+    });
+    browseJList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    browseJList.setCellRenderer(new TodoCellRenderer());
+    browseJList.setPrototypeCellValue(new Todo("Prototype title 30 characters", LocalDateTime.now(), Category.green, Importance.normal, Status.pending));
+    TodoDetailPanel browseData = new TodoDetailPanel();
+    browseJList.addListSelectionListener(event -> browseData.setTodo(browseJList.getSelectedValue()));
+
+    browseCons.gridx = 0;
+    browseCons.gridy = 1;
+    browseCons.gridwidth = 1;
+    browseCons.anchor = GridBagConstraints.WEST;
+    browseCons.fill = GridBagConstraints.VERTICAL;
+    browseCons.weightx = 1;
+    browseCons.weighty = 1;
+    browsePanel.add(new JScrollPane(browseJList), browseCons);
+
+    browseCons.gridx = 1;
+    browseCons.gridy = 1;
+    browseCons.fill = GridBagConstraints.HORIZONTAL;
+    browsePanel.add(browseData, browseCons);
+
+    closeBrowseButton = new JButton("Close file");
+    browseCons.gridx = 1;
+    browseCons.gridy = 2;
+    browseCons.weightx = 0;
+    browseCons.weighty = 0;
+    browseCons.fill = GridBagConstraints.NONE;
+    browseCons.anchor = GridBagConstraints.CENTER;
+    closeBrowseButton.addActionListener(this);
+    browsePanel.add(closeBrowseButton, browseCons);
+
+    remove(defaultView);
+    add(browsePanel);
+    repaint();
+    revalidate();
+
+  }
+
+
+  private void closeBrowsePanel() {
+    try {
+      browsing.close();
+    } catch (IOException exc) {
+      System.out.println("Closing " + browsing.getFile() + " failed");
+    }
+    browsing = null;
+    browseButton.setEnabled(true);
+    showDefaultView(browsePanel);
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Indexes the file to browse on a background thread (or reads its saved index), since indexing a big file for the first time takes a while,
+    then shows the browse view */
+
+  private class BrowseWorker extends SwingWorker<PagedTodoFile, Void> {
+
+    private final Path toBrowse;
+
+    BrowseWorker(Path toBrowse) {
+      this.toBrowse = toBrowse;
+    }
+
+    @Override
+    protected PagedTodoFile doInBackground() throws IOException {
+      return PagedTodoFile.open(toBrowse);
+    }
+
+    @Override
+    protected void done() {
+      try {
+        browsing = get();
+        browsePanel();
+      } catch (ExecutionException exc) {
+        browseButton.setEnabled(true);
+        listHeading.setForeground(Color.red);
+        listHeading.setText(exc.getCause() instanceof NoSuchFileException ? "File not found" : "Browsing failed. " + exc.getCause().getMessage());
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Saves a snapshot of the todos on a background thread, so the GUI keeps responding (and the todos can still be edited) while a big file is written.
+    The snapshot is taken on the event dispatch thread before the worker starts, so the file holds the todos exactly as they were when save was clicked */
+
+  private class SaveWorker extends SwingWorker<Void, Void> {
+
+    private final Path toSave;
+    private final TodoSnapshot snapshot;
+
+    SaveWorker(Path toSave, TodoSnapshot snapshot) {
+      this.toSave = toSave;
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    protected Void doInBackground() throws IOException {
+      Menu.saveSnapshot(toSave, snapshot);
+      return null;
+    }
+
+    // Runs on the event dispatch thread once the save has finished or failed
+    @Override
+    protected void done() {
+      saveButton.setEnabled(true);
+      saveButton.setText("Save");
+      try {
+        get();
+        listHeading.setForeground(Color.black);
+        listHeading.setText(String.format("Saved %,d todos to %s", snapshot.size(), toSave.getFileName()));
+      } catch (ExecutionException exc) {
+        listHeading.setForeground(Color.red);
+        listHeading.setText("Writing to external file failed!");
+      } catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,86 @@
+package com.company;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/* Where an import puts the lines it rejects, so one bad line doesn't stop the rest of the file being imported. Each rejected
+  line is written as it was in the file, after a comment saying where it came from & what was wrong with it:
+
+    # line 12: The importance must be one of [low, normal, high]
+    Pay rent,2030-01-01T09:00,red,urgent,pending
+
+  Once the lines are fixed, the file can be imported again (imports skip the comments). The file is only created when the
+  first line is rejected, and an old one from an earlier import of the same file is deleted if nothing is rejected */
+public class ImportQuarantine implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final String SUFFIX = ".rejected";
+
+  private final Path file;
+  private OutputStream out;
+  private long rejected;
+
+
+  public ImportQuarantine(Path file) {
+    this.file = file;
+  }
+
+  // The quarantine file for imports of the given file: the same name with .rejected added, in the same directory
+  public static Path pathFor(Path source) {
+    return source.resolveSibling(source.getFileName() + SUFFIX);
+  }
+
+
+  public Path getFile() {
+    return file;
+  }
+
+  public synchronized long getRejected() {
+    return rejected;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods to reject the line held in buf between start & end (or given as text), numbered from 1 in the file being imported
+
+  public synchronized void reject(long lineNumber, String reason, byte[] buf, int start, int end) throws IOException {
+    writeReason(lineNumber, reason);
+    out.write(buf, start, end - start);
+    out.write('\n');
+  }
+
+  public synchronized void reject(long lineNumber, String reason, String line) throws IOException {
+    writeReason(lineNumber, reason);
+    if (line != null) {
+      out.write(line.getBytes(StandardCharsets.UTF_8));
+      out.write('\n');
+    }
+  }
+
+  private void writeReason(long lineNumber, String reason) throws IOException {
+    if (out == null) {
+      out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+    }
+    rejected++;
+    out.write(("# line " + lineNumber + ": " + reason + "\n").getBytes(StandardCharsets.UTF_8));
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to finish writing the rejected lines, or delete the file left by an earlier import if there weren't any
+
+  public synchronized void close() throws IOException {
+    if (out != null) {
+      out.close();
+      out = null;
+    } else if (rejected == 0) {
+      Files.deleteIfExists(file);
+    }
+  }
+
+}
@@ -0,0 +1,164 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/* Saves a list of Todos to a text file, re-serializing only the Todos which were added or changed (according to
+  Todo.getVersion) since the last save through this saver. The bytes of unchanged Todos are copied across from the
+  previous file by the operating system, and removed Todos are simply left out. The new file is written next to the
+  old one and then moved over it, so the file on disk is always either the old list or the new one */
+public class IncrementalSaver {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  // Where a Todo's line was written in the last save, and the Todo's version at that time
+  private static class SavedLine {
+    private final long offset;
+    private final int length;
+    private final int version;
+
+    SavedLine(long offset, int length, int version) {
+      this.offset = offset;
+      this.length = length;
+      this.version = version;
+    }
+  }
+
+  private final Path target;
+  // Encodes changed Todos into the same buffer each time, rather than building a String & a byte[] per line
+  private final TodoCodec codec = new TodoCodec();
+  private IdentityHashMap<Todo, SavedLine> saved = new IdentityHashMap<>();
+  private long savedSize = -1;
+  private FileTime savedModified;
+
+
+  public IncrementalSaver(Path target) {
+    this.target = target;
+  }
+
+  public Path getTarget() {
+    return target;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Save the Todos to the target file, in the order given. Returns the number of Todos which had to be re-serialized
+
+  public int save(List<Todo> todos) throws IOException {
+    return save(TodoSnapshot.of(todos));
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Save the Todos in a snapshot, which can be done on another thread while the Todos themselves are being changed. Whether
+    each Todo changed since the last save is judged by its version when the snapshot was taken */
+
+  public synchronized int save(TodoSnapshot snapshot) throws IOException {
+
+    List<Todo> values = snapshot.getValues();
+    int count = snapshot.size();
+    boolean canReuse = previousSaveIntact();
+    IdentityHashMap<Todo, SavedLine> nowSaved = new IdentityHashMap<>(count * 2);
+    Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+    int serialized = 0;
+
+    try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+         FileChannel old = canReuse ? FileChannel.open(target, StandardOpenOption.READ) : null) {
+
+      ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+      long written = 0;
+
+      // A run of unchanged lines which follow each other in the old file, waiting to be copied in one go
+      long copyFrom = -1;
+      long copyLength = 0;
+
+      for (int i = 0; i < count; i++) {
+
+        Todo todo = snapshot.getSource(i);
+        int version = snapshot.getVersion(i);
+        SavedLine previous = canReuse ? saved.get(todo) : null;
+
+        if (previous != null && previous.version == version) {
+          if (copyFrom + copyLength != previous.offset) {
+            written += flush(out, buf);
+            copyRange(old, out, copyFrom, copyLength);
+            written += copyLength;
+            copyFrom = previous.offset;
+            copyLength = 0;
+          }
+          nowSaved.put(todo, new SavedLine(written + copyLength, previous.length, previous.version));
+          copyLength += previous.length;
+        } else {
+          copyRange(old, out, copyFrom, copyLength);
+          written += copyLength;
+          copyFrom = -1;
+          copyLength = 0;
+
+          int length = codec.encode(values.get(i));
+          if (buf.remaining() < length) {
+            written += flush(out, buf);
+          }
+          long offset = written + buf.position();
+          if (length > buf.capacity()) {
+            out.write(ByteBuffer.wrap(codec.getLine(), 0, length));
+            written += length;
+          } else {
+            buf.put(codec.getLine(), 0, length);
+          }
+          nowSaved.put(todo, new SavedLine(offset, length, version));
+          serialized++;
+        }
+      }
+
+      written += flush(out, buf);
+      copyRange(old, out, copyFrom, copyLength);
+      out.force(true);
+    }
+
+    Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+    saved = nowSaved;
+    savedSize = Files.size(target);
+    savedModified = Files.getLastModifiedTime(target);
+    return serialized;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The saved offsets can only be trusted if the file still looks exactly as it did after the last save
+
+  private boolean previousSaveIntact() throws IOException {
+    return savedSize >= 0 && Files.exists(target) && Files.size(target) == savedSize
+        && Files.getLastModifiedTime(target).equals(savedModified);
+  }
+
+
+  // Write out everything in the buffer, returning the number of bytes written
+  private static long flush(FileChannel out, ByteBuffer buf) throws IOException {
+    buf.flip();
+    long count = buf.remaining();
+    while (buf.hasRemaining()) {
+      out.write(buf);
+    }
+    buf.clear();
+    return count;
+  }
+
+
+  // Copy a range of bytes from the old file to the end of the new one
+  private static void copyRange(FileChannel old, FileChannel out, long from, long length) throws IOException {
+    long copied = 0;
+    while (copied < length) {
+      copied += old.transferTo(from + copied, length - copied, out);
+    }
+  }
+
+}
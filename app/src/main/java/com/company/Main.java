@@ -0,0 +1,201 @@
+package com.company;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class Main {
+
+    // Port the server listens on if "--server" isn't given one
+    private static final int DEFAULT_PORT = 8080;
+
+    /* Instantiate the GUI. Run with "--journal <directory>" to persist every change to a journal in that directory.
+      Run with "--server [port]" to serve the todos over HTTP instead (see TodoServer), with no GUI, or with "--batch [file]"
+      to run the commands in the file (or from standard input) without prompting (see TodoBatch). "--load <file>" starts the
+      server or batch with the todos in a todo file (a batch can't be given both a journal & a file). "--cli" runs the command line menu instead of the GUI.
+
+      Run with "--shards <directory>" to keep the todos in that directory with one file per category (see TodoShards), opening
+      only the categories given with "--categories red,blue,..." (or every category if it isn't given). "--load <file>" then
+      adds the todos in the file to the shards */
+
+    public static void main(String[] args) throws IOException {
+
+      TodoJournal journal = null;
+      Integer serverPort = null;
+      Path toLoad = null;
+      boolean batch = false;
+      Path batchFile = null;
+      Path shardDir = null;
+      Category[] openCats = Category.values();
+      boolean cli = false;
+
+      for (int i = 0; i < args.length; i++) {
+        if (args[i].equals("--journal") && i + 1 < args.length) {
+          journal = TodoJournal.open(Paths.get(args[++i]));
+        } else if (args[i].equals("--server")) {
+          serverPort = i + 1 < args.length && args[i + 1].matches("[0-9]{1,5}") ? Integer.parseInt(args[++i]) : DEFAULT_PORT;
+        } else if (args[i].equals("--batch")) {
+          batch = true;
+          batchFile = i + 1 < args.length && !args[i + 1].startsWith("--") ? Paths.get(args[++i]) : null;
+        } else if (args[i].equals("--load") && i + 1 < args.length) {
+          toLoad = Paths.get(args[++i]);
+        } else if (args[i].equals("--shards") && i + 1 < args.length) {
+          shardDir = Paths.get(args[++i]);
+        } else if (args[i].equals("--categories") && i + 1 < args.length) {
+          openCats = parseCategories(args[++i]);
+          if (openCats == null) {
+            return;
+          }
+        } else if (args[i].equals("--cli")) {
+          cli = true;
+        } else {
+          System.out.println("Unrecognised option " + args[i]);
+        }
+      }
+
+      // Operation counts & latencies can be watched over JMX (e.g. in JConsole) whichever mode the app runs in
+      TodoMetrics.registerMBean();
+
+      if (shardDir != null && (batch || serverPort != null)) {
+        System.out.println("Category shards are only used by the GUI & command line menu");
+        shardDir = null;
+      }
+
+      if (batch) {
+        if (journal != null && toLoad != null) {
+          // Running the commands on either set of todos alone would leave the other out, so nothing is run
+          System.out.println("A batch runs on the todos in the journal or in a file, not both. Use --journal or --load");
+          journal.close();
+          return;
+        }
+        runBatch(journal, toLoad, batchFile);
+        return;
+      }
+
+      if (serverPort != null) {
+        if (journal != null) {
+          System.out.println("The server doesn't use the journal. Use --load to serve the todos in a file");
+          journal.close();
+        }
+        TodoRepository repository = new TodoRepository();
+        if (toLoad != null) {
+          repository.addAll(Menu.loadFromPath(toLoad));
+        }
+        TodoServer.useTcpNoDelay();
+        TodoServer server = new TodoServer(repository, serverPort);
+        server.start();
+        System.out.println("Serving " + repository.size() + " todos at http://localhost:" + server.getPort() + "/todos");
+        return;
+      }
+
+      if (shardDir != null) {
+        if (journal != null) {
+          System.out.println("The journal isn't used with category shards, which save their own changes");
+          journal.close();
+          journal = null;
+        }
+        runShards(shardDir, openCats, toLoad, cli);
+        return;
+      }
+
+      if (journal != null) {
+        TodoJournal toClose = journal;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+          try {
+            toClose.close();
+          } catch (IOException e) {
+            System.out.println("Closing the journal failed");
+          }
+        }));
+      }
+      TodoJournal todoJournal = journal;
+
+      if (cli) {
+        new CLIMenu(todoJournal != null ? todoJournal.getTodos() : new ArrayList<>(), todoJournal);
+        return;
+      }
+
+      SwingUtilities.invokeLater(new Runnable() {
+        @Override
+        public void run() {
+
+          ArrayList<Todo> todos = todoJournal != null ? todoJournal.getTodos() : new ArrayList<>();
+
+          new GUI(todos, todoJournal);
+        }
+      });
+    }
+
+
+    /* Open the given categories from the shards in the directory (after adding the todos in the file to load, if there is one),
+      then run the GUI or command line menu on them. Changed shards are saved when the app exits */
+
+    private static void runShards(Path shardDir, Category[] openCats, Path toLoad, boolean cli) throws IOException {
+
+      TodoShards shards = new TodoShards(shardDir);
+      if (toLoad != null) {
+        shards.addAll(Menu.loadFromPath(toLoad));
+        shards.save();
+      }
+
+      long started = System.nanoTime();
+      shards.open(openCats);
+      System.out.printf("Opened %,d todos from %d categories in %.0f ms%n", shards.getTodos().size(), openCats.length, (System.nanoTime() - started) / 1e6);
+      shards.startDropping();
+
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          shards.close();
+        } catch (IOException e) {
+          System.out.println("Saving the category shards failed");
+        }
+      }));
+
+      if (cli) {
+        new CLIMenu(shards);
+        return;
+      }
+      SwingUtilities.invokeLater(() -> new GUI(shards));
+    }
+
+
+    // The categories in a comma separated list, or null (after saying which) if one isn't a category
+
+    private static Category[] parseCategories(String list) {
+      String[] names = list.split(",");
+      Category[] cats = new Category[names.length];
+      for (int i = 0; i < names.length; i++) {
+        try {
+          cats[i] = Category.valueOf(names[i].trim());
+        } catch (IllegalArgumentException exc) {
+          System.out.println(names[i] + " isn't a category. The categories are " + Arrays.toString(Category.values()));
+          return null;
+        }
+      }
+      return cats;
+    }
+
+
+    // Run a batch of commands on the todos in the journal or file (if either is given, but not both), then close the journal
+
+    private static void runBatch(TodoJournal journal, Path toLoad, Path batchFile) throws IOException {
+
+      ArrayList<Todo> todos = journal != null ? journal.getTodos() : toLoad != null ? Menu.loadFromPath(toLoad) : new ArrayList<>();
+      TodoBatch batch = new TodoBatch(todos, journal);
+
+      try (Reader commands = batchFile != null ? Files.newBufferedReader(batchFile) : new InputStreamReader(System.in, StandardCharsets.UTF_8)) {
+        batch.run(commands, System.out);
+      } finally {
+        if (journal != null) {
+          journal.close();
+        }
+      }
+    }
+}
@@ -0,0 +1,347 @@
+package com.company;
+
+import java.io.File;
+import java.io.IOException;
+import java.awt.FileDialog;
+import java.io.FilenameFilter;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+public class Menu {
+
+  // Remembers what was written by the last text save, so saving to the same file again only re-writes what changed
+  private static IncrementalSaver lastSaver;
+
+  // Files at least this big are imported in parallel chunks, across all cores
+  private static final long PARALLEL_LOAD_THRESHOLD = 64L << 20;
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to retrieve the data from the todo currently selected in the list, format it for readability and display it in a JLabel next to the list
+
+  public static String formatTodo(Todo selectedTodo) {
+
+    String[] lines = todoDetails(selectedTodo);
+
+    StringBuilder todoOutput = new StringBuilder(160);
+    todoOutput.append("<html><div bgcolor='").append(selectedTodo.getCat().name()).append("'>");
+    for (int i = 0; i < lines.length; i++) {
+      todoOutput.append(i == 0 ? "" : "<br>").append(lines[i]);
+    }
+    todoOutput.append("</div></html>");
+
+    return todoOutput.toString();
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to format the data from a todo as lines of text for display: the title, then when it's due, its importance and its status
+
+  public static String[] todoDetails(Todo todo) {
+
+    LocalDateTime isDue = todo.getDue();
+    String dueDate = isDue.getDayOfWeek() + " " + isDue.getDayOfMonth() + " of " + isDue.getMonth() + " " + isDue.getYear();
+    String dueTime = isDue.getHour() + ":" + isDue.getMinute() + (isDue.getMinute() < 6 ? isDue.getSecond() : "");
+
+    return new String[]{
+        todo.getText(),
+        "Due on: " + dueDate,
+        "Due by: " + dueTime,
+        "Importance: " + todo.getImportance(),
+        "Status: " + todo.getCompletion()
+    };
+
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Take a string as input & return the corresponding Category enum constant
+
+  public static Category stringToCat(String catString) {
+
+    return switch(catString) {
+      case "red":
+        yield Category.red;
+      case "white":
+        yield Category.white;
+      case "blue":
+        yield Category.blue;
+      case "purple":
+        yield Category.purple;
+      case "yellow":
+        yield Category.yellow;
+      default:
+        yield Category.green;
+    };
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Take a string input & return corresponding Importance enum constant
+
+  public static Importance stringToImportance(String importanceStr) {
+
+    return switch(importanceStr) {
+      case "low":
+        yield Importance.low;
+      case "normal":
+        yield Importance.normal;
+      default:
+        yield Importance.high;
+    };
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Take a string input & return corresponding Status enum constant
+
+  public static Status stringToStatus(String statusStr) {
+
+    return switch(statusStr) {
+      case "pending":
+        yield Status.pending;
+      case "started":
+        yield Status.started;
+      case "partial":
+        yield Status.partial;
+      default:
+        yield Status.completed;
+    };
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to sort the Todos by due date
+
+  public static ArrayList<Todo> sortByDue(ArrayList<Todo> todos) {
+    return sortBy(todos, TodoField.due);
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to sort Todos by importance
+
+  public static ArrayList<Todo> sortByPriority(ArrayList<Todo> todos) {
+    return sortBy(todos, TodoField.importance);
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to sort Todos by completion status
+
+  public static ArrayList<Todo> sortByStatus(ArrayList<Todo> todos) {
+    return sortBy(todos, TodoField.completion);
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to sort the Todos by one field, timing the sort for TodoMetrics
+
+  private static ArrayList<Todo> sortBy(ArrayList<Todo> todos, TodoField field) {
+    long started = TodoMetrics.start();
+    TodoSorter.sort(todos, field);
+    TodoMetrics.record(TodoOperation.sort, started);
+    return todos;
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to load Todos from a file on user's machine
+
+  public static ArrayList<Todo> loadFromFile(FileDialog fileBrowser) {
+
+    Path toLoad = chooseFileToLoad(fileBrowser);
+
+    ArrayList<Todo> todos = new ArrayList<>();
+
+    if (toLoad != null) {
+
+      try {
+        todos = loadFromPath(toLoad);
+      } catch (NoSuchFileException exc) {
+        System.out.println("File not found");
+      } catch (IOException exc) {
+        System.out.println("Reading from file failed");
+      }
+    }
+    return todos;
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to let the user pick a todo file to load, returning its path, or null if no file was picked
+
+  public static Path chooseFileToLoad(FileDialog fileBrowser) {
+
+    fileBrowser.setMultipleMode(false);
+
+    fileBrowser.setFilenameFilter(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.endsWith(".txt") || name.endsWith(TodoBinaryFormat.EXTENSION);
+      }
+    });
+
+    fileBrowser.setVisible(true);
+
+    String directory = fileBrowser.getDirectory();
+    String filename = fileBrowser.getFile();
+
+    return filename != null ? Paths.get(directory, filename) : null;
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to load Todos from the file at the given path, without a FileDialog. Detects whether the file is in the binary format or the text format,
+    and checks every line of a text file as it's imported (see importText) */
+
+  public static ArrayList<Todo> loadFromPath(Path toLoad) throws IOException {
+
+    long started = TodoMetrics.start();
+    ArrayList<Todo> loaded;
+    try {
+      if (TodoBinaryFormat.isBinary(toLoad)) {
+        loaded = TodoBinaryFormat.load(toLoad);
+      } else {
+        loaded = importText(toLoad);
+      }
+    } catch (IOException | RuntimeException exc) {
+      TodoMetrics.failed(TodoOperation.load, started);
+      throw exc;
+    }
+    TodoMetrics.record(TodoOperation.load, started);
+    return loaded;
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to import a text file, checking every line against TodoRules. Bad lines are put in a quarantine file next to it (see ImportQuarantine)
+    rather than stopping the import, and how many there were is printed. Large files are imported in parallel */
+
+  private static ArrayList<Todo> importText(Path toLoad) throws IOException {
+
+    try (ImportQuarantine quarantine = new ImportQuarantine(ImportQuarantine.pathFor(toLoad))) {
+      ArrayList<Todo> todos;
+      if (Files.size(toLoad) >= PARALLEL_LOAD_THRESHOLD) {
+        todos = ParallelImporter.load(toLoad, ForkJoinPool.commonPool(), quarantine).getTodos();
+      } else {
+        todos = new ArrayList<>();
+        TodoFileReader.stream(toLoad, todos::add, bytesRead -> {
+        }, quarantine);
+      }
+      if (quarantine.getRejected() > 0) {
+        System.out.println(quarantine.getRejected() + " lines of " + toLoad.getFileName() + " couldn't be loaded. They're in " + quarantine.getFile());
+      }
+      return todos;
+    }
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to read the Todos from the file at the given path (binary or text) one at a time, passing each to the sink as soon as it's read, so they can be
+    used before the whole file has been read. progress is told how many bytes of the file have been read so far. Lines of a text file which can't be
+    loaded are put in the quarantine. Returns the number of Todos read */
+
+  public static long streamFromPath(Path toLoad, Consumer<Todo> sink, LongConsumer progress, ImportQuarantine quarantine) throws IOException {
+
+    long started = TodoMetrics.start();
+    long count;
+    try {
+      count = TodoBinaryFormat.isBinary(toLoad) ? TodoBinaryFormat.stream(toLoad, sink, progress) : TodoFileReader.stream(toLoad, sink, progress, quarantine);
+    } catch (IOException | RuntimeException exc) {
+      TodoMetrics.failed(TodoOperation.load, started);
+      throw exc;
+    }
+    TodoMetrics.record(TodoOperation.load, started);
+    return count;
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to save the data from the Todos arrayList to an external file. Files named with the .todb extension are saved in the binary format
+
+  public static void saveToFile(FileDialog fileBrowser, ArrayList<Todo> todos) throws IOException {
+
+    Path toSave = chooseFileToSave(fileBrowser);
+
+    if (toSave != null) {
+      saveToPath(toSave, todos);
+    }
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to let the user pick the file to save to, returning its path (with .txt added unless it's a .todb file), or null if no file was picked
+
+  public static Path chooseFileToSave(FileDialog fileBrowser) {
+
+    fileBrowser.setMultipleMode(false);
+
+    fileBrowser.setVisible(true);
+
+    String directory = fileBrowser.getDirectory();
+    String fileName = fileBrowser.getFile();
+
+    if (directory == null || fileName == null) {
+      return null;
+    }
+    return Paths.get(directory, fileName.endsWith(TodoBinaryFormat.EXTENSION) ? fileName : fileName + ".txt");
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to save the Todos to the file at the given path, without a FileDialog. Text files are saved incrementally (only Todos changed since the
+    last save to the same file are re-written) through a temporary file which is then moved into place */
+
+  public static void saveToPath(Path file, List<Todo> todos) throws IOException {
+
+    saveSnapshot(file, TodoSnapshot.of(todos));
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to save a snapshot of the Todos to the file at the given path. The snapshot can be saved on a background thread while the Todos it was taken of
+    are still being edited. Only one save runs at a time */
+
+  public static synchronized void saveSnapshot(Path file, TodoSnapshot snapshot) throws IOException {
+
+    long started = TodoMetrics.start();
+    try {
+      if (file.getFileName().toString().endsWith(TodoBinaryFormat.EXTENSION)) {
+        TodoBinaryFormat.save(file, snapshot.getValues());
+      } else {
+        if (lastSaver == null || !lastSaver.getTarget().equals(file)) {
+          lastSaver = new IncrementalSaver(file);
+        }
+        lastSaver.save(snapshot);
+      }
+    } catch (IOException | RuntimeException exc) {
+      TodoMetrics.failed(TodoOperation.save, started);
+      throw exc;
+    }
+    TodoMetrics.record(TodoOperation.save, started);
+
+  }
+
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Format a Todo as one line of a text file (without the line break), e.g. Task 1,2021-05-04T03:00,red,high,started
+
+  public static String todoToLine(Todo todo) {
+    return todo.getText() + "," + todo.getDue() + "," + todo.getCat().name() + "," + todo.getImportance().name() + "," + todo.getCompletion().name();
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.company;
+
+/* How many times an operation has run, how many of those failed, and how long it took, as read from TodoMetrics at one moment.
+  Times are in microseconds. Percentiles are read from a histogram, so they're the top of the bucket the percentile falls in:
+  never below the true value, and at most 25% above it */
+public class OperationStats {
+
+  private final String operation;
+  private final long count;
+  private final long errors;
+  private final double meanMicros;
+  private final double p50Micros;
+  private final double p90Micros;
+  private final double p99Micros;
+  private final double maxMicros;
+
+  public OperationStats(String operation, long count, long errors, double meanMicros, double p50Micros, double p90Micros, double p99Micros, double maxMicros) {
+    this.operation = operation;
+    this.count = count;
+    this.errors = errors;
+    this.meanMicros = meanMicros;
+    this.p50Micros = p50Micros;
+    this.p90Micros = p90Micros;
+    this.p99Micros = p99Micros;
+    this.maxMicros = maxMicros;
+  }
+
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  public double getMeanMicros() {
+    return meanMicros;
+  }
+
+  public double getP50Micros() {
+    return p50Micros;
+  }
+
+  public double getP90Micros() {
+    return p90Micros;
+  }
+
+  public double getP99Micros() {
+    return p99Micros;
+  }
+
+  public double getMaxMicros() {
+    return maxMicros;
+  }
+
+}
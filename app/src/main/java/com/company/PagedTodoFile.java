@@ -0,0 +1,138 @@
+package com.company;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/* A read-only list of the Todos in a todo file, read from the file a page at a time as they're asked for, so files far too big
+  to load can still be listed & scrolled through. Where each page starts comes from the file's TodoFileIndex. The most
+  recently used pages are kept in an LRU cache of a fixed number of pages, so memory use depends on the cache size and not
+  on the size of the file. Each page read makes new Todo objects: changing them doesn't change the file */
+public class PagedTodoFile extends AbstractList<Todo> implements RandomAccess, Closeable {
+
+  // Pages kept in memory by default: 256 pages of 64 Todos
+  public static final int DEFAULT_CACHE_PAGES = 256;
+
+  private final Path file;
+  private final TodoFileIndex index;
+  private final FileChannel channel;
+  private final TodoCodec codec = new TodoCodec();
+  private final Map<Integer, Todo[]> cache;
+  private byte[] buf = new byte[1 << 14];
+  private long pagesRead;
+
+
+  public PagedTodoFile(Path file, TodoFileIndex index, int cachePages) throws IOException {
+    this.file = file;
+    this.index = index;
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    // An access ordered map drops the least recently used page once there are more than cachePages
+    this.cache = new LinkedHashMap<>(cachePages * 4 / 3 + 1, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry<Integer, Todo[]> eldest) {
+        return size() > cachePages;
+      }
+    };
+  }
+
+
+  // Open the file with its index, building the index first if the file hasn't been indexed since it last changed
+  public static PagedTodoFile open(Path file) throws IOException {
+    if (file.getFileName().toString().endsWith(TodoBinaryFormat.EXTENSION)) {
+      throw new IOException("Only text todo files can be browsed");
+    }
+    return new PagedTodoFile(file, TodoFileIndex.open(file), DEFAULT_CACHE_PAGES);
+  }
+
+
+  public Path getFile() {
+    return file;
+  }
+
+  public TodoFileIndex getIndex() {
+    return index;
+  }
+
+  // Number of pages read from the file so far, including pages read again after being dropped from the cache
+  public synchronized long getPagesRead() {
+    return pagesRead;
+  }
+
+  public synchronized int getCachedPages() {
+    return cache.size();
+  }
+
+
+  public int size() {
+    return (int) Math.min(Integer.MAX_VALUE, index.getCount());
+  }
+
+  public synchronized Todo get(int position) {
+    if (position < 0 || position >= size()) {
+      throw new IndexOutOfBoundsException("Index " + position + " out of bounds for length " + size());
+    }
+    int page = position / TodoFileIndex.PAGE_SIZE;
+    Todo[] todos = cache.get(page);
+    if (todos == null) {
+      todos = readPage(page);
+      cache.put(page, todos);
+    }
+    return todos[position % TodoFileIndex.PAGE_SIZE];
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Read a page's bytes from the file & parse its Todos, skipping the lines the index skipped
+
+  private Todo[] readPage(int page) {
+
+    long start = index.pageStart(page);
+    int length = (int) (index.pageEnd(page) - start);
+    if (buf.length < length) {
+      buf = new byte[Math.max(length, buf.length * 2)];
+    }
+
+    try {
+      ByteBuffer target = ByteBuffer.wrap(buf, 0, length);
+      while (target.hasRemaining()) {
+        if (channel.read(target, start + target.position()) < 0) {
+          throw new IllegalStateException(file + " has changed since it was indexed");
+        }
+      }
+    } catch (IOException exc) {
+      throw new UncheckedIOException("Reading " + file + " failed", exc);
+    }
+    pagesRead++;
+
+    Todo[] todos = new Todo[index.pageCount(page)];
+    int found = 0;
+    int lineStart = 0;
+    for (int i = 0; i <= length && found < todos.length; i++) {
+      if (i < length && buf[i] != '\n') {
+        continue;
+      }
+      if (TodoFileReader.checkLine(codec, buf, lineStart, i) == null) {
+        todos[found++] = codec.toTodo();
+      }
+      lineStart = i + 1;
+    }
+    if (found < todos.length) {
+      throw new IllegalStateException(file + " has changed since it was indexed");
+    }
+    return todos;
+  }
+
+
+  public synchronized void close() throws IOException {
+    cache.clear();
+    channel.close();
+  }
+
+}
@@ -0,0 +1,314 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/* Class to import a large todo file using every core. The file is memory-mapped and split into chunks which always end on a
+  newline, each chunk is parsed by its own fork/join task, then the Todos from every chunk are joined back together in the
+  order they appear in the file. Lines which can't be parsed are reported (with the chunk they came from) rather than
+  aborting the whole import */
+public class ParallelImporter {
+
+  private static final long MIN_CHUNK_SIZE = 4L << 20;
+  private static final long MAX_CHUNK_SIZE = 256L << 20;
+  private static final int BLOCK_SIZE = 1 << 20;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // A line that couldn't be imported. lineNumber counts from 1 across the whole file
+
+  public static class ImportError {
+
+    private final int chunk;
+    private final long lineNumber;
+    private final String message;
+
+    ImportError(int chunk, long lineNumber, String message) {
+      this.chunk = chunk;
+      this.lineNumber = lineNumber;
+      this.message = message;
+    }
+
+    public int getChunk() {
+      return chunk;
+    }
+
+    public long getLineNumber() {
+      return lineNumber;
+    }
+
+    public String getMessage() {
+      return message;
+    }
+
+    public String toString() {
+      return "Chunk " + chunk + ", line " + lineNumber + ": " + message;
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The Todos imported, in file order, and the errors from every chunk
+
+  public static class ImportResult {
+
+    private final ArrayList<Todo> todos;
+    private final List<ImportError> errors;
+
+    ImportResult(ArrayList<Todo> todos, List<ImportError> errors) {
+      this.todos = todos;
+      this.errors = errors;
+    }
+
+    public ArrayList<Todo> getTodos() {
+      return todos;
+    }
+
+    public List<ImportError> getErrors() {
+      return errors;
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Import the file at the given path using the common fork/join pool
+
+  public static ImportResult load(Path path) throws IOException {
+    return load(path, ForkJoinPool.commonPool());
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Import the file at the given path, using roughly four chunks per thread in the pool so that the work stays balanced
+
+  public static ImportResult load(Path path, ForkJoinPool pool) throws IOException {
+    return load(path, pool, null);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* As above, but checking every line against TodoRules as it's parsed. Lines which can't be parsed or break a rule are put in
+    the quarantine, in file order, as well as being reported as errors. With no quarantine (null), lines are only parsed */
+
+  public static ImportResult load(Path path, ForkJoinPool pool, ImportQuarantine quarantine) throws IOException {
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+      long size = channel.size();
+      long chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, size / (pool.getParallelism() * 4L)));
+      long[] bounds = chunkBounds(channel, size, chunkSize);
+      int chunks = bounds.length - 1;
+
+      ChunkResult[] results = new ChunkResult[chunks];
+      pool.invoke(new ChunkRange(channel, bounds, results, 0, chunks, quarantine != null));
+
+      // Stitch the chunks back together in file order, turning per-chunk line numbers into line numbers within the file
+      int total = 0;
+      for (ChunkResult result : results) {
+        total += result.todos.size();
+      }
+      ArrayList<Todo> todos = new ArrayList<>(total);
+      List<ImportError> errors = new ArrayList<>();
+      long linesBefore = 0;
+      for (int c = 0; c < chunks; c++) {
+        ChunkResult result = results[c];
+        todos.addAll(result.todos);
+        for (int e = 0; e < result.errorLines.size(); e++) {
+          long line = result.errorLines.get(e);
+          errors.add(new ImportError(c, line < 0 ? -1 : linesBefore + line, result.errorMessages.get(e)));
+          if (quarantine != null) {
+            quarantine.reject(line < 0 ? -1 : linesBefore + line, result.errorMessages.get(e), result.errorText.get(e));
+          }
+        }
+        linesBefore += result.lines;
+      }
+
+      return new ImportResult(todos, errors);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Work out where each chunk starts. A chunk nominally ends chunkSize bytes after it starts, but is extended to just past the
+    next newline so that no line is split between two chunks. The returned array holds chunks + 1 offsets */
+
+  private static long[] chunkBounds(FileChannel channel, long size, long chunkSize) throws IOException {
+
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(0L);
+    ByteBuffer probe = ByteBuffer.allocate(8192);
+    long start = 0;
+
+    while (start < size) {
+      long end = Math.min(size, start + chunkSize);
+      boolean found = end == size;
+      while (!found) {
+        probe.clear();
+        int read = channel.read(probe, end);
+        if (read <= 0) {
+          end = size;
+          break;
+        }
+        for (int i = 0; i < read; i++) {
+          if (probe.get(i) == '\n') {
+            end += i + 1;
+            found = true;
+            break;
+          }
+        }
+        if (!found) {
+          end += read;
+        }
+      }
+      bounds.add(end);
+      start = end;
+    }
+
+    long[] result = new long[bounds.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = bounds.get(i);
+    }
+    return result;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* What one chunk produced. Error line numbers count from 1 within the chunk, or are -1 if the chunk couldn't be read at all.
+    When checking lines, the text of each bad line is kept too (null if there's no line), for the quarantine */
+
+  private static class ChunkResult {
+    private final ArrayList<Todo> todos = new ArrayList<>();
+    private final List<Long> errorLines = new ArrayList<>();
+    private final List<String> errorMessages = new ArrayList<>();
+    private final List<String> errorText = new ArrayList<>();
+    private long lines;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Fork/join task over a range of chunks, which keeps splitting in half until it is left with a single chunk to parse
+
+  private static class ChunkRange extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final FileChannel channel;
+    private final long[] bounds;
+    private final ChunkResult[] results;
+    private final int from;
+    private final int to;
+    private final boolean check;
+
+    ChunkRange(FileChannel channel, long[] bounds, ChunkResult[] results, int from, int to, boolean check) {
+      this.channel = channel;
+      this.bounds = bounds;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+      this.check = check;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > 1) {
+        int mid = (from + to) >>> 1;
+        invokeAll(new ChunkRange(channel, bounds, results, from, mid, check), new ChunkRange(channel, bounds, results, mid, to, check));
+      } else if (to > from) {
+        results[from] = parseChunk(channel, bounds[from], bounds[from + 1], check);
+      }
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Map the bytes of one chunk & parse (and if asked, check) every line in it
+
+  private static ChunkResult parseChunk(FileChannel channel, long start, long end, boolean check) {
+
+    ChunkResult result = new ChunkResult();
+    MappedByteBuffer mapped;
+
+    try {
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    } catch (IOException exc) {
+      result.errorLines.add(-1L);
+      result.errorMessages.add("Chunk could not be mapped: " + exc.getMessage());
+      result.errorText.add(null);
+      return result;
+    }
+
+    // Copy the mapped bytes into a heap block at a time, then parse the lines in place, carrying any partial line over
+    byte[] block = new byte[BLOCK_SIZE];
+    int filled = 0;
+    TodoCodec codec = new TodoCodec();
+    int position = 0;
+    int limit = mapped.limit();
+
+    while (position < limit || filled > 0) {
+
+      if (filled == block.length) {
+        byte[] bigger = new byte[block.length * 2];
+        System.arraycopy(block, 0, bigger, 0, filled);
+        block = bigger;
+      }
+      int toCopy = Math.min(block.length - filled, limit - position);
+      mapped.get(position, block, filled, toCopy);
+      position += toCopy;
+      filled += toCopy;
+      boolean last = position == limit;
+
+      int lineStart = 0;
+      for (int i = 0; i < filled; i++) {
+        if (block[i] == '\n') {
+          parseInto(result, codec, block, lineStart, i, check);
+          lineStart = i + 1;
+        }
+      }
+      if (last && lineStart < filled) {
+        parseInto(result, codec, block, lineStart, filled, check);
+        lineStart = filled;
+      }
+
+      System.arraycopy(block, lineStart, block, 0, filled - lineStart);
+      filled -= lineStart;
+    }
+
+    return result;
+  }
+
+
+  private static void parseInto(ChunkResult result, TodoCodec codec, byte[] block, int start, int end, boolean check) {
+    result.lines++;
+    if (check) {
+      String problem = TodoFileReader.checkLine(codec, block, start, end);
+      if (problem == null) {
+        result.todos.add(codec.toTodo());
+      } else if (problem != TodoFileReader.SKIPPED) {
+        result.errorLines.add(result.lines);
+        result.errorMessages.add(problem);
+        result.errorText.add(new String(block, start, end - start, StandardCharsets.UTF_8));
+      }
+      return;
+    }
+    try {
+      Todo todo = TodoFileReader.parseLine(codec, block, start, end);
+      if (todo != null) {
+        result.todos.add(todo);
+      }
+    } catch (RuntimeException exc) {
+      result.errorLines.add(result.lines);
+      result.errorMessages.add(exc.getMessage());
+      result.errorText.add(null);
+    }
+  }
+
+}
@@ -0,0 +1,10 @@
+package com.company;
+
+/* Interface for anything which tells the user when a Todo falls due (e.g. the GUI or CLIMenu). Called by a ReminderScheduler
+  on its own thread, so listeners which touch Swing components should pass the reminder on to the event dispatch thread */
+public interface ReminderListener {
+
+  // Called when the due date & time of a Todo which hasn't been completed arrives
+  void reminderDue(Todo todo);
+
+}
@@ -0,0 +1,252 @@
+package com.company;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/* Tells its listeners when each Todo in a TodoList falls due, without a timer or thread per Todo. Reminders are kept in a
+  hierarchical timing wheel: four wheels of 256 slots, where each slot of the first wheel is one second, each slot of the
+  second is a whole turn of the first (256 seconds), and so on, so the wheels cover about 136 years. A reminder goes in the
+  slot of the smallest wheel which reaches its due second, and each time a wheel turns over, the next slot of the wheel above
+  is emptied into the wheels below. Adding or cancelling a reminder is a few pointer changes whatever the number of reminders,
+  and each second only looks at one slot (plus, once every 256 seconds, the reminders moving down a wheel).
+
+  The scheduler listens to the list, so reminders are added & removed with their Todos, moved when a Todo's due date changes,
+  cancelled when it's completed and added again if it's reopened. Only Todos due in the future get reminders: Todos which are
+  already overdue are for DueIndex to list */
+public class ReminderScheduler implements TodoListener {
+
+  private static final int WHEELS = 4;
+  private static final int SLOT_BITS = 8;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final long TICK_MILLIS = 1000;
+
+  // A reminder, linked into the list of reminders in its slot
+  private static class Reminder {
+
+    private final Todo todo;
+    private final long tick;
+    private Reminder previous;
+    private Reminder next;
+    private Reminder[] slots;
+    private int slot;
+
+    Reminder(Todo todo, long tick) {
+      this.todo = todo;
+      this.tick = tick;
+    }
+  }
+
+  // wheels[w][s] is the first reminder in slot s of wheel w
+  private final Reminder[][] wheels = new Reminder[WHEELS][SLOTS];
+  // Reminders too far in the future for the wheels, looked at again each time the top wheel moves on a slot
+  private final Reminder[] overflow = new Reminder[1];
+  private final IdentityHashMap<Todo, Reminder> reminders = new IdentityHashMap<>();
+  private final List<ReminderListener> listeners = new CopyOnWriteArrayList<>();
+  private final LongSupplier clock;
+  private final ZoneId zone;
+  private ScheduledExecutorService ticker;
+  // The last second the wheels have been turned to
+  private long now;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Schedule a reminder for every Todo in the list due in the future & not completed, then listen to the list for changes
+
+  public ReminderScheduler(TodoList todos) {
+    this(todos, System::currentTimeMillis, ZoneId.systemDefault());
+  }
+
+  // A scheduler reading the time (in milliseconds since the epoch) from the given clock, with due dates in the given time zone
+  public ReminderScheduler(TodoList todos, LongSupplier clock, ZoneId zone) {
+    this.clock = clock;
+    this.zone = zone;
+    this.now = clock.getAsLong() / TICK_MILLIS;
+    todos.forEach(this::todoAdded);
+    todos.addListener(this);
+  }
+
+
+  public void addListener(ReminderListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(ReminderListener listener) {
+    listeners.remove(listener);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Start & stop a background thread which turns the wheels every second, firing the reminders which have fallen due
+
+  public synchronized void start() {
+    if (ticker == null) {
+      ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "todo-reminders");
+        thread.setDaemon(true);
+        return thread;
+      });
+      ticker.scheduleAtFixedRate(this::advance, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public synchronized void stop() {
+    if (ticker != null) {
+      ticker.shutdown();
+      ticker = null;
+    }
+  }
+
+
+  public synchronized int size() {
+    return reminders.size();
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods called by the list to keep the reminders up to date
+
+  public void todoAdded(Todo todo) {
+    schedule(todo);
+  }
+
+  public void todoRemoved(Todo todo) {
+    cancel(todo);
+  }
+
+  public void todoChanged(Todo todo, TodoField field, Object oldValue) {
+    if (field == TodoField.due || field == TodoField.completion) {
+      schedule(todo);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Schedule (or move) the reminder for a Todo, at its due date. Todos which are completed or already due have no reminder
+
+  public synchronized void schedule(Todo todo) {
+    cancel(todo);
+    if (todo.getCompletion() == Status.completed) {
+      return;
+    }
+    long tick = tickOf(todo.getDue());
+    if (tick > now) {
+      Reminder reminder = new Reminder(todo, tick);
+      reminders.put(todo, reminder);
+      insert(reminder);
+    }
+  }
+
+  // Cancel the reminder for a Todo, if it has one
+  public synchronized void cancel(Todo todo) {
+    Reminder reminder = reminders.remove(todo);
+    if (reminder != null) {
+      unlink(reminder);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Turn the wheels on to the current time, one second at a time, telling the listeners about each reminder which falls due.
+    Called every second by the background thread once started, but can be called directly (e.g. with a clock that's moved on) */
+
+  public void advance() {
+
+    List<Todo> due = new ArrayList<>();
+    synchronized (this) {
+      long target = clock.getAsLong() / TICK_MILLIS;
+      while (now < target) {
+        now++;
+        cascade();
+        Reminder[] firstWheel = wheels[0];
+        int slot = (int) (now & SLOT_MASK);
+        for (Reminder reminder = firstWheel[slot]; reminder != null; reminder = reminder.next) {
+          reminders.remove(reminder.todo);
+          due.add(reminder.todo);
+        }
+        firstWheel[slot] = null;
+      }
+    }
+
+    // Listeners are told outside the lock, so they can schedule or cancel reminders themselves
+    for (Todo todo : due) {
+      listeners.forEach(listener -> listener.reminderDue(todo));
+    }
+  }
+
+
+  // Once the first wheel turns over, empty the next slot of each wheel above whose wheel below has also turned over into the wheels below
+  private void cascade() {
+
+    for (int wheel = WHEELS - 1; wheel >= 1; wheel--) {
+      if ((now & ((1L << (SLOT_BITS * wheel)) - 1)) != 0) {
+        continue;
+      }
+      if (wheel == WHEELS - 1) {
+        reinsert(overflow, 0);
+      }
+      reinsert(wheels[wheel], (int) (now >>> (SLOT_BITS * wheel)) & SLOT_MASK);
+    }
+  }
+
+  private void reinsert(Reminder[] slots, int slot) {
+    Reminder reminder = slots[slot];
+    slots[slot] = null;
+    while (reminder != null) {
+      Reminder next = reminder.next;
+      insert(reminder);
+      reminder = next;
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Put a reminder in the slot of the smallest wheel which reaches its due second: the first wheel whose slots are the same
+    for the reminder & the current time in every wheel above it */
+
+  private void insert(Reminder reminder) {
+
+    Reminder[] slots = overflow;
+    int slot = 0;
+    for (int wheel = 0; wheel < WHEELS; wheel++) {
+      if ((reminder.tick >>> (SLOT_BITS * (wheel + 1))) == (now >>> (SLOT_BITS * (wheel + 1)))) {
+        slots = wheels[wheel];
+        slot = (int) (reminder.tick >>> (SLOT_BITS * wheel)) & SLOT_MASK;
+        break;
+      }
+    }
+
+    reminder.slots = slots;
+    reminder.slot = slot;
+    reminder.previous = null;
+    reminder.next = slots[slot];
+    if (reminder.next != null) {
+      reminder.next.previous = reminder;
+    }
+    slots[slot] = reminder;
+  }
+
+  private static void unlink(Reminder reminder) {
+    if (reminder.previous != null) {
+      reminder.previous.next = reminder.next;
+    } else {
+      reminder.slots[reminder.slot] = reminder.next;
+    }
+    if (reminder.next != null) {
+      reminder.next.previous = reminder.previous;
+    }
+  }
+
+  private long tickOf(LocalDateTime due) {
+    return due.atZone(zone).toInstant().toEpochMilli() / TICK_MILLIS;
+  }
+
+}
@@ -0,0 +1,63 @@
+package com.company;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/* Cache of something rendered from a Todo (e.g. the lines of text the GUI draws for it), so it's only rendered again once
+  one of the Todo's setters has been called. Each entry remembers the Todo's version when it was rendered, and is rendered
+  again if the version has moved on. Only the most recently used entries are kept, so the cache stays small however many
+  Todos there are. Todos are matched by identity, so a TodoStore view is only found again if the same view is rendered */
+public class RenderCache<T> {
+
+  private static final int DEFAULT_CAPACITY = 4096;
+
+  private static class Rendered<T> {
+
+    private final int version;
+    private final T value;
+
+    Rendered(int version, T value) {
+      this.version = version;
+      this.value = value;
+    }
+  }
+
+  private final Function<Todo, T> renderer;
+  private final LinkedHashMap<Todo, Rendered<T>> entries;
+
+
+  public RenderCache(Function<Todo, T> renderer) {
+    this(renderer, DEFAULT_CAPACITY);
+  }
+
+  public RenderCache(Function<Todo, T> renderer, int capacity) {
+    this.renderer = renderer;
+    // An access-ordered LinkedHashMap drops its least recently used entry once it holds more than capacity
+    this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Todo, Rendered<T>> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The rendering of the Todo as it is now, rendered only if it hasn't been already or the Todo has changed since
+
+  public T get(Todo todo) {
+    Rendered<T> rendered = entries.get(todo);
+    if (rendered == null || rendered.version != todo.getVersion()) {
+      rendered = new Rendered<>(todo.getVersion(), renderer.apply(todo));
+      entries.put(todo, rendered);
+    }
+    return rendered.value;
+  }
+
+
+  public void clear() {
+    entries.clear();
+  }
+
+}
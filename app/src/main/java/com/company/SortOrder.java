@@ -0,0 +1,46 @@
+package com.company;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/* Enum for the orders Todos can be sorted in. Each order turns a Todo into a single long key, so Todos can be compared
+  without going through LocalDateTime or the enums. The due date takes up the low 40 bits of every key (as seconds since the
+  epoch, offset so that it's never negative), so Todos which tie on priority or status are ordered by due date */
+public enum SortOrder {
+
+  due {
+    public long keyOf(Todo todo) {
+      return dueBits(todo.getDue());
+    }
+  },
+
+  priority {
+    public long keyOf(Todo todo) {
+      return ((long) todo.getImportance().ordinal() << DUE_BITS) | dueBits(todo.getDue());
+    }
+  },
+
+  status {
+    public long keyOf(Todo todo) {
+      return ((long) todo.getCompletion().ordinal() << DUE_BITS) | dueBits(todo.getDue());
+    }
+  };
+
+  // 40 bits of seconds covers roughly 17,000 years either side of 1970
+  static final int DUE_BITS = 40;
+  private static final long DUE_OFFSET = 1L << (DUE_BITS - 1);
+  private static final long DUE_MAX = (1L << DUE_BITS) - 1;
+
+
+  public abstract long keyOf(Todo todo);
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The due date as an unsigned 40 bit number of seconds. Dates too far in the past or future to fit are clamped
+
+  static long dueBits(LocalDateTime due) {
+    long offset = due.toEpochSecond(ZoneOffset.UTC) + DUE_OFFSET;
+    return Math.max(0, Math.min(DUE_MAX, offset));
+  }
+
+}
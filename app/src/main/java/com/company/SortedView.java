@@ -0,0 +1,394 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/* The Todos in a TodoList kept in a SortOrder as the list changes. Adding, removing or changing a Todo repositions just that
+  Todo in O(log n), rather than re-sorting the whole list, and the Todo at any position (or the position of any Todo) can be
+  found in O(log n). The Todos are held in a treap (a binary search tree balanced by random priorities) where each node
+  also records the size of its subtree. Todos with equal keys stay in the order they were added to the view. ViewListeners
+  are told which rows changed, so whatever is showing the view only has to redraw those rows */
+public class SortedView implements TodoListener {
+
+  private static class Node {
+
+    private final Todo todo;
+    private final long seq;
+    private final int priority;
+    private long key;
+    private int size = 1;
+    private Node left;
+    private Node right;
+
+    Node(Todo todo, long key, long seq, int priority) {
+      this.todo = todo;
+      this.key = key;
+      this.seq = seq;
+      this.priority = priority;
+    }
+  }
+
+  // Adding or removing at least this many Todos at once, and at least an eighth of the view, rebuilds the view in one go
+  private static final int BULK_MIN = 64;
+  private static final Comparator<Node> BY_KEY = (node1, node2) -> Long.compare(node1.key, node2.key);
+
+  private final SortOrder order;
+  private final IdentityHashMap<Todo, Node> nodes;
+  private final SplittableRandom random = new SplittableRandom();
+  private final List<ViewListener> listeners = new CopyOnWriteArrayList<>();
+  private Node root;
+  private long nextSeq;
+  // The two trees made by the last split, kept in fields so splitting doesn't allocate
+  private Node splitBefore;
+  private Node splitAfter;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Sort every Todo already in the list into the view, then listen to the list for changes
+
+  public SortedView(TodoList todos, SortOrder order) {
+    this.order = order;
+    this.nodes = new IdentityHashMap<>(todos.size());
+    Node[] sorted = new Node[todos.size()];
+    for (int i = 0; i < sorted.length; i++) {
+      Todo todo = todos.get(i);
+      sorted[i] = new Node(todo, order.keyOf(todo), nextSeq++, random.nextInt());
+      nodes.put(todo, sorted[i]);
+    }
+    sortByKey(sorted);
+    root = build(sorted);
+    todos.addListener(this);
+  }
+
+
+  public void addListener(ViewListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(ViewListener listener) {
+    listeners.remove(listener);
+  }
+
+
+  public SortOrder getOrder() {
+    return order;
+  }
+
+  public int size() {
+    return size(root);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The Todo at the given position in the view
+
+  public Todo get(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size() + " todos");
+    }
+    Node node = root;
+    while (true) {
+      int leftSize = size(node.left);
+      if (index < leftSize) {
+        node = node.left;
+      } else if (index == leftSize) {
+        return node.todo;
+      } else {
+        index -= leftSize + 1;
+        node = node.right;
+      }
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The position of the given Todo in the view, or -1 if it isn't in the view
+
+  public int indexOf(Todo todo) {
+    Node target = nodes.get(todo);
+    return target == null ? -1 : rank(target.key, target.seq);
+  }
+
+
+  // Every Todo in the view, in order
+  public List<Todo> toList() {
+    List<Todo> todos = new ArrayList<>(size());
+    addInOrder(root, todos);
+    return todos;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Methods called by the list to keep the view up to date. Rows are only worked out (in O(log n)) when there are listeners
+    to tell about them */
+
+  public void todoAdded(Todo todo) {
+    Node node = new Node(todo, order.keyOf(todo), nextSeq++, random.nextInt());
+    nodes.put(todo, node);
+    insert(node);
+    if (!listeners.isEmpty()) {
+      int index = rank(node.key, node.seq);
+      listeners.forEach(listener -> listener.rowAdded(index));
+    }
+  }
+
+  public void todoRemoved(Todo todo) {
+    Node node = nodes.remove(todo);
+    if (node != null) {
+      int index = listeners.isEmpty() ? -1 : rank(node.key, node.seq);
+      delete(node.key, node.seq);
+      if (index >= 0) {
+        listeners.forEach(listener -> listener.rowRemoved(index));
+      }
+    }
+  }
+
+  public void todoChanged(Todo todo, TodoField field, Object oldValue) {
+    Node node = nodes.get(todo);
+    if (node == null) {
+      return;
+    }
+    int oldIndex = listeners.isEmpty() ? -1 : rank(node.key, node.seq);
+    long newKey = order.keyOf(todo);
+    if (newKey == node.key) {
+      if (oldIndex >= 0) {
+        listeners.forEach(listener -> listener.rowChanged(oldIndex));
+      }
+      return;
+    }
+
+    delete(node.key, node.seq);
+    if (oldIndex >= 0) {
+      listeners.forEach(listener -> listener.rowRemoved(oldIndex));
+    }
+    node.key = newKey;
+    node.left = null;
+    node.right = null;
+    node.size = 1;
+    insert(node);
+    if (oldIndex >= 0) {
+      int newIndex = rank(node.key, node.seq);
+      listeners.forEach(listener -> listener.rowAdded(newIndex));
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Methods called by the list when many Todos are added or removed at once (e.g. loading a file). If it's a big enough
+    share of the view, the view is rebuilt in linear time from the Todos already in order plus the new Todos sorted, rather
+    than each Todo being added on its own, and listeners are told every row may have changed */
+
+  public void todosAdded(List<Todo> todos) {
+    if (!isBulk(todos.size())) {
+      todos.forEach(this::todoAdded);
+      return;
+    }
+    int oldSize = size();
+    Node[] added = new Node[todos.size()];
+    for (int i = 0; i < added.length; i++) {
+      Todo todo = todos.get(i);
+      added[i] = new Node(todo, order.keyOf(todo), nextSeq++, random.nextInt());
+      nodes.put(todo, added[i]);
+    }
+    sortByKey(added);
+    Node[] existing = inOrder(oldSize);
+
+    // Merge the nodes already in the view with the new ones. New nodes come after existing nodes with the same key
+    Node[] merged = new Node[existing.length + added.length];
+    int fromExisting = 0;
+    int fromAdded = 0;
+    for (int i = 0; i < merged.length; i++) {
+      boolean takeExisting = fromAdded == added.length
+          || (fromExisting < existing.length && existing[fromExisting].key <= added[fromAdded].key);
+      merged[i] = takeExisting ? existing[fromExisting++] : added[fromAdded++];
+    }
+    root = build(merged);
+    listeners.forEach(listener -> listener.rowsReset(oldSize));
+  }
+
+  public void todosRemoved(List<Todo> todos) {
+    if (!isBulk(todos.size())) {
+      todos.forEach(this::todoRemoved);
+      return;
+    }
+    int oldSize = size();
+    todos.forEach(nodes::remove);
+    Node[] remaining = Arrays.stream(inOrder(oldSize)).filter(node -> nodes.get(node.todo) == node).toArray(Node[]::new);
+    root = build(remaining);
+    listeners.forEach(listener -> listener.rowsReset(oldSize));
+  }
+
+  private boolean isBulk(int count) {
+    return count >= BULK_MIN && count * 8L >= size();
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Treap operations. Nodes are ordered by key, then by seq
+
+  private void insert(Node node) {
+    split(root, node.key, node.seq);
+    root = merge(merge(splitBefore, node), splitAfter);
+  }
+
+  private void delete(long key, long seq) {
+    split(root, key, seq);
+    Node before = splitBefore;
+    split(splitAfter, key, seq + 1);
+    root = merge(before, splitAfter);
+  }
+
+  // Number of nodes ordered before (key, seq)
+  private int rank(long key, long seq) {
+    int rank = 0;
+    Node node = root;
+    while (node != null) {
+      if (before(node, key, seq)) {
+        rank += size(node.left) + 1;
+        node = node.right;
+      } else {
+        node = node.left;
+      }
+    }
+    return rank;
+  }
+
+  // Split a tree into the nodes ordered before (key, seq), left in splitBefore, and the rest, left in splitAfter
+  private void split(Node node, long key, long seq) {
+    if (node == null) {
+      splitBefore = null;
+      splitAfter = null;
+    } else if (before(node, key, seq)) {
+      split(node.right, key, seq);
+      node.right = splitBefore;
+      update(node);
+      splitBefore = node;
+    } else {
+      split(node.left, key, seq);
+      node.left = splitAfter;
+      update(node);
+      splitAfter = node;
+    }
+  }
+
+  // Join two trees, where every node in the first is ordered before every node in the second
+  private static Node merge(Node first, Node second) {
+    if (first == null) {
+      return second;
+    }
+    if (second == null) {
+      return first;
+    }
+    if (first.priority > second.priority) {
+      first.right = merge(first.right, second);
+      update(first);
+      return first;
+    } else {
+      second.left = merge(first, second.left);
+      update(second);
+      return second;
+    }
+  }
+
+  /* Sort nodes by key, keeping nodes with equal keys in the same order. Like TodoSorter, when the spread of keys and the
+    nodes' positions fit in a long together, the combined longs are sorted as primitives instead of comparing the nodes */
+  private static void sortByKey(Node[] nodes) {
+    if (nodes.length < 2) {
+      return;
+    }
+    long minKey = Long.MAX_VALUE;
+    long maxKey = Long.MIN_VALUE;
+    for (Node node : nodes) {
+      minKey = Math.min(minKey, node.key);
+      maxKey = Math.max(maxKey, node.key);
+    }
+    int indexBits = 64 - Long.numberOfLeadingZeros(nodes.length - 1);
+    if (64 - Long.numberOfLeadingZeros(maxKey - minKey) + indexBits > 63) {
+      Arrays.sort(nodes, BY_KEY);
+      return;
+    }
+    long[] packed = new long[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      packed[i] = ((nodes[i].key - minKey) << indexBits) | i;
+    }
+    Arrays.sort(packed);
+    Node[] unsorted = nodes.clone();
+    long indexMask = (1L << indexBits) - 1;
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = unsorted[(int) (packed[i] & indexMask)];
+    }
+  }
+
+  /* Build a treap from nodes already in order in O(n), by keeping a stack of the nodes down the right-hand edge of the tree
+    built so far: each new node goes at the bottom of that edge, taking the nodes with lower priorities as its left subtree */
+  private static Node build(Node[] sorted) {
+    if (sorted.length == 0) {
+      return null;
+    }
+    Node[] rightEdge = new Node[sorted.length];
+    int depth = 0;
+    for (Node node : sorted) {
+      node.right = null;
+      Node lower = null;
+      while (depth > 0 && rightEdge[depth - 1].priority < node.priority) {
+        lower = rightEdge[--depth];
+      }
+      node.left = lower;
+      if (depth > 0) {
+        rightEdge[depth - 1].right = node;
+      }
+      rightEdge[depth++] = node;
+    }
+    updateSizes(rightEdge[0]);
+    return rightEdge[0];
+  }
+
+  private static int updateSizes(Node node) {
+    if (node == null) {
+      return 0;
+    }
+    node.size = updateSizes(node.left) + updateSizes(node.right) + 1;
+    return node.size;
+  }
+
+  private static boolean before(Node node, long key, long seq) {
+    return node.key < key || (node.key == key && node.seq < seq);
+  }
+
+  private static void update(Node node) {
+    node.size = size(node.left) + size(node.right) + 1;
+  }
+
+  private static int size(Node node) {
+    return node == null ? 0 : node.size;
+  }
+
+  private Node[] inOrder(int count) {
+    Node[] inOrder = new Node[count];
+    addInOrder(root, inOrder, 0);
+    return inOrder;
+  }
+
+  private static int addInOrder(Node node, Node[] inOrder, int next) {
+    while (node != null) {
+      next = addInOrder(node.left, inOrder, next);
+      inOrder[next++] = node;
+      node = node.right;
+    }
+    return next;
+  }
+
+  private static void addInOrder(Node node, List<Todo> todos) {
+    while (node != null) {
+      addInOrder(node.left, todos);
+      todos.add(node.todo);
+      node = node.right;
+    }
+  }
+
+}
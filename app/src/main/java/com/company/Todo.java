@@ -12,6 +12,8 @@ public class Todo {
   private Category cat;
   private Importance importance;
   private Status completion;
+  private int version;
+  private TodoList owner;
 
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
   // Getters and setters
@@ -21,7 +23,10 @@ public class Todo {
   }
 
   public void setText(String newText) {
+    String oldText = this.text;
     this.text = newText;
+    this.version++;
+    changed(TodoField.text, oldText);
   }
 
   public LocalDateTime getDue() {
@@ -29,7 +34,10 @@ public class Todo {
   }
 
   public void setDue(LocalDateTime newDue) {
+    LocalDateTime oldDue = this.due;
     this.due = newDue;
+    this.version++;
+    changed(TodoField.due, oldDue);
   }
 
   public Category getCat() {
@@ -37,7 +45,10 @@ public class Todo {
   }
 
   public void setCat(Category newCat) {
+    Category oldCat = this.cat;
     this.cat = newCat;
+    this.version++;
+    changed(TodoField.cat, oldCat);
   }
 
   public Importance getImportance() {
@@ -45,7 +56,10 @@ public class Todo {
   }
 
   public void setImportance(Importance newImportance) {
+    Importance oldImportance = this.importance;
     this.importance = newImportance;
+    this.version++;
+    changed(TodoField.importance, oldImportance);
   }
 
   public Status getCompletion() {
@@ -53,7 +67,31 @@ public class Todo {
   }
 
   public void setCompletion(Status newCompletion) {
+    Status oldCompletion = this.completion;
     this.completion = newCompletion;
+    this.version++;
+    changed(TodoField.completion, oldCompletion);
+  }
+
+  // Incremented by every setter, so anything holding a copy of this Todo (e.g. a saved file) can tell whether it has changed
+  public int getVersion() {
+    return version;
+  }
+
+  // The TodoList this Todo is in, which is told whenever one of the setters is called
+  TodoList getOwner() {
+    return owner;
+  }
+
+  void setOwner(TodoList newOwner) {
+    this.owner = newOwner;
+  }
+
+  // Tell the owner a property changed. Also called by TodoStore views, whose setters write to the store instead
+  void changed(TodoField field, Object oldValue) {
+    if (owner != null) {
+      owner.todoChanged(this, field, oldValue);
+    }
   }
 
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -71,7 +109,7 @@ public class Todo {
   // toString method
 
   public String toString() {
-    return cat.getColour() + "Todo{\nTitle: " + this.text + "\nDue by: " + this.due + "\nImportance: " + this.importance + "\nStatus: " + this.completion + "\n}\033[0m";
+    return getCat().getColour() + "Todo{\nTitle: " + getText() + "\nDue by: " + getDue() + "\nImportance: " + getImportance() + "\nStatus: " + getCompletion() + "\n}\033[0m";
   }
 
 }
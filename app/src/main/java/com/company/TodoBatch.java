@@ -0,0 +1,337 @@
+package com.company;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Runs commands on a list of Todos without any prompts, for scripts & automation. Commands are read one per line, with their
+  arguments separated by commas like the lines of a todo file. Todos are referred to by their number in the list, as in CLIMenu:
+
+    add,<title>,<due>[,<category>[,<importance>]]   add a pending todo (due dates in the format YYYY-MM-DDTHH:MM)
+    update,<number>,<field>,<value>                  change a todo's title, due, cat, importance or status
+    delete,<number>                                  delete a todo
+    list                                             list every todo
+    sort,<field>[,<field>...]                        sort by due, priority, status, cat or title (e.g. sort,priority,due)
+    save,<file>                                      save the todos to a file (.todb files in the binary format)
+
+  Blank lines & lines starting with # are skipped. Each command writes one result line: "ok" followed by the number of the todo
+  it added, changed or deleted (or the number of todos for list, sort & save), or "err" followed by the line number of the
+  command & what was wrong with it. list writes each todo before its result line, as <number>,<title>,<due>,<category>,<importance>,<status>.
+  A command which fails changes nothing, and the commands after it still run. Output is buffered & only flushed when there
+  are no more commands waiting to be read, so it's written in large blocks rather than a line at a time */
+public class TodoBatch {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final TodoList todos;
+  private final TodoJournal journal;
+  private int okCount;
+  private int errCount;
+
+
+  public TodoBatch(List<Todo> todos) {
+    this(todos, null);
+  }
+
+  // A batch whose changes are also recorded in a journal
+  public TodoBatch(List<Todo> todos, TodoJournal journal) {
+    this.todos = todos instanceof TodoList ? (TodoList) todos : new TodoList(todos);
+    this.journal = journal;
+  }
+
+
+  public TodoList getTodos() {
+    return todos;
+  }
+
+  public int getOkCount() {
+    return okCount;
+  }
+
+  public int getErrCount() {
+    return errCount;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to run every command read from the input, writing the results to the output
+
+  public void run(Reader input, OutputStream output) throws IOException {
+
+    BufferedReader in = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input, BUFFER_SIZE);
+    PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE), false);
+
+    String line;
+    int lineNumber = 0;
+    while ((line = in.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank() || line.startsWith("#")) {
+        continue;
+      }
+      try {
+        int result = run(line, out);
+        out.print("ok ");
+        out.print(result);
+        out.print('\n');
+        okCount++;
+      } catch (IllegalArgumentException exc) {
+        out.print("err ");
+        out.print(lineNumber);
+        out.print(' ');
+        out.print(exc.getMessage());
+        out.print('\n');
+        errCount++;
+      }
+      // Only flush once every command already sent has been run, so a script waiting for a result gets it straight away
+      if (!in.ready()) {
+        out.flush();
+      }
+    }
+    out.flush();
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to run one command, returning the number to report with "ok". Throws IllegalArgumentException if the command can't be run
+
+  private int run(String line, PrintWriter out) {
+
+    String[] args = line.split(",", -1);
+
+    switch (args[0].trim()) {
+      case "add":
+        return add(args);
+      case "update":
+        return update(args);
+      case "delete":
+        return delete(args);
+      case "list":
+        return list(out);
+      case "sort":
+        return sort(args);
+      case "save":
+        return save(args);
+      default:
+        throw new IllegalArgumentException("Unknown command " + args[0]);
+    }
+  }
+
+
+  private int add(String[] args) {
+
+    if (args.length < 3 || args.length > 5) {
+      throw new IllegalArgumentException("add needs a title, a due date and optionally a category & importance");
+    }
+    String title = title(args[1]);
+    LocalDateTime due = due(args[2], LocalDateTime.now());
+    Category cat = args.length > 3 ? enumValue(Category.class, "category", args[3]) : Category.green;
+    Importance importance = args.length > 4 ? enumValue(Importance.class, "importance", args[4]) : Importance.normal;
+
+    Todo todo = new Todo(title, due, cat, importance, Status.pending);
+    // Journalled before it's added, so a todo which couldn't be saved never appears in the list
+    journalChange("create", todo);
+    todos.add(todo);
+    return todos.size();
+  }
+
+  private int update(String[] args) {
+
+    if (args.length != 4) {
+      throw new IllegalArgumentException("update needs a todo number, a field and a value");
+    }
+    int number = number(args[1]);
+    Todo todo = todos.get(number - 1);
+    String value = args[3];
+
+    // The journal records the changed Todo, so the change is made first & undone if it can't be journalled
+    Runnable undo;
+    switch (args[2].trim()) {
+      case "title": {
+        String oldTitle = todo.getText();
+        todo.setText(title(value));
+        undo = () -> todo.setText(oldTitle);
+        break;
+      }
+      case "due": {
+        LocalDateTime oldDue = todo.getDue();
+        todo.setDue(due(value, TodoRules.RELEASED));
+        undo = () -> todo.setDue(oldDue);
+        break;
+      }
+      case "cat": {
+        Category oldCat = todo.getCat();
+        todo.setCat(enumValue(Category.class, "category", value));
+        undo = () -> todo.setCat(oldCat);
+        break;
+      }
+      case "importance": {
+        Importance oldImportance = todo.getImportance();
+        todo.setImportance(enumValue(Importance.class, "importance", value));
+        undo = () -> todo.setImportance(oldImportance);
+        break;
+      }
+      case "status": {
+        Status oldStatus = todo.getCompletion();
+        todo.setCompletion(enumValue(Status.class, "status", value));
+        undo = () -> todo.setCompletion(oldStatus);
+        break;
+      }
+      default:
+        throw new IllegalArgumentException("Unknown field " + args[2] + ". Fields are title, due, cat, importance & status");
+    }
+    try {
+      journalChange("update", todo);
+    } catch (IllegalArgumentException exc) {
+      undo.run();
+      throw exc;
+    }
+    return number;
+  }
+
+  private int delete(String[] args) {
+
+    if (args.length != 2) {
+      throw new IllegalArgumentException("delete needs a todo number");
+    }
+    int number = number(args[1]);
+    journalChange("delete", todos.get(number - 1));
+    todos.remove(number - 1);
+    return number;
+  }
+
+  private int list(PrintWriter out) {
+
+    // Counting as we go, rather than looking each todo up with indexOf
+    int number = 0;
+    for (Todo todo : todos) {
+      out.print(++number);
+      out.print(',');
+      out.print(Menu.todoToLine(todo));
+      out.print('\n');
+    }
+    return number;
+  }
+
+  private int sort(String[] args) {
+
+    if (args.length < 2) {
+      throw new IllegalArgumentException("sort needs at least one field");
+    }
+    TodoField[] fields = new TodoField[args.length - 1];
+    for (int i = 1; i < args.length; i++) {
+      fields[i - 1] = switch (args[i].trim()) {
+        case "due":
+          yield TodoField.due;
+        case "priority":
+        case "importance":
+          yield TodoField.importance;
+        case "status":
+          yield TodoField.completion;
+        case "cat":
+          yield TodoField.cat;
+        case "title":
+          yield TodoField.text;
+        default:
+          throw new IllegalArgumentException("Can't sort by " + args[i] + ". Sort by due, priority, status, cat or title");
+      };
+    }
+    TodoSorter.sort(todos, fields);
+    return todos.size();
+  }
+
+  private int save(String[] args) {
+
+    if (args.length != 2 || args[1].isBlank()) {
+      throw new IllegalArgumentException("save needs a file name");
+    }
+    try {
+      Menu.saveToPath(Paths.get(args[1].trim()), todos);
+    } catch (IOException exc) {
+      throw new IllegalArgumentException("Writing to " + args[1] + " failed");
+    }
+    return todos.size();
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods to validate arguments, with the same rules as CLIMenu. Each throws IllegalArgumentException if the argument isn't valid
+
+  private int number(String arg) {
+    int number;
+    try {
+      number = Integer.parseInt(arg.trim());
+    } catch (NumberFormatException exc) {
+      throw new IllegalArgumentException(arg + " isn't a todo number");
+    }
+    if (number < 1 || number > todos.size()) {
+      throw new IllegalArgumentException("There's no todo number " + number);
+    }
+    return number;
+  }
+
+  private static String title(String title) {
+    if (!TodoRules.isValidTitle(title)) {
+      throw new IllegalArgumentException(TodoRules.TITLE_RULE);
+    }
+    return title;
+  }
+
+  private static LocalDateTime due(String due, LocalDateTime notBefore) {
+    LocalDateTime parsed;
+    try {
+      parsed = LocalDateTime.parse(due.trim());
+    } catch (DateTimeParseException exc) {
+      throw new IllegalArgumentException("The due date " + due + " is not valid");
+    }
+    if (!parsed.isAfter(notBefore)) {
+      throw new IllegalArgumentException("The due date must be after " + notBefore);
+    }
+    return parsed;
+  }
+
+  private static <E extends Enum<E>> E enumValue(Class<E> type, String field, String name) {
+    try {
+      return Enum.valueOf(type, name.trim());
+    } catch (IllegalArgumentException exc) {
+      throw new IllegalArgumentException(field + " can't be " + name);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to record a created, updated or deleted Todo in the journal, if there is one. Throws IllegalArgumentException if it
+    can't be, in which case the journal is left as it was */
+
+  private void journalChange(String change, Todo todo) {
+
+    if (journal == null) {
+      return;
+    }
+
+    try {
+      switch (change) {
+        case "create":
+          journal.created(todo);
+          break;
+        case "update":
+          journal.updated(todo);
+          break;
+        default:
+          journal.deleted(todo);
+      }
+    } catch (IOException exc) {
+      throw new IllegalArgumentException("The change couldn't be saved to the journal, so it wasn't made");
+    }
+  }
+
+}
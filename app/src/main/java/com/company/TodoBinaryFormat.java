@@ -0,0 +1,224 @@
+package com.company;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/* Compact binary file format for Todos, which avoids formatting & parsing dates and enum names as text. Files start with a
+  16 byte header followed by one record per Todo:
+
+    header:  magic 0x89 "TDB" (4 bytes), version (2 bytes), unused (2 bytes), number of records (8 bytes)
+    record:  due date as seconds since the epoch in UTC (8 bytes), nanoseconds (4 bytes), category ordinal (1 byte),
+             importance ordinal (1 byte), status ordinal (1 byte), title length (2 bytes), title in UTF-8
+
+  All numbers are big-endian. The magic starts with a byte that can't start a line of UTF-8 text, so no text todo file is
+  mistaken for a binary one. Files written before that start with "TODB" instead, and are still read: they're told apart
+  from text by the version & unused bytes after it, which hold NULs no text file has */
+public class TodoBinaryFormat {
+
+  public static final String EXTENSION = ".todb";
+
+  private static final int MAGIC = 0x89544442;
+  // "TODB", the magic of files written before the current one
+  private static final int OLD_MAGIC = 0x544F4442;
+  private static final short VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int FIXED_RECORD_SIZE = 17;
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  private static final Category[] CATEGORIES = Category.values();
+  private static final Importance[] IMPORTANCES = Importance.values();
+  private static final Status[] STATUSES = Status.values();
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Check whether the file at the given path starts with the binary format's header
+
+  public static boolean isBinary(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer start = ByteBuffer.allocate(8);
+      while (start.hasRemaining() && channel.read(start) > 0) {
+      }
+      return !start.hasRemaining() && isHeader(start.getInt(0), start.getShort(4), start.getShort(6));
+    }
+  }
+
+  private static boolean isHeader(int magic, short version, short unused) {
+    return magic == MAGIC || magic == OLD_MAGIC && version == VERSION && unused == 0;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Write the Todos to the file at the given path, replacing anything already there. They're written to a temporary file which
+    is then moved over the old one, so a save which fails part way leaves the old file as it was */
+
+  public static void save(Path path, List<Todo> todos) throws IOException {
+    Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    try {
+      write(tmp, todos);
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException exc) {
+      Files.deleteIfExists(tmp);
+      throw exc;
+    }
+  }
+
+  private static void write(Path path, List<Todo> todos) throws IOException {
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+      buf.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(todos.size());
+
+      for (Todo todo : todos) {
+        byte[] title = todo.getText().getBytes(StandardCharsets.UTF_8);
+        if (title.length > 0xFFFF) {
+          throw new IOException("Title of " + todo.getText().substring(0, 30) + "... is too long to save");
+        }
+        if (buf.remaining() < FIXED_RECORD_SIZE + title.length) {
+          drain(channel, buf);
+        }
+        LocalDateTime due = todo.getDue();
+        buf.putLong(due.toEpochSecond(ZoneOffset.UTC));
+        buf.putInt(due.getNano());
+        buf.put((byte) todo.getCat().ordinal());
+        buf.put((byte) todo.getImportance().ordinal());
+        buf.put((byte) todo.getCompletion().ordinal());
+        buf.putShort((short) title.length);
+        buf.put(title);
+      }
+
+      drain(channel, buf);
+      channel.force(true);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Load every Todo in the file at the given path into a new ArrayList
+
+  public static ArrayList<Todo> load(Path path) throws IOException {
+    ArrayList<Todo> todos = new ArrayList<>();
+    stream(path, todos::add);
+    return todos;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Read the file at the given path, passing each Todo to the consumer as it is read. Returns the number of Todos read
+
+  public static long stream(Path path, Consumer<Todo> sink) throws IOException {
+    return stream(path, sink, bytesRead -> {
+    });
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // As above, also telling progress how many bytes of the file have been read each time more is read from the file
+
+  public static long stream(Path path, Consumer<Todo> sink, LongConsumer progress) throws IOException {
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+      ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+      buf.flip();
+      fill(channel, buf, HEADER_SIZE);
+
+      int magic = buf.getInt();
+      if (magic != MAGIC && magic != OLD_MAGIC) {
+        throw new IOException(path + " is not a binary todo file");
+      }
+      short version = buf.getShort();
+      if (version != VERSION) {
+        throw new IOException(path + " uses version " + version + " of the binary todo format, which isn't supported");
+      }
+      buf.getShort();
+      long count = buf.getLong();
+
+      byte[] title = new byte[256];
+
+      for (long i = 0; i < count; i++) {
+        boolean readMore = fill(channel, buf, FIXED_RECORD_SIZE);
+        long epochSecond = buf.getLong();
+        int nano = buf.getInt();
+        Category cat = CATEGORIES[buf.get()];
+        Importance importance = IMPORTANCES[buf.get()];
+        Status completion = STATUSES[buf.get()];
+        int titleLength = buf.getShort() & 0xFFFF;
+
+        if (titleLength > title.length) {
+          title = new byte[titleLength];
+        }
+        readMore |= fill(channel, buf, titleLength);
+        buf.get(title, 0, titleLength);
+        if (readMore) {
+          progress.accept(channel.position() - buf.remaining());
+        }
+
+        LocalDateTime due = LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        sink.accept(new Todo(new String(title, 0, titleLength, StandardCharsets.UTF_8), due, cat, importance, completion));
+      }
+
+      return count;
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Read how many Todos the file at the given path holds from its header, without reading the Todos themselves
+
+  public static long count(Path path) throws IOException {
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.flip();
+      fill(channel, header, HEADER_SIZE);
+      if (!isHeader(header.getInt(), header.getShort(), header.getShort())) {
+        throw new IOException(path + " is not a binary todo file");
+      }
+      return header.getLong(8);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Make sure at least the given number of bytes are ready to be read from the buffer, reading more from the channel if not.
+    Returns whether more was read */
+
+  private static boolean fill(FileChannel channel, ByteBuffer buf, int needed) throws IOException {
+    if (buf.remaining() >= needed) {
+      return false;
+    }
+    buf.compact();
+    while (buf.position() < needed) {
+      if (channel.read(buf) < 0) {
+        throw new EOFException("Binary todo file ended part way through a record");
+      }
+    }
+    buf.flip();
+    return true;
+  }
+
+
+  // Write everything in the buffer to the channel, leaving the buffer empty & ready to be filled again
+  private static void drain(FileChannel channel, ByteBuffer buf) throws IOException {
+    buf.flip();
+    while (buf.hasRemaining()) {
+      channel.write(buf);
+    }
+    buf.clear();
+  }
+
+}
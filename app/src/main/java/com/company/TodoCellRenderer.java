@@ -0,0 +1,92 @@
+package com.company;
+
+import javax.swing.JComponent;
+import javax.swing.JList;
+import javax.swing.ListCellRenderer;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.time.format.DateTimeFormatter;
+
+/* Draws each row of the GUI's list of todos: a swatch of the todo's category colour, its title, and when it's due on the
+  right. The row is painted straight onto the list rather than laid out from labels or HTML, and the due date text comes
+  from a RenderCache, so scrolling through a long list only formats the rows which are new or changed */
+public class TodoCellRenderer extends JComponent implements ListCellRenderer<Todo> {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int PADDING = 4;
+  private static final DateTimeFormatter DUE_FORMAT = DateTimeFormatter.ofPattern("EEE d MMM yyyy HH:mm");
+
+  private final RenderCache<String> dueTexts = new RenderCache<>(todo -> todo.getDue().format(DUE_FORMAT));
+  private String title = "";
+  private String dueText = "";
+  private Category cat = Category.white;
+  private Color background;
+  private Color foreground;
+
+
+  public Component getListCellRendererComponent(JList<? extends Todo> list, Todo todo, int index, boolean isSelected, boolean cellHasFocus) {
+    title = todo.getText();
+    dueText = dueTexts.get(todo);
+    cat = todo.getCat();
+    background = isSelected ? list.getSelectionBackground() : list.getBackground();
+    foreground = isSelected ? list.getSelectionForeground() : list.getForeground();
+    setFont(list.getFont());
+    return this;
+  }
+
+
+  @Override
+  public Dimension getPreferredSize() {
+    FontMetrics metrics = getFontMetrics(getFont());
+    int height = metrics.getHeight() + 2 * PADDING;
+    int width = height + metrics.stringWidth(title) + 4 * PADDING + metrics.stringWidth(dueText);
+    return new Dimension(width, height);
+  }
+
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    FontMetrics metrics = g.getFontMetrics(getFont());
+    int width = getWidth();
+    int height = getHeight();
+    int baseline = (height - metrics.getHeight()) / 2 + metrics.getAscent();
+    int swatch = height - 2 * PADDING;
+
+    g.setColor(background);
+    g.fillRect(0, 0, width, height);
+    g.setColor(colourOf(cat));
+    g.fillRect(PADDING, PADDING, swatch, swatch);
+    g.setColor(Color.gray);
+    g.drawRect(PADDING, PADDING, swatch - 1, swatch - 1);
+
+    g.setFont(getFont());
+    g.setColor(foreground);
+    g.drawString(title, swatch + 2 * PADDING, baseline);
+    g.setColor(Color.gray);
+    g.drawString(dueText, width - PADDING - metrics.stringWidth(dueText), baseline);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The colour for each category (matching the HTML colour of the same name) and the text colour which shows up on it
+
+  static Color colourOf(Category cat) {
+    return switch (cat) {
+      case red -> Color.red;
+      case white -> Color.white;
+      case blue -> Color.blue;
+      case purple -> new Color(0x800080);
+      case yellow -> Color.yellow;
+      case green -> new Color(0x008000);
+    };
+  }
+
+  static Color textColourOn(Category cat) {
+    return cat == Category.white || cat == Category.yellow ? Color.black : Color.white;
+  }
+
+}
@@ -0,0 +1,361 @@
+package com.company;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/* Reads & writes the lines of a todo text file (title,YYYY-MM-DDTHH:MM,category,importance,status) straight from & to bytes.
+  A line is decoded into fields of the codec rather than a Todo: the due date as seconds (and nanoseconds) since the epoch,
+  and the enums as ordinals, so the only object made per line is the title. Todos are encoded into a buffer the codec reuses,
+  in exactly the text Menu.todoToLine gives, so files round-trip byte for byte. Only toTodo() (which has to make the Todo
+  and its LocalDateTime) allocates anything else.
+
+  Due dates in the usual forms (YYYY-MM-DDTHH:MM or YYYY-MM-DDTHH:MM:SS, years 0000-9999) are read & written digit by digit.
+  Anything else LocalDateTime can read or write (fractions of a second, years beyond 9999) goes through LocalDateTime.
+  A codec holds the last line it decoded, so each thread needs its own */
+public class TodoCodec {
+
+  // Seconds in a day, and days from 0000-01-01 to 1970-01-01, for turning dates into epoch seconds
+  private static final int SECONDS_PER_DAY = 86400;
+  private static final long DAYS_0000_TO_1970 = 719528;
+
+  private static final Category[] CATS = Category.values();
+  private static final Importance[] IMPORTANCES = Importance.values();
+  private static final Status[] STATUSES = Status.values();
+
+  // Enum constant names as bytes, so fields can be matched & written without first being turned into Strings
+  private static final byte[][] CAT_NAMES = enumNames(CATS);
+  private static final byte[][] IMPORTANCE_NAMES = enumNames(IMPORTANCES);
+  private static final byte[][] STATUS_NAMES = enumNames(STATUSES);
+
+  // The last line decoded
+  private String title;
+  private long dueSecond;
+  private int dueNano;
+  private int cat;
+  private int importance;
+  private int status;
+  // What was wrong with the last line decoded, for TodoRules: the first enum field whose name wasn't recognised, and any fields after the fifth
+  private String unknownField;
+  private boolean extraFields;
+
+  // The last line encoded
+  private byte[] line = new byte[0];
+  private int lineLength;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Decode the line held in buf between start (inclusive) and end (exclusive, not including the line break) into the codec's
+    fields. Returns false for a blank line & throws IllegalArgumentException (or DateTimeException, for a bad due date) if the
+    line doesn't have all five fields. Unknown categories, importances & statuses read as the defaults Menu.stringToCat,
+    stringToImportance & stringToStatus give, and anything after a fifth comma is ignored, as when lines were split on commas */
+
+  public boolean decode(byte[] buf, int start, int end) {
+
+    if (end > start && buf[end - 1] == '\r') {
+      end--;
+    }
+    if (end == start) {
+      return false;
+    }
+
+    int titleEnd = indexOf(buf, ',', start, end);
+    int dueEnd = indexOf(buf, ',', titleEnd + 1, end);
+    int catEnd = indexOf(buf, ',', dueEnd + 1, end);
+    int importanceEnd = indexOf(buf, ',', catEnd + 1, end);
+    if (importanceEnd == end) {
+      throw new IllegalArgumentException("Line doesn't have 5 comma separated fields");
+    }
+    int statusEnd = indexOf(buf, ',', importanceEnd + 1, end);
+
+    title = new String(buf, start, titleEnd - start, StandardCharsets.UTF_8);
+    decodeDue(buf, titleEnd + 1, dueEnd);
+    cat = matchName(CAT_NAMES, buf, dueEnd + 1, catEnd);
+    importance = matchName(IMPORTANCE_NAMES, buf, catEnd + 1, importanceEnd);
+    status = matchName(STATUS_NAMES, buf, importanceEnd + 1, statusEnd);
+    unknownField = cat < 0 ? "category" : importance < 0 ? "importance" : status < 0 ? "status" : null;
+    extraFields = statusEnd < end;
+    if (unknownField != null) {
+      cat = cat < 0 ? Category.green.ordinal() : cat;
+      importance = importance < 0 ? Importance.high.ordinal() : importance;
+      status = status < 0 ? Status.completed.ordinal() : status;
+    }
+    return true;
+  }
+
+
+  public String getTitle() {
+    return title;
+  }
+
+  // The due date of the last line decoded, in seconds since 1970-01-01T00:00 (with no time zone, like the date in the file)
+  public long getDueEpochSecond() {
+    return dueSecond;
+  }
+
+  public int getDueNano() {
+    return dueNano;
+  }
+
+  public int getCatOrdinal() {
+    return cat;
+  }
+
+  public int getImportanceOrdinal() {
+    return importance;
+  }
+
+  public int getStatusOrdinal() {
+    return status;
+  }
+
+  // The name of the first of the category, importance & status whose value wasn't recognised (& was read as the default), or null
+  public String getUnknownField() {
+    return unknownField;
+  }
+
+  // Whether the line had more than five fields, the rest being ignored
+  public boolean hasExtraFields() {
+    return extraFields;
+  }
+
+  public LocalDateTime getDue() {
+    return LocalDateTime.ofEpochSecond(dueSecond, dueNano, ZoneOffset.UTC);
+  }
+
+  // Make a Todo from the last line decoded
+  public Todo toTodo() {
+    return new Todo(title, getDue(), CATS[cat], IMPORTANCES[importance], STATUSES[status]);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Read a due date, digit by digit if it's in one of the forms saveToFile writes. Dates which aren't, or whose digits are out
+    of range, are handed to LocalDateTime.parse, which reads the rest & gives the same errors for bad dates as before */
+
+  private void decodeDue(byte[] buf, int start, int end) {
+
+    int len = end - start;
+    if ((len == 16 || len == 19) && buf[start + 4] == '-' && buf[start + 7] == '-' && buf[start + 10] == 'T' && buf[start + 13] == ':'
+        && (len == 16 || buf[start + 16] == ':')) {
+      int year = digits(buf, start, 4);
+      int month = digits(buf, start + 5, 2);
+      int day = digits(buf, start + 8, 2);
+      int hour = digits(buf, start + 11, 2);
+      int minute = digits(buf, start + 14, 2);
+      int second = len == 19 ? digits(buf, start + 17, 2) : 0;
+      if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month)
+          && hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60) {
+        dueSecond = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+        dueNano = 0;
+        return;
+      }
+    }
+
+    LocalDateTime due = LocalDateTime.parse(new String(buf, start, len, StandardCharsets.US_ASCII));
+    dueSecond = due.toEpochSecond(ZoneOffset.UTC);
+    dueNano = due.getNano();
+  }
+
+  // Read count ASCII digits starting at offset as an int. Returns -1 if any of them isn't a digit
+  private static int digits(byte[] buf, int offset, int count) {
+    int value = 0;
+    for (int i = offset; i < offset + count; i++) {
+      int digit = buf[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  // Days since 1970-01-01, counted the same way as LocalDate.toEpochDay (for years from 0 on)
+  private static long epochDay(int year, int month, int day) {
+    long days = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    days += (367 * month - 362) / 12 + day - 1;
+    if (month > 2) {
+      days -= isLeap(year) ? 1 : 2;
+    }
+    return days - DAYS_0000_TO_1970;
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        return isLeap(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  private static boolean isLeap(int year) {
+    return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Return the ordinal of the enum constant whose name matches the bytes between start & end, or -1 if none match
+
+  private static int matchName(byte[][] names, byte[] buf, int start, int end) {
+    int len = end - start;
+    for (int n = 0; n < names.length; n++) {
+      byte[] name = names[n];
+      if (name.length == len) {
+        int i = 0;
+        while (i < len && name[i] == buf[start + i]) {
+          i++;
+        }
+        if (i == len) {
+          return n;
+        }
+      }
+    }
+    return -1;
+  }
+
+  // The index of the first b between start & end, or end if there isn't one
+  private static int indexOf(byte[] buf, char b, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (buf[i] == b) {
+        return i;
+      }
+    }
+    return end;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Encode a Todo as a line of a todo file, followed by a line break, into the codec's buffer (see getLine). Returns the length
+    of the line in bytes. The buffer is reused (& grown if a title needs it), so the line must be copied out before the next
+    call */
+
+  public int encode(Todo todo) {
+
+    String text = todo.getText();
+    // Every char takes at most 3 bytes in UTF-8, and the rest of the line at most 64 (more only for dates beyond year 9999)
+    ensureCapacity(text.length() * 3 + 64);
+    lineLength = 0;
+
+    encodeTitle(text);
+    line[lineLength++] = ',';
+    encodeDue(todo.getDue());
+    line[lineLength++] = ',';
+    put(CAT_NAMES[todo.getCat().ordinal()]);
+    line[lineLength++] = ',';
+    put(IMPORTANCE_NAMES[todo.getImportance().ordinal()]);
+    line[lineLength++] = ',';
+    put(STATUS_NAMES[todo.getCompletion().ordinal()]);
+    line[lineLength++] = '\n';
+    return lineLength;
+  }
+
+  // The buffer holding the last line encoded, from index 0 to the length encode returned
+  public byte[] getLine() {
+    return line;
+  }
+
+
+  // The title as UTF-8, the same bytes String.getBytes gives (including '?' for a lone surrogate)
+  private void encodeTitle(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        line[lineLength++] = (byte) c;
+      } else if (c < 0x800) {
+        line[lineLength++] = (byte) (0xc0 | (c >> 6));
+        line[lineLength++] = (byte) (0x80 | (c & 0x3f));
+      } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, text.charAt(++i));
+        line[lineLength++] = (byte) (0xf0 | (codePoint >> 18));
+        line[lineLength++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+        line[lineLength++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+        line[lineLength++] = (byte) (0x80 | (codePoint & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        line[lineLength++] = '?';
+      } else {
+        line[lineLength++] = (byte) (0xe0 | (c >> 12));
+        line[lineLength++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        line[lineLength++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+  }
+
+  // The due date as LocalDateTime.toString writes it: seconds only if they (or the nanoseconds) aren't zero
+  private void encodeDue(LocalDateTime due) {
+
+    int year = due.getYear();
+    if (year < 0 || year > 9999) {
+      String text = due.toString();
+      ensureCapacity(lineLength + text.length() + 64);
+      for (int i = 0; i < text.length(); i++) {
+        line[lineLength++] = (byte) text.charAt(i);
+      }
+      return;
+    }
+
+    putDigits(year, 4);
+    line[lineLength++] = '-';
+    putDigits(due.getMonthValue(), 2);
+    line[lineLength++] = '-';
+    putDigits(due.getDayOfMonth(), 2);
+    line[lineLength++] = 'T';
+    putDigits(due.getHour(), 2);
+    line[lineLength++] = ':';
+    putDigits(due.getMinute(), 2);
+
+    int second = due.getSecond();
+    int nano = due.getNano();
+    if (second > 0 || nano > 0) {
+      line[lineLength++] = ':';
+      putDigits(second, 2);
+      if (nano > 0) {
+        line[lineLength++] = '.';
+        if (nano % 1_000_000 == 0) {
+          putDigits(nano / 1_000_000, 3);
+        } else if (nano % 1000 == 0) {
+          putDigits(nano / 1000, 6);
+        } else {
+          putDigits(nano, 9);
+        }
+      }
+    }
+  }
+
+  // Write value as count digits, with leading zeros
+  private void putDigits(int value, int count) {
+    for (int i = lineLength + count - 1; i >= lineLength; i--) {
+      line[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    lineLength += count;
+  }
+
+  private void put(byte[] bytes) {
+    System.arraycopy(bytes, 0, line, lineLength, bytes.length);
+    lineLength += bytes.length;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (line.length < capacity) {
+      byte[] bigger = new byte[Math.max(capacity, line.length * 2)];
+      System.arraycopy(line, 0, bigger, 0, lineLength);
+      line = bigger;
+    }
+  }
+
+
+  private static byte[][] enumNames(Enum<?>[] constants) {
+    byte[][] names = new byte[constants.length][];
+    for (int i = 0; i < constants.length; i++) {
+      names[i] = constants[i].name().getBytes(StandardCharsets.US_ASCII);
+    }
+    return names;
+  }
+
+}
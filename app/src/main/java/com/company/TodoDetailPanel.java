@@ -0,0 +1,64 @@
+package com.company;
+
+import javax.swing.JComponent;
+import javax.swing.UIManager;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+
+/* Shows the details of the selected todo (from Menu.todoDetails) on a background of its category's colour. The lines are
+  painted directly instead of through an HTML JLabel, so selecting a todo doesn't run Swing's HTML parser, and each todo's
+  lines come from a RenderCache so moving back & forth through the list doesn't format the same todo twice */
+public class TodoDetailPanel extends JComponent {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int PADDING = 8;
+  // Sized to fit a long title & the longest due date line, so the layout doesn't shift from one todo to the next
+  private static final String WIDEST_LINE = "Due on: WEDNESDAY 30 of SEPTEMBER 2021";
+
+  private final RenderCache<String[]> details = new RenderCache<>(Menu::todoDetails);
+  private Todo todo;
+
+
+  public TodoDetailPanel() {
+    setFont(UIManager.getFont("Label.font"));
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Show the given todo, or nothing if it's null
+
+  public void setTodo(Todo todo) {
+    this.todo = todo;
+    repaint();
+  }
+
+
+  @Override
+  public Dimension getPreferredSize() {
+    FontMetrics metrics = getFontMetrics(getFont());
+    return new Dimension(metrics.stringWidth(WIDEST_LINE) + 2 * PADDING, 5 * metrics.getHeight() + 2 * PADDING);
+  }
+
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    if (todo == null) {
+      return;
+    }
+    String[] lines = details.get(todo);
+    FontMetrics metrics = g.getFontMetrics(getFont());
+    int lineHeight = metrics.getHeight();
+    int top = Math.max(0, (getHeight() - lines.length * lineHeight) / 2);
+
+    g.setColor(TodoCellRenderer.colourOf(todo.getCat()));
+    g.fillRect(0, top - PADDING / 2, getWidth(), lines.length * lineHeight + PADDING);
+    g.setFont(getFont());
+    g.setColor(TodoCellRenderer.textColourOn(todo.getCat()));
+    for (int i = 0; i < lines.length; i++) {
+      g.drawString(lines[i], PADDING, top + i * lineHeight + metrics.getAscent());
+    }
+  }
+
+}
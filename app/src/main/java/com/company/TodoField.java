@@ -0,0 +1,6 @@
+package com.company;
+
+// Enum for the properties of a Todo, used to say which one changed when a setter is called
+public enum TodoField {
+  text, due, cat, importance, completion
+}
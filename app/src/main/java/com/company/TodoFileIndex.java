@@ -0,0 +1,220 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/* An index of where the Todos are in a todo file, so any one of them can be read without reading the file up to it. The file
+  is read once, checking every line like an import (TodoFileReader.checkLine), and the index records the offset of every
+  PAGE_SIZE'th good line: one long per page rather than one per line, so 50 million lines take about 6MB. Reading a page means
+  reading from its offset to the next page's, skipping blank, comment & bad lines as the index did. Bad lines are put in
+  <file>.rejected when the index is built.
+
+  The index is saved next to the file as <file>.idx, with the size & modification time of the file it was built from, and is
+  only built again if the file has changed */
+public class TodoFileIndex {
+
+  public static final String EXTENSION = ".idx";
+  // Good lines per page
+  public static final int PAGE_SIZE = 64;
+
+  // "TIDX"
+  private static final int MAGIC = 0x54494458;
+  private static final short VERSION = 1;
+  private static final int HEADER_SIZE = 48;
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  private final long fileSize;
+  private final long modified;
+  private final long count;
+  private final long rejected;
+  // pageStarts[p] is the offset of the first line of page p, and the last entry is the size of the file
+  private final long[] pageStarts;
+
+
+  private TodoFileIndex(long fileSize, long modified, long count, long rejected, long[] pageStarts) {
+    this.fileSize = fileSize;
+    this.modified = modified;
+    this.count = count;
+    this.rejected = rejected;
+    this.pageStarts = pageStarts;
+  }
+
+
+  public static Path pathFor(Path file) {
+    return file.resolveSibling(file.getFileName() + EXTENSION);
+  }
+
+  // Number of Todos in the file
+  public long getCount() {
+    return count;
+  }
+
+  // Number of lines which couldn't be read or broke a rule when the index was built
+  public long getRejected() {
+    return rejected;
+  }
+
+  public int getPages() {
+    return pageStarts.length - 1;
+  }
+
+  // Offset of the first line of a page in the file
+  public long pageStart(int page) {
+    return pageStarts[page];
+  }
+
+  // Offset just after the last line of a page (& any lines skipped after it)
+  public long pageEnd(int page) {
+    return pageStarts[page + 1];
+  }
+
+  // Number of Todos on a page: PAGE_SIZE, apart from the last page
+  public int pageCount(int page) {
+    return (int) Math.min(PAGE_SIZE, count - (long) page * PAGE_SIZE);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* The index of the file at the given path: the saved one if it was built from the file as it is now, otherwise a new one,
+    which is saved for next time. If it can't be saved (e.g. the directory is read only) it's still returned */
+
+  public static TodoFileIndex open(Path file) throws IOException {
+
+    long size = Files.size(file);
+    long modified = Files.getLastModifiedTime(file).toMillis();
+    Path indexFile = pathFor(file);
+
+    if (Files.exists(indexFile)) {
+      TodoFileIndex saved = read(indexFile);
+      if (saved != null && saved.fileSize == size && saved.modified == modified) {
+        return saved;
+      }
+    }
+
+    TodoFileIndex index = build(file, size, modified);
+    try {
+      index.save(indexFile);
+    } catch (IOException exc) {
+      System.out.println("The index of " + file + " couldn't be saved, so it will be built again next time");
+    }
+    return index;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Read every line of the file, recording the offset of the first good line of each page & putting bad lines in the quarantine
+
+  private static TodoFileIndex build(Path file, long size, long modified) throws IOException {
+
+    long count = 0;
+    long lineNumber = 0;
+    long[] pageStarts = new long[(int) Math.min(1 << 16, size / PAGE_SIZE + 2)];
+    int pages = 0;
+    byte[] buf = new byte[BUFFER_SIZE];
+    int filled = 0;
+    // Offset in the file of buf[0]
+    long bufStart = 0;
+    TodoCodec codec = new TodoCodec();
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+         ImportQuarantine quarantine = new ImportQuarantine(ImportQuarantine.pathFor(file))) {
+
+      boolean eof = false;
+
+      while (!eof) {
+
+        // Grow the buffer if a single line doesn't fit in it
+        if (filled == buf.length) {
+          buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+
+        int read = channel.read(ByteBuffer.wrap(buf, filled, buf.length - filled));
+        if (read < 0) {
+          eof = true;
+        } else {
+          filled += read;
+        }
+
+        int lineStart = 0;
+        for (int i = 0; i <= filled; i++) {
+          // The last line of the file might not end with a newline
+          if (i == filled ? !eof || lineStart == filled : buf[i] != '\n') {
+            continue;
+          }
+          lineNumber++;
+          String problem = TodoFileReader.checkLine(codec, buf, lineStart, i);
+          if (problem == null) {
+            if (count % PAGE_SIZE == 0) {
+              if (pages == pageStarts.length - 1) {
+                pageStarts = Arrays.copyOf(pageStarts, pageStarts.length * 2);
+              }
+              pageStarts[pages++] = bufStart + lineStart;
+            }
+            count++;
+          } else if (problem != TodoFileReader.SKIPPED) {
+            quarantine.reject(lineNumber, problem, buf, lineStart, i);
+          }
+          lineStart = Math.min(i + 1, filled);
+        }
+
+        // Move the incomplete line at the end of the buffer back to the start, ready for the next read
+        System.arraycopy(buf, lineStart, buf, 0, filled - lineStart);
+        filled -= lineStart;
+        bufStart += lineStart;
+      }
+
+      pageStarts[pages] = bufStart + filled;
+      return new TodoFileIndex(size, modified, count, quarantine.getRejected(), Arrays.copyOf(pageStarts, pages + 1));
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Write the index to a temporary file, then move it into place so a half written index is never read
+
+  private void save(Path indexFile) throws IOException {
+
+    Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+    ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + pageStarts.length * Long.BYTES);
+    buf.putInt(MAGIC).putShort(VERSION).putShort((short) PAGE_SIZE)
+        .putLong(fileSize).putLong(modified).putLong(count).putLong(rejected).putInt(pageStarts.length).putInt(0);
+    buf.asLongBuffer().put(pageStarts);
+    buf.rewind();
+
+    try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buf.hasRemaining()) {
+        channel.write(buf);
+      }
+    }
+    Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+
+  // Read a saved index, or return null if it isn't one this version can use
+  private static TodoFileIndex read(Path indexFile) throws IOException {
+
+    ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+    if (buf.remaining() < HEADER_SIZE || buf.getInt() != MAGIC || buf.getShort() != VERSION || buf.getShort() != PAGE_SIZE) {
+      return null;
+    }
+    long fileSize = buf.getLong();
+    long modified = buf.getLong();
+    long count = buf.getLong();
+    long rejected = buf.getLong();
+    int entries = buf.getInt();
+    buf.getInt();
+    if (entries < 1 || buf.remaining() != (long) entries * Long.BYTES) {
+      return null;
+    }
+    long[] pageStarts = new long[entries];
+    buf.asLongBuffer().get(pageStarts);
+    return new TodoFileIndex(fileSize, modified, count, rejected, pageStarts);
+  }
+
+}
@@ -0,0 +1,173 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/* Class to read Todos from a file without needing a FileDialog. The file is read through a large buffer from a FileChannel
+  and each line is parsed in place by a TodoCodec (title,YYYY-MM-DDTHH:MM,category,importance,status), instead of using
+  Scanner and String.split, so that very large files can be loaded quickly. Todos can be collected into a list or streamed to a consumer */
+public class TodoFileReader {
+
+  private static final int BUFFER_SIZE = 1 << 20;
+  // What checkLine returns for blank & comment lines, which are skipped rather than imported or rejected
+  static final String SKIPPED = "skipped";
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Load every Todo in the file at the given path into a new ArrayList
+
+  public static ArrayList<Todo> load(Path path) throws IOException {
+    ArrayList<Todo> todos = new ArrayList<>();
+    stream(path, todos::add);
+    return todos;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Read the file at the given path, passing each Todo to the consumer as soon as its line has been parsed. Blank lines are
+    skipped. Returns the number of Todos read */
+
+  public static long stream(Path path, Consumer<Todo> sink) throws IOException {
+    return stream(path, sink, bytesRead -> {
+    });
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // As above, also telling progress how many bytes of the file have been read after each read from the file
+
+  public static long stream(Path path, Consumer<Todo> sink, LongConsumer progress) throws IOException {
+    return stream(path, sink, progress, null);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* As above, but checking every line against TodoRules. Lines which can't be parsed or break a rule are put in the quarantine
+    & the rest of the file is still read, rather than the first bad line stopping the read. With no quarantine (null), a line
+    which can't be parsed throws IllegalArgumentException as before */
+
+  public static long stream(Path path, Consumer<Todo> sink, LongConsumer progress, ImportQuarantine quarantine) throws IOException {
+
+    long count = 0;
+    long lineNumber = 0;
+    long bytesRead = 0;
+    byte[] buf = new byte[BUFFER_SIZE];
+    int filled = 0;
+    TodoCodec codec = new TodoCodec();
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+      boolean eof = false;
+
+      while (!eof) {
+
+        // Grow the buffer if a single line doesn't fit in it
+        if (filled == buf.length) {
+          byte[] bigger = new byte[buf.length * 2];
+          System.arraycopy(buf, 0, bigger, 0, filled);
+          buf = bigger;
+        }
+
+        int read = channel.read(ByteBuffer.wrap(buf, filled, buf.length - filled));
+        if (read < 0) {
+          eof = true;
+        } else {
+          filled += read;
+          bytesRead += read;
+        }
+
+        int lineStart = 0;
+        for (int i = 0; i < filled; i++) {
+          if (buf[i] == '\n') {
+            lineNumber++;
+            Todo todo = quarantine == null ? parseNumberedLine(codec, buf, lineStart, i, lineNumber) : parseChecked(codec, buf, lineStart, i, lineNumber, quarantine);
+            if (todo != null) {
+              sink.accept(todo);
+              count++;
+            }
+            lineStart = i + 1;
+          }
+        }
+
+        // The last line of the file might not end with a newline
+        if (eof && lineStart < filled) {
+          lineNumber++;
+          Todo todo = quarantine == null ? parseNumberedLine(codec, buf, lineStart, filled, lineNumber) : parseChecked(codec, buf, lineStart, filled, lineNumber, quarantine);
+          if (todo != null) {
+            sink.accept(todo);
+            count++;
+          }
+          lineStart = filled;
+        }
+
+        // Move the incomplete line at the end of the buffer back to the start, ready for the next read
+        System.arraycopy(buf, lineStart, buf, 0, filled - lineStart);
+        filled -= lineStart;
+        progress.accept(bytesRead);
+      }
+    }
+
+    return count;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Parse a line, adding its line number to the message of any exception so the bad line can be found in the file
+
+  private static Todo parseNumberedLine(TodoCodec codec, byte[] buf, int start, int end, long lineNumber) {
+    try {
+      return parseLine(codec, buf, start, end);
+    } catch (RuntimeException exc) {
+      throw new IllegalArgumentException("Line " + lineNumber + ": " + exc.getMessage(), exc);
+    }
+  }
+
+  // Parse & check a line, returning its Todo, or null if the line was skipped or put in the quarantine
+  private static Todo parseChecked(TodoCodec codec, byte[] buf, int start, int end, long lineNumber, ImportQuarantine quarantine) throws IOException {
+    String problem = checkLine(codec, buf, start, end);
+    if (problem == null) {
+      return codec.toTodo();
+    }
+    if (problem != SKIPPED) {
+      quarantine.reject(lineNumber, problem, buf, start, end);
+    }
+    return null;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Decode a line with the codec & check it against TodoRules. Returns null if the codec now holds a Todo which can be imported,
+    SKIPPED for a blank line or a comment (starting with #, as in a quarantine file), or else what's wrong with the line */
+
+  static String checkLine(TodoCodec codec, byte[] buf, int start, int end) {
+    if (end > start && buf[start] == '#') {
+      return SKIPPED;
+    }
+    try {
+      return codec.decode(buf, start, end) ? TodoRules.check(codec) : SKIPPED;
+    } catch (RuntimeException exc) {
+      return exc.getMessage() != null ? exc.getMessage() : exc.toString();
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Parse the line held in buf between start (inclusive) and end (exclusive) into a Todo. Returns null for a blank line and
+    throws IllegalArgumentException if the line doesn't have all five fields. Readers of many lines should keep one TodoCodec
+    & call the version below, rather than having a codec made for every line */
+
+  static Todo parseLine(byte[] buf, int start, int end) {
+    return parseLine(new TodoCodec(), buf, start, end);
+  }
+
+  static Todo parseLine(TodoCodec codec, byte[] buf, int start, int end) {
+    return codec.decode(buf, start, end) ? codec.toTodo() : null;
+  }
+
+}
@@ -0,0 +1,539 @@
+package com.company;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/* Write-ahead journal, so that each create, update or delete is saved by appending one small record to a log file instead
+  of rewriting the whole list. The journal directory holds a snapshot (in the same format as Menu.saveToFile) plus the log
+  of changes made since the snapshot was taken:
+
+    C,<id>,<title>,<due>,<category>,<importance>,<status>   a Todo was created
+    U,<id>,<title>,<due>,<category>,<importance>,<status>   a Todo was updated
+    D,<id>                                                  a Todo was deleted
+
+  Records are flushed to disk in groups (every syncEvery records, and at least every syncIntervalMillis) and, once the log
+  grows past compactThreshold bytes, it is folded back into a new snapshot by a background thread. Ids are only meaningful
+  within one snapshot + log pair: when a snapshot is written the Todos are renumbered 0..n-1 in the order they appear in it.
+
+  So that a log is never replayed onto the wrong snapshot, each snapshot starts with a "# generation <n>" comment and each
+  log with a "G,<n>" record. A log's changes are only replayed onto the snapshot of the same generation. Every new snapshot
+  gets a new generation, so a log left behind by a crash after its changes were folded into a snapshot is skipped */
+public class TodoJournal {
+
+  private static final String SNAPSHOT = "snapshot.txt";
+  private static final String LOG = "journal.log";
+  private static final String COMPACTING = "journal.log.compacting";
+  private static final String SNAPSHOT_HEADER = "# generation ";
+  private static final String LOG_HEADER = "G,";
+
+  private final Path dir;
+  private final int syncEvery;
+  private final long compactThreshold;
+  private final ScheduledExecutorService background;
+
+  // Current state of every Todo known to the journal, by id, as lines in the snapshot format
+  private LinkedHashMap<Long, String> lines = new LinkedHashMap<>();
+  private final IdentityHashMap<Todo, Long> ids = new IdentityHashMap<>();
+  private final ArrayList<Todo> todos = new ArrayList<>();
+  private long nextId;
+
+  private FileChannel log;
+  private long logSize;
+  private int unsynced;
+  private boolean compacting;
+  // Set when a compaction set the log aside but couldn't write its snapshot, so the next compaction writes a full snapshot instead
+  private boolean snapshotPending;
+
+  /* Held while a snapshot is written. generation is the generation of the current log (& of the snapshot it will be folded
+    into), and goes up with each compaction & replaceAll, so a compaction can tell if it has been overtaken */
+  private final Object snapshotLock = new Object();
+  private volatile long generation;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Open the journal in the given directory (creating it if needed) using the default settings, which can be changed with the
+    todo.journal.syncEvery, todo.journal.syncMillis & todo.journal.compactBytes system properties */
+
+  public static TodoJournal open(Path dir) throws IOException {
+    return open(dir, Integer.getInteger("todo.journal.syncEvery", 32), Long.getLong("todo.journal.syncMillis", 200L),
+        Long.getLong("todo.journal.compactBytes", 64L << 20));
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Open the journal in the given directory, replaying the snapshot and any logged changes to rebuild the list of Todos
+
+  public static TodoJournal open(Path dir, int syncEvery, long syncIntervalMillis, long compactThreshold) throws IOException {
+    TodoJournal journal = new TodoJournal(dir, syncEvery, compactThreshold);
+    journal.recover();
+    if (syncIntervalMillis > 0) {
+      journal.background.scheduleWithFixedDelay(journal::syncQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    return journal;
+  }
+
+
+  private TodoJournal(Path dir, int syncEvery, long compactThreshold) {
+    this.dir = dir;
+    this.syncEvery = syncEvery;
+    this.compactThreshold = compactThreshold;
+    this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "todo-journal");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The Todos rebuilt when the journal was opened, in the order they were created
+
+  public ArrayList<Todo> getTodos() {
+    return todos;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods to record a change to a Todo. Each appends one record to the log, and changes nothing if the record can't be written
+
+  public synchronized void created(Todo todo) throws IOException {
+    long id = nextId;
+    String line = Menu.todoToLine(todo);
+    append("C," + id + "," + line + "\n");
+    nextId++;
+    ids.put(todo, id);
+    lines.put(id, line);
+  }
+
+  public synchronized void updated(Todo todo) throws IOException {
+    Long id = ids.get(todo);
+    if (id == null) {
+      created(todo);
+      return;
+    }
+    String line = Menu.todoToLine(todo);
+    append("U," + id + "," + line + "\n");
+    lines.put(id, line);
+  }
+
+  public synchronized void deleted(Todo todo) throws IOException {
+    Long id = ids.get(todo);
+    if (id != null) {
+      append("D," + id + "\n");
+      ids.remove(todo);
+      lines.remove(id);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Replace everything in the journal with the given Todos (e.g. after loading a file). This writes a new snapshot straight
+    away, since logging every Todo individually would cost more than the snapshot */
+
+  public synchronized void replaceAll(List<Todo> newTodos) throws IOException {
+    ids.clear();
+    lines = new LinkedHashMap<>();
+    nextId = 0;
+    for (Todo todo : newTodos) {
+      ids.put(todo, nextId);
+      lines.put(nextId++, Menu.todoToLine(todo));
+    }
+    generation++;
+    synchronized (snapshotLock) {
+      writeSnapshot(new ArrayList<>(lines.values()), generation);
+      Files.deleteIfExists(dir.resolve(COMPACTING));
+    }
+    snapshotPending = false;
+    // Until the log is restarted it still holds the previous generation's changes, which recovery skips
+    startLog();
+    unsynced = 0;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Force every record written so far onto the disk
+
+  public synchronized void sync() throws IOException {
+    if (unsynced > 0) {
+      log.force(false);
+      unsynced = 0;
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Flush outstanding records, wait for any compaction in progress and close the log
+
+  public void close() throws IOException {
+    background.shutdown();
+    try {
+      background.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this) {
+      sync();
+      log.close();
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Append a record to the log, syncing the group once it's big enough & starting a compaction once the log is big enough.
+    If the record can't be written, any part of it which was is cut off again so the next record starts on its own line */
+
+  private void append(String record) throws IOException {
+    ByteBuffer bytes = ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+    long start = logSize;
+    try {
+      while (bytes.hasRemaining()) {
+        logSize += log.write(bytes);
+      }
+    } catch (IOException exc) {
+      try {
+        log.truncate(start);
+        logSize = start;
+      } catch (IOException truncateExc) {
+        exc.addSuppressed(truncateExc);
+      }
+      throw exc;
+    }
+    unsynced++;
+    if (syncEvery > 0 && unsynced >= syncEvery) {
+      sync();
+    }
+    if (logSize >= compactThreshold && !compacting) {
+      background.execute(this::compactQuietly);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Fold the log into a new snapshot. The current log is set aside & a new one started while holding the lock, so appends
+    only wait for a file rename. The snapshot itself is written afterwards, and the old log is deleted once it's in place.
+    Does nothing if a compaction is already running. If the log can't be set aside, the journal carries on appending to it.
+    If the snapshot can't be written, the set-aside log is left for recovery and the next compaction writes a full snapshot */
+
+  public void compact() throws IOException {
+
+    List<String> snapshotLines;
+    long snapshotGeneration;
+
+    synchronized (this) {
+      if (compacting) {
+        return;
+      }
+      if (snapshotPending) {
+        writeFullSnapshot();
+        snapshotPending = false;
+        return;
+      }
+      compacting = true;
+      try {
+        setAsideLog();
+      } catch (IOException | RuntimeException exc) {
+        compacting = false;
+        throw exc;
+      }
+      snapshotLines = renumber();
+      snapshotGeneration = generation;
+    }
+
+    boolean written = false;
+    try {
+      synchronized (snapshotLock) {
+        // If replaceAll ran in the meantime its snapshot is newer than this one, and it has already removed the old log
+        if (generation == snapshotGeneration) {
+          writeSnapshot(snapshotLines, snapshotGeneration);
+          Files.deleteIfExists(dir.resolve(COMPACTING));
+        }
+      }
+      written = true;
+    } finally {
+      synchronized (this) {
+        compacting = false;
+        snapshotPending = !written && generation == snapshotGeneration;
+      }
+    }
+  }
+
+
+  /* Move the log aside & start a new one for the next generation. If that fails the old log is put back & reopened, so the
+    journal keeps working & a later compaction can try again */
+
+  private void setAsideLog() throws IOException {
+
+    sync();
+    FileChannel oldLog = log;
+    try {
+      oldLog.close();
+      Files.move(dir.resolve(LOG), dir.resolve(COMPACTING), StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException exc) {
+      reopenLog(exc);
+      throw exc;
+    }
+
+    generation++;
+    try {
+      log = null;
+      startLog();
+    } catch (IOException exc) {
+      generation--;
+      if (log != null) {
+        try {
+          log.close();
+        } catch (IOException closeExc) {
+          exc.addSuppressed(closeExc);
+        }
+      }
+      log = oldLog;
+      try {
+        Files.move(dir.resolve(COMPACTING), dir.resolve(LOG), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        reopenLog(exc);
+      } catch (IOException moveExc) {
+        exc.addSuppressed(moveExc);
+      }
+      throw exc;
+    }
+  }
+
+  // Reopen the log to carry on appending to it after it was closed. If it can't be, the closed log is kept & appends fail
+  private void reopenLog(IOException cause) {
+    try {
+      FileChannel reopened = openLog();
+      logSize = reopened.size();
+      log = reopened;
+    } catch (IOException exc) {
+      cause.addSuppressed(exc);
+    }
+  }
+
+
+  /* Write everything in the journal as the snapshot of a new generation & start a new log, as replaceAll does. Used when a
+    compaction's snapshot couldn't be written, since the log can't be set aside again while the earlier one is still there.
+    Nothing changes in memory until the snapshot is in place */
+
+  private void writeFullSnapshot() throws IOException {
+    long newGeneration = generation + 1;
+    synchronized (snapshotLock) {
+      writeSnapshot(new ArrayList<>(lines.values()), newGeneration);
+      Files.deleteIfExists(dir.resolve(COMPACTING));
+    }
+    renumber();
+    generation = newGeneration;
+    startLog();
+    unsynced = 0;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Give every Todo a new id, 0..n-1 in its current order, returning the lines for the matching snapshot
+
+  private List<String> renumber() {
+    LinkedHashMap<Long, String> renumbered = new LinkedHashMap<>();
+    Map<Long, Long> newIds = new LinkedHashMap<>();
+    long id = 0;
+    for (Map.Entry<Long, String> entry : lines.entrySet()) {
+      newIds.put(entry.getKey(), id);
+      renumbered.put(id++, entry.getValue());
+    }
+    ids.replaceAll((todo, oldId) -> newIds.get(oldId));
+    lines = renumbered;
+    nextId = id;
+    return new ArrayList<>(renumbered.values());
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Write the snapshot to a temporary file then move it over the old snapshot, so there is always a complete snapshot on disk
+
+  private void writeSnapshot(List<String> snapshotLines, long snapshotGeneration) throws IOException {
+    Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+    try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+      out.write(SNAPSHOT_HEADER + snapshotGeneration + "\n");
+      for (String line : snapshotLines) {
+        out.write(line);
+        out.write('\n');
+      }
+    }
+    try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+      channel.force(true);
+    }
+    Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Rebuild the state from disk. If a compaction was interrupted before its snapshot was in place, the set-aside log still
+    belongs to the old snapshot, so it is replayed first and the Todos renumbered exactly as the compaction did, before the
+    current log is replayed on top. Logs whose generation isn't the snapshot's have already been folded into it & are skipped */
+
+  private void recover() throws IOException {
+
+    Files.createDirectories(dir);
+
+    long snapshotGeneration = readSnapshot(dir.resolve(SNAPSHOT));
+
+    Path interrupted = dir.resolve(COMPACTING);
+    if (Files.exists(interrupted)) {
+      if (replay(interrupted, snapshotGeneration) == snapshotGeneration) {
+        snapshotGeneration++;
+        writeSnapshot(renumber(), snapshotGeneration);
+      }
+      Files.delete(interrupted);
+    }
+
+    long logGeneration = replay(dir.resolve(LOG), snapshotGeneration);
+
+    TodoCodec codec = new TodoCodec();
+    for (Map.Entry<Long, String> entry : lines.entrySet()) {
+      byte[] line = entry.getValue().getBytes(StandardCharsets.UTF_8);
+      Todo todo = TodoFileReader.parseLine(codec, line, 0, line.length);
+      ids.put(todo, entry.getKey());
+      todos.add(todo);
+    }
+
+    generation = snapshotGeneration;
+    log = openLog();
+    logSize = log.size();
+    if (logGeneration != snapshotGeneration) {
+      startLog();
+    }
+  }
+
+
+  // Read the Todos in the snapshot (if there is one), returning its generation. A snapshot without a generation is generation 0
+  private long readSnapshot(Path snapshot) throws IOException {
+
+    if (!Files.exists(snapshot)) {
+      return 0;
+    }
+
+    long snapshotGeneration = 0;
+    byte[] content = Files.readAllBytes(snapshot);
+    TodoCodec codec = new TodoCodec();
+    int start = 0;
+    for (int i = 0; i <= content.length; i++) {
+      if (i < content.length && content[i] != '\n') {
+        continue;
+      }
+      if (i > start && content[start] == '#') {
+        String comment = new String(content, start, i - start, StandardCharsets.UTF_8);
+        if (comment.startsWith(SNAPSHOT_HEADER)) {
+          snapshotGeneration = Long.parseLong(comment.substring(SNAPSHOT_HEADER.length()).trim());
+        }
+      } else {
+        Todo todo = TodoFileReader.parseLine(codec, content, start, i);
+        if (todo != null) {
+          lines.put(nextId++, Menu.todoToLine(todo));
+        }
+      }
+      start = i + 1;
+    }
+    return snapshotGeneration;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Apply every complete record in a log file, if the log is of the given generation. A torn record at the end (from a crash
+    mid-write) is ignored. Returns the log's generation (0 if it has no header), or -1 if there's no log */
+
+  private long replay(Path logFile, long snapshotGeneration) throws IOException {
+
+    if (!Files.exists(logFile)) {
+      return -1;
+    }
+
+    String content = new String(Files.readAllBytes(logFile), StandardCharsets.UTF_8);
+    int start = 0;
+    int end;
+
+    long logGeneration = 0;
+    if (content.startsWith(LOG_HEADER) && (end = content.indexOf('\n')) >= 0) {
+      logGeneration = Long.parseLong(content.substring(LOG_HEADER.length(), end));
+      start = end + 1;
+    }
+    if (logGeneration != snapshotGeneration) {
+      if (start < content.length()) {
+        System.out.println("Skipping " + logFile.getFileName() + ", whose changes are already in the snapshot");
+      }
+      return logGeneration;
+    }
+
+    while ((end = content.indexOf('\n', start)) >= 0) {
+      String record = content.substring(start, end);
+      start = end + 1;
+      int idEnd = record.indexOf(',', 2);
+      try {
+        long id = Long.parseLong(idEnd < 0 ? record.substring(2) : record.substring(2, idEnd));
+        switch (record.charAt(0)) {
+          case 'C':
+          case 'U':
+            lines.put(id, record.substring(idEnd + 1));
+            break;
+          case 'D':
+            lines.remove(id);
+            break;
+        }
+        nextId = Math.max(nextId, id + 1);
+      } catch (RuntimeException exc) {
+        System.out.println("Skipping unreadable journal record: " + record);
+      }
+    }
+    return logGeneration;
+  }
+
+
+  // Empty the log (opening it if it's closed) & start it with the current generation, forced to disk before any record is added
+  private void startLog() throws IOException {
+    if (log == null) {
+      log = openLog();
+    }
+    log.truncate(0);
+    ByteBuffer header = ByteBuffer.wrap((LOG_HEADER + generation + "\n").getBytes(StandardCharsets.UTF_8));
+    logSize = 0;
+    while (header.hasRemaining()) {
+      logSize += log.write(header);
+    }
+    log.force(true);
+  }
+
+
+  private FileChannel openLog() throws IOException {
+    return FileChannel.open(dir.resolve(LOG), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+
+  private void syncQuietly() {
+    try {
+      sync();
+    } catch (IOException exc) {
+      System.out.println("Syncing the journal failed: " + exc.getMessage());
+    }
+  }
+
+
+  private void compactQuietly() {
+    try {
+      compact();
+    } catch (IOException exc) {
+      System.out.println("Compacting the journal failed: " + exc.getMessage());
+    }
+  }
+
+}
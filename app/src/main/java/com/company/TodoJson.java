@@ -0,0 +1,214 @@
+package com.company;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/* Methods to write Todos as JSON and to read the flat JSON objects clients send to the server, e.g.
+
+    {"id":12,"title":"Task 1","due":"2021-05-04T03:00","cat":"red","importance":"high","status":"started"}
+
+  Only what the server needs is supported: objects whose values are strings, numbers, true, false or null (no nested objects
+  or arrays). Values are returned as text, with strings unescaped, and the names of the values which weren't strings can be
+  collected so that e.g. null isn't taken for the title "null" */
+public class TodoJson {
+
+  // A number, true, false or null
+  private static final Pattern LITERAL = Pattern.compile("-?[0-9][0-9.eE+-]*|true|false|null");
+
+  private TodoJson() {
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to append a Todo, with its id, to the output as a JSON object
+
+  public static StringBuilder write(StringBuilder out, long id, Todo todo) {
+    out.append("{\"id\":").append(id).append(",\"title\":");
+    writeString(out, todo.getText());
+    out.append(",\"due\":\"").append(todo.getDue())
+        .append("\",\"cat\":\"").append(todo.getCat().name())
+        .append("\",\"importance\":\"").append(todo.getImportance().name())
+        .append("\",\"status\":\"").append(todo.getCompletion().name())
+        .append("\"}");
+    return out;
+  }
+
+
+  public static StringBuilder writeString(StringBuilder out, String text) {
+    out.append('"');
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+      }
+    }
+    return out.append('"');
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to read a flat JSON object into a map of its names to its values. Throws IllegalArgumentException if it isn't one
+
+  public static Map<String, String> parseObject(String json) {
+    return parseObject(json, new HashSet<>());
+  }
+
+
+  // As above, also adding the names of the values which aren't strings (numbers, true, false & null) to nonStrings
+
+  public static Map<String, String> parseObject(String json, Set<String> nonStrings) {
+
+    Parser parser = new Parser(json);
+    Map<String, String> fields = new LinkedHashMap<>();
+
+    parser.expect('{');
+    if (!parser.skipIf('}')) {
+      do {
+        String name = parser.string();
+        parser.expect(':');
+        fields.put(name, parser.value());
+        if (parser.lastWasString) {
+          nonStrings.remove(name);
+        } else {
+          nonStrings.add(name);
+        }
+      } while (parser.skipIf(','));
+      parser.expect('}');
+    }
+    if (!parser.atEnd()) {
+      throw new IllegalArgumentException("Unexpected text after the object at character " + parser.at);
+    }
+    return fields;
+  }
+
+
+  private static class Parser {
+
+    private final String json;
+    private int at;
+    // Whether the last value read by value() was a string
+    private boolean lastWasString;
+
+    Parser(String json) {
+      this.json = json;
+    }
+
+    void skipSpace() {
+      while (at < json.length() && Character.isWhitespace(json.charAt(at))) {
+        at++;
+      }
+    }
+
+    boolean atEnd() {
+      skipSpace();
+      return at == json.length();
+    }
+
+    boolean skipIf(char c) {
+      skipSpace();
+      if (at < json.length() && json.charAt(at) == c) {
+        at++;
+        return true;
+      }
+      return false;
+    }
+
+    void expect(char c) {
+      if (!skipIf(c)) {
+        throw new IllegalArgumentException("Expected '" + c + "' at character " + at);
+      }
+    }
+
+    // A string, number, true, false or null, as text
+    String value() {
+      skipSpace();
+      lastWasString = at < json.length() && json.charAt(at) == '"';
+      if (lastWasString) {
+        return string();
+      }
+      int start = at;
+      while (at < json.length() && ",}".indexOf(json.charAt(at)) < 0 && !Character.isWhitespace(json.charAt(at))) {
+        at++;
+      }
+      String literal = json.substring(start, at);
+      if (!LITERAL.matcher(literal).matches()) {
+        throw new IllegalArgumentException("Expected a value at character " + start);
+      }
+      return literal;
+    }
+
+    String string() {
+      expect('"');
+      StringBuilder text = new StringBuilder();
+      while (true) {
+        if (at >= json.length()) {
+          throw new IllegalArgumentException("Unterminated string");
+        }
+        char c = json.charAt(at++);
+        if (c == '"') {
+          return text.toString();
+        } else if (c != '\\') {
+          text.append(c);
+        } else if (at >= json.length()) {
+          throw new IllegalArgumentException("Unterminated string");
+        } else {
+          char escaped = json.charAt(at++);
+          switch (escaped) {
+            case 'b':
+              text.append('\b');
+              break;
+            case 'f':
+              text.append('\f');
+              break;
+            case 'n':
+              text.append('\n');
+              break;
+            case 'r':
+              text.append('\r');
+              break;
+            case 't':
+              text.append('\t');
+              break;
+            case 'u':
+              if (at + 4 > json.length()) {
+                throw new IllegalArgumentException("Bad \\u escape at character " + at);
+              }
+              try {
+                text.append((char) Integer.parseInt(json.substring(at, at + 4), 16));
+              } catch (NumberFormatException exc) {
+                throw new IllegalArgumentException("Bad \\u escape at character " + at);
+              }
+              at += 4;
+              break;
+            default:
+              text.append(escaped);
+          }
+        }
+      }
+    }
+  }
+
+}
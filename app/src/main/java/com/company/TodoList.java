@@ -0,0 +1,212 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/* ArrayList of Todos which tells its listeners whenever a Todo is added or removed, or one of the setters of a Todo in it is
+  called. This lets indexes & views of the list be kept up to date as the list changes, rather than being rebuilt. It is
+  still an ArrayList, so it can be passed to everything which takes the Todos as an ArrayList (e.g. the Menu methods) */
+public class TodoList extends ArrayList<Todo> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final List<TodoListener> listeners = new CopyOnWriteArrayList<>();
+
+
+  public TodoList() {
+    super();
+  }
+
+  public TodoList(Collection<Todo> todos) {
+    super(todos);
+    forEach(todo -> todo.setOwner(this));
+  }
+
+
+  public void addListener(TodoListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(TodoListener listener) {
+    listeners.remove(listener);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Called by a Todo in this list when one of its setters is called
+
+  void todoChanged(Todo todo, TodoField field, Object oldValue) {
+    for (TodoListener listener : listeners) {
+      listener.todoChanged(todo, field, oldValue);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Put the Todos in the list into a new order, e.g. after TodoSorter has sorted them. The same Todos are still in the list,
+    so listeners aren't told about it, just as they aren't when the list is sorted with sort(Comparator) */
+
+  void reorder(Todo[] todos) {
+    if (todos.length != size()) {
+      throw new IllegalArgumentException("Reordering needs all " + size() + " todos, not " + todos.length);
+    }
+    for (int i = 0; i < todos.length; i++) {
+      super.set(i, todos[i]);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // ArrayList methods which add Todos
+
+  @Override
+  public boolean add(Todo todo) {
+    super.add(todo);
+    added(todo);
+    return true;
+  }
+
+  @Override
+  public void add(int index, Todo todo) {
+    super.add(index, todo);
+    added(todo);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Todo> todos) {
+    List<Todo> toAdd = Arrays.asList(todos.toArray(new Todo[0]));
+    boolean changed = super.addAll(toAdd);
+    added(toAdd);
+    return changed;
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends Todo> todos) {
+    List<Todo> toAdd = Arrays.asList(todos.toArray(new Todo[0]));
+    boolean changed = super.addAll(index, toAdd);
+    added(toAdd);
+    return changed;
+  }
+
+  @Override
+  public Todo set(int index, Todo todo) {
+    Todo replaced = super.set(index, todo);
+    if (replaced != todo) {
+      removed(replaced);
+      added(todo);
+    }
+    return replaced;
+  }
+
+  @Override
+  public void replaceAll(UnaryOperator<Todo> operator) {
+    for (int i = 0; i < size(); i++) {
+      set(i, operator.apply(get(i)));
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // ArrayList methods which remove Todos
+
+  @Override
+  public Todo remove(int index) {
+    Todo removed = super.remove(index);
+    removed(removed);
+    return removed;
+  }
+
+  @Override
+  public boolean remove(Object todo) {
+    int index = indexOf(todo);
+    if (index < 0) {
+      return false;
+    }
+    remove(index);
+    return true;
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super Todo> filter) {
+    List<Todo> gone = new ArrayList<>();
+    boolean changed = super.removeIf(todo -> {
+      if (filter.test(todo)) {
+        gone.add(todo);
+        return true;
+      }
+      return false;
+    });
+    removed(gone);
+    return changed;
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> todos) {
+    return removeIf(todos::contains);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> todos) {
+    return removeIf(todo -> !todos.contains(todo));
+  }
+
+  @Override
+  protected void removeRange(int fromIndex, int toIndex) {
+    List<Todo> removed = Arrays.asList(subList(fromIndex, toIndex).toArray(new Todo[0]));
+    super.removeRange(fromIndex, toIndex);
+    removed(removed);
+  }
+
+  @Override
+  public void clear() {
+    List<Todo> removed = Arrays.asList(toArray(new Todo[0]));
+    super.clear();
+    removed(removed);
+  }
+
+
+  private void added(Todo todo) {
+    todo.setOwner(this);
+    for (TodoListener listener : listeners) {
+      listener.todoAdded(todo);
+    }
+  }
+
+  private void removed(Todo todo) {
+    if (todo.getOwner() == this) {
+      todo.setOwner(null);
+    }
+    for (TodoListener listener : listeners) {
+      listener.todoRemoved(todo);
+    }
+  }
+
+  // Tell listeners about many added or removed Todos with one call each, so they can e.g. rebuild rather than update one by one
+  private void added(List<Todo> todos) {
+    todos.forEach(todo -> todo.setOwner(this));
+    if (!todos.isEmpty()) {
+      for (TodoListener listener : listeners) {
+        listener.todosAdded(todos);
+      }
+    }
+  }
+
+  private void removed(List<Todo> todos) {
+    for (Todo todo : todos) {
+      if (todo.getOwner() == this) {
+        todo.setOwner(null);
+      }
+    }
+    if (!todos.isEmpty()) {
+      for (TodoListener listener : listeners) {
+        listener.todosRemoved(todos);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+package com.company;
+
+import javax.swing.AbstractListModel;
+import java.util.List;
+
+/* ListModel for the GUI's JList, backed directly by a SortedView rather than a copy of the Todos. The JList only asks for the
+  rows it is painting, and the model passes on exactly which rows were added, removed or changed, so after an edit the JList
+  repaints a row or two instead of the whole list being rebuilt. Switching to another sort order just points the model at
+  another view. The model can also show the results of a search instead of the view, until it's told to show the view again */
+public class TodoListModel extends AbstractListModel<Todo> implements ViewListener {
+
+  private static final long serialVersionUID = 1L;
+
+  private SortedView view;
+  // The search results being shown instead of the view, or null if the view is being shown
+  private List<Todo> matches;
+
+
+  public TodoListModel(SortedView view) {
+    this.view = view;
+    view.addListener(this);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Show the rows of another view. The JList is told every row was replaced, which also clears its selection
+
+  public void setView(SortedView newView) {
+    int oldSize = getSize();
+    view.removeListener(this);
+    view = newView;
+    view.addListener(this);
+    reset(oldSize);
+  }
+
+  public SortedView getView() {
+    return view;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Show the given search results instead of the view, or the view again if matches is null. The results aren't kept up to
+    date as the Todos change, so while they're shown, the view's events are ignored & the search should be run again instead */
+
+  public void showMatches(List<Todo> newMatches) {
+    int oldSize = getSize();
+    matches = newMatches;
+    reset(oldSize);
+  }
+
+  public boolean isShowingMatches() {
+    return matches != null;
+  }
+
+
+  public int getSize() {
+    return matches != null ? matches.size() : view.size();
+  }
+
+  public Todo getElementAt(int index) {
+    return matches != null ? matches.get(index) : view.get(index);
+  }
+
+  // The row showing the given Todo, or -1 if it isn't shown
+  public int indexOf(Todo todo) {
+    if (matches == null) {
+      return view.indexOf(todo);
+    }
+    for (int i = 0; i < matches.size(); i++) {
+      if (matches.get(i) == todo) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods called by the view, passed on to the JList as the matching ListDataEvents
+
+  public void rowAdded(int index) {
+    if (matches == null) {
+      fireIntervalAdded(this, index, index);
+    }
+  }
+
+  public void rowRemoved(int index) {
+    if (matches == null) {
+      fireIntervalRemoved(this, index, index);
+    }
+  }
+
+  public void rowChanged(int index) {
+    if (matches == null) {
+      fireContentsChanged(this, index, index);
+    }
+  }
+
+  public void rowsReset(int oldSize) {
+    if (matches == null) {
+      reset(oldSize);
+    }
+  }
+
+
+  // Tell the JList every row was replaced
+  private void reset(int oldSize) {
+    if (oldSize > 0) {
+      fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+    if (getSize() > 0) {
+      fireIntervalAdded(this, 0, getSize() - 1);
+    }
+  }
+
+}
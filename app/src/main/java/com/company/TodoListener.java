@@ -0,0 +1,32 @@
+package com.company;
+
+import java.util.List;
+
+/* Interface for anything which needs to keep up to date with the Todos in a TodoList (e.g. indexes & sorted views).
+  Every method does nothing by default (the methods for many Todos pass each one to the method for a single Todo), so
+  listeners only need to implement the ones they care about */
+public interface TodoListener {
+
+  // Called after a Todo is added to the list
+  default void todoAdded(Todo todo) {
+  }
+
+  // Called after a Todo is removed from the list
+  default void todoRemoved(Todo todo) {
+  }
+
+  // Called after several Todos are added to the list at once (e.g. by addAll), so listeners can handle them in one go
+  default void todosAdded(List<Todo> todos) {
+    todos.forEach(this::todoAdded);
+  }
+
+  // Called after several Todos are removed from the list at once (e.g. by clear)
+  default void todosRemoved(List<Todo> todos) {
+    todos.forEach(this::todoRemoved);
+  }
+
+  // Called after one of the setters of a Todo in the list is called, with the value the property had before
+  default void todoChanged(Todo todo, TodoField field, Object oldValue) {
+  }
+
+}
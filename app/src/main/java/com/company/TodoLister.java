@@ -0,0 +1,106 @@
+package com.company;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.function.Function;
+
+/* Writes numbered listings of Todos through one buffered writer, a page at a time. Nothing is flushed until a page is
+  finished, so listing thousands of Todos costs a few large writes instead of a flush per Todo. Todos can be listed in full
+  (the same text as Todo.toString) or compactly, one line per Todo, which is quick to scroll through or pipe to a file */
+public class TodoLister {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final PrintWriter out;
+  private final Function<Todo, String> fullText;
+  // Reused to build each compact line, so compact listings don't allocate a builder per Todo
+  private final StringBuilder line = new StringBuilder(96);
+  private boolean compact;
+
+
+  public TodoLister(OutputStream out, Function<Todo, String> fullText) {
+    this.out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, Charset.defaultCharset()), BUFFER_SIZE), false);
+    this.fullText = fullText;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to choose between listing each Todo in full or on one line
+
+  public void setCompact(boolean compact) {
+    this.compact = compact;
+  }
+
+
+  public boolean isCompact() {
+    return compact;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to write up to pageSize Todos, starting at offset, numbered from offset + 1, then flush. A pageSize of 0 or less writes every Todo from offset
+    to the end. Returns the offset of the next page, which is todos.size() once the last page has been written */
+
+  public int listPage(List<Todo> todos, int offset, int pageSize) {
+
+    int end = pageSize > 0 ? (int) Math.min(todos.size(), (long) offset + pageSize) : todos.size();
+
+    // Counting as we go, instead of looking each Todo up with indexOf, keeps a listing linear in the number of Todos
+    for (int i = Math.max(offset, 0); i < end; i++) {
+      list(i + 1, todos.get(i));
+    }
+    out.flush();
+
+    return end;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to write every Todo in the list, in one go
+
+  public void listAll(List<Todo> todos) {
+    listPage(todos, 0, 0);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to write one Todo with the given number. Nothing is written out until flush is called
+
+  public void list(int number, Todo todo) {
+    if (compact) {
+      writeLine(number, todo);
+    } else {
+      out.print('\n');
+      out.print(number);
+      out.print(": ");
+      out.print(fullText.apply(todo));
+      out.print('\n');
+    }
+  }
+
+
+  public void flush() {
+    out.flush();
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to write a Todo on one line, e.g. 12: Task 1 | 2021-05-04T03:00 | red | high | started
+
+  private void writeLine(int number, Todo todo) {
+
+    line.setLength(0);
+    line.append(number).append(": ").append(todo.getText())
+        .append(" | ").append(todo.getDue())
+        .append(" | ").append(todo.getCat().name())
+        .append(" | ").append(todo.getImportance().name())
+        .append(" | ").append(todo.getCompletion().name())
+        .append('\n');
+    out.append(line);
+  }
+
+}
@@ -0,0 +1,213 @@
+package com.company;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Counts & times the operations done on the todos (loading, saving, sorting, creating, updating & deleting), for the CLI's
+  stats option & JMX. Timing an operation is two calls:
+
+    long started = TodoMetrics.start();
+    ...
+    TodoMetrics.record(TodoOperation.save, started);
+
+  Recording only adds to LongAdders, which never block & barely contend however many threads record at once, so it costs a
+  few tens of nanoseconds, against operations taking microseconds at least. Latencies go in a histogram with 4 buckets for
+  each power of two nanoseconds (so each bucket is at most 25% wider than its bottom), which covers any duration in 256
+  buckets without storing the individual times */
+public class TodoMetrics {
+
+  private static final String OBJECT_NAME = "com.company:type=TodoMetrics";
+  // Each power of two is split into 2^SUB_BUCKET_BITS buckets
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+  // The histogram & totals of one operation. The number of times it ran is the sum of the buckets
+  private static class Recorder {
+
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    Recorder() {
+      for (int i = 0; i < BUCKETS; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+  }
+
+  private static final Recorder[] recorders = new Recorder[TodoOperation.values().length];
+
+  static {
+    for (int i = 0; i < recorders.length; i++) {
+      recorders[i] = new Recorder();
+    }
+  }
+
+  private TodoMetrics() {
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods to time an operation: start() before it, then record() once it's done or failed() if it threw
+
+  public static long start() {
+    return System.nanoTime();
+  }
+
+  public static void record(TodoOperation operation, long started) {
+    long nanos = Math.max(0, System.nanoTime() - started);
+    Recorder recorder = recorders[operation.ordinal()];
+    recorder.totalNanos.add(nanos);
+    recorder.maxNanos.accumulate(nanos);
+    recorder.buckets[bucketOf(nanos)].increment();
+  }
+
+  public static void failed(TodoOperation operation, long started) {
+    recorders[operation.ordinal()].errors.increment();
+    record(operation, started);
+  }
+
+
+  // The bucket for a duration: its power of two, then the next SUB_BUCKET_BITS bits below the top bit
+  private static int bucketOf(long nanos) {
+    int topBit = 63 - Long.numberOfLeadingZeros(nanos | 1);
+    if (topBit < SUB_BUCKET_BITS) {
+      return (int) nanos;
+    }
+    int subBucket = (int) (nanos >>> (topBit - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+    return ((topBit - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+  }
+
+  // The longest duration which goes in a bucket
+  private static long bucketTop(int bucket) {
+    if (bucket < (1 << SUB_BUCKET_BITS)) {
+      return bucket;
+    }
+    int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+    long bottom = ((long) ((1 << SUB_BUCKET_BITS) | (bucket & ((1 << SUB_BUCKET_BITS) - 1)))) << shift;
+    return bottom + (1L << shift) - 1;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to read the stats of an operation. Reads aren't atomic, so an operation recorded meanwhile may be half counted
+
+  public static OperationStats stats(TodoOperation operation) {
+
+    Recorder recorder = recorders[operation.ordinal()];
+    long[] histogram = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      histogram[i] = recorder.buckets[i].sum();
+      count += histogram[i];
+    }
+    long max = recorder.maxNanos.get();
+
+    return new OperationStats(operation.name(), count, recorder.errors.sum(),
+        count > 0 ? recorder.totalNanos.sum() / (count * 1000.0) : 0,
+        percentile(histogram, count, max, 0.5), percentile(histogram, count, max, 0.9), percentile(histogram, count, max, 0.99),
+        max / 1000.0);
+  }
+
+  private static double percentile(long[] histogram, long count, long max, double fraction) {
+    long rank = (long) Math.ceil(fraction * count);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS && count > 0; i++) {
+      seen += histogram[i];
+      if (seen >= rank) {
+        return Math.min(bucketTop(i), max) / 1000.0;
+      }
+    }
+    return 0;
+  }
+
+
+  public static void reset() {
+    for (Recorder recorder : recorders) {
+      recorder.errors.reset();
+      recorder.totalNanos.reset();
+      recorder.maxNanos.reset();
+      for (LongAdder bucket : recorder.buckets) {
+        bucket.reset();
+      }
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to format the stats of every operation as a table, one line per operation
+
+  public static String report() {
+
+    StringBuilder report = new StringBuilder(String.format("%-8s %10s %7s %10s %10s %10s %10s %10s%n", "", "count", "errors", "mean", "p50", "p90", "p99", "max"));
+    for (TodoOperation operation : TodoOperation.values()) {
+      OperationStats stats = stats(operation);
+      report.append(String.format("%-8s %,10d %,7d %10s %10s %10s %10s %10s%n", operation.name(), stats.getCount(), stats.getErrors(),
+          duration(stats.getMeanMicros()), duration(stats.getP50Micros()), duration(stats.getP90Micros()), duration(stats.getP99Micros()),
+          duration(stats.getMaxMicros())));
+    }
+    return report.toString();
+  }
+
+  private static String duration(double micros) {
+    if (micros >= 1_000_000) {
+      return String.format("%.2fs", micros / 1_000_000);
+    } else if (micros >= 1000) {
+      return String.format("%.2fms", micros / 1000);
+    }
+    return String.format("%.1fus", micros);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Method to register the stats with the platform MBean server, for JMX clients. Does nothing if they're already registered
+
+  public static void registerMBean() {
+
+    try {
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+      }
+    } catch (JMException exc) {
+      System.out.println("Registering the metrics with JMX failed");
+    }
+  }
+
+
+  private static class Bean implements TodoMetricsMXBean {
+
+    public OperationStats getLoad() {
+      return stats(TodoOperation.load);
+    }
+
+    public OperationStats getSave() {
+      return stats(TodoOperation.save);
+    }
+
+    public OperationStats getSort() {
+      return stats(TodoOperation.sort);
+    }
+
+    public OperationStats getCreate() {
+      return stats(TodoOperation.create);
+    }
+
+    public OperationStats getUpdate() {
+      return stats(TodoOperation.update);
+    }
+
+    public OperationStats getDelete() {
+      return stats(TodoOperation.delete);
+    }
+
+    public void reset() {
+      TodoMetrics.reset();
+    }
+  }
+
+}
@@ -0,0 +1,22 @@
+package com.company;
+
+/* Management interface for TodoMetrics, registered with the platform MBean server as com.company:type=TodoMetrics so the
+  counts & latencies can be watched in JConsole or VisualVM. Each attribute is the stats of one operation */
+public interface TodoMetricsMXBean {
+
+  OperationStats getLoad();
+
+  OperationStats getSave();
+
+  OperationStats getSort();
+
+  OperationStats getCreate();
+
+  OperationStats getUpdate();
+
+  OperationStats getDelete();
+
+  // Start counting again from zero
+  void reset();
+
+}
@@ -0,0 +1,6 @@
+package com.company;
+
+// Enum for the operations TodoMetrics counts & times
+public enum TodoOperation {
+  load, save, sort, create, update, delete
+}
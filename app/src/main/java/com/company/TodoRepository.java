@@ -0,0 +1,493 @@
+package com.company;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/* Store of Todos which many threads can read & change at once (e.g. an import, a background save and several front ends
+  sharing the same todos). Each Todo is given an id when it's added, and the ids are spread over stripes, each with its own
+  lock, so threads changing different Todos rarely wait for each other. Reads don't lock at all unless a write to the same
+  stripe happens while they're reading.
+
+  The Todos held by the repository are never changed once stored: an update stores a changed copy in place of the old one.
+  So a reader can never see a half-updated Todo, and a snapshot only has to copy references. Todos going in and out of the
+  repository are copied, so changing a Todo passed to add or returned by get doesn't change the repository */
+public class TodoRepository {
+
+  private static final int MIN_STRIPES = 16;
+
+  private final Stripe[] stripes;
+  private final AtomicLong nextId = new AtomicLong(1);
+  // Snapshots returned by view, by SortOrder ordinal (the last is in the order the Todos were added), kept until a Todo changes
+  private final AtomicReferenceArray<Snapshot> views = new AtomicReferenceArray<>(SortOrder.values().length + 1);
+  private final Object[] viewLocks = new Object[SortOrder.values().length + 1];
+
+
+  public TodoRepository() {
+    this(Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  // The number of stripes is rounded up to a power of two
+  public TodoRepository(int stripeCount) {
+    int count = Integer.highestOneBit(Math.max(MIN_STRIPES, stripeCount) - 1) << 1;
+    stripes = new Stripe[count];
+    for (int i = 0; i < count; i++) {
+      stripes[i] = new Stripe();
+    }
+    Arrays.setAll(viewLocks, i -> new Object());
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Add a copy of the Todo, returning its id
+
+  public long add(Todo todo) {
+    long id = nextId.getAndIncrement();
+    long hash = hash(id);
+    stripeFor(hash).put(id, hash, copy(todo));
+    return id;
+  }
+
+  public void addAll(Collection<Todo> todos) {
+    todos.forEach(this::add);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // A copy of the Todo with the given id, or null if there isn't one
+
+  public Todo get(long id) {
+    long hash = hash(id);
+    Todo stored = stripeFor(hash).get(id, hash);
+    return stored != null ? copy(stored) : null;
+  }
+
+  public boolean contains(long id) {
+    long hash = hash(id);
+    return stripeFor(hash).get(id, hash) != null;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Change the Todo with the given id, e.g. repository.update(id, todo -> todo.setCompletion(Status.completed)). The change is
+    made to a copy without holding a lock, and the copy is stored if nothing else changed the Todo meanwhile, otherwise the
+    change is made again to a copy of the newer Todo. So change may be called more than once, and shouldn't do anything but
+    change the Todo. Returns a copy of the changed Todo, or null if there's no Todo with the given id */
+
+  public Todo update(long id, Consumer<Todo> change) {
+    long hash = hash(id);
+    Stripe stripe = stripeFor(hash);
+    while (true) {
+      Todo current = stripe.get(id, hash);
+      if (current == null) {
+        return null;
+      }
+      Todo changed = copy(current);
+      change.accept(changed);
+      if (stripe.replace(id, hash, current, changed)) {
+        return copy(changed);
+      }
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Replace the Todo with the given id with a copy of the given one. Returns false if there's no Todo with the given id
+
+  public boolean replace(long id, Todo todo) {
+    long hash = hash(id);
+    return stripeFor(hash).replace(id, hash, null, copy(todo));
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Remove the Todo with the given id, returning a copy of it, or null if there wasn't one
+
+  public Todo remove(long id) {
+    long hash = hash(id);
+    Todo removed = stripeFor(hash).remove(id, hash);
+    return removed != null ? copy(removed) : null;
+  }
+
+
+  // How many Todos there are. Only exact while nothing is being added or removed
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.size;
+    }
+    return size;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Every Todo as it was at one moment, in the order they were added. Every stripe is read locked at once while their Todos
+    are listed, so no change made while the snapshot is taken is half in it. Writers only wait for the listing (a copy of
+    references, not of Todos), and once it's taken, iterating over the snapshot doesn't hold anything up */
+
+  public Snapshot snapshot() {
+
+    long[] stamps = new long[stripes.length];
+    long[] ids;
+    Todo[] todos;
+    long version = 0;
+    // Writers only ever lock one stripe, so taking every stripe's read lock in order can't deadlock
+    for (int i = 0; i < stripes.length; i++) {
+      stamps[i] = stripes[i].lock.readLock();
+    }
+    try {
+      int size = 0;
+      for (Stripe stripe : stripes) {
+        size += stripe.size;
+        version += stripe.version;
+      }
+      ids = new long[size];
+      todos = new Todo[size];
+      int count = 0;
+      for (Stripe stripe : stripes) {
+        count = stripe.copyTo(ids, todos, count);
+      }
+    } finally {
+      for (int i = 0; i < stripes.length; i++) {
+        stripes[i].lock.unlockRead(stamps[i]);
+      }
+    }
+
+    inIdOrder(ids, todos);
+    return new Snapshot(ids, todos, version);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* A snapshot in the given order (or in the order the Todos were added, if order is null), shared by every caller until a
+    Todo is added, changed or removed. So repeated listings (e.g. the server's GET /todos) only copy & sort the Todos once per
+    change rather than once per request. Only one thread at a time builds each order's snapshot, and the others wait for it */
+
+  public Snapshot view(SortOrder order) {
+
+    int slot = order != null ? order.ordinal() : viewLocks.length - 1;
+    Snapshot view = views.get(slot);
+    if (view != null && view.version == version()) {
+      return view;
+    }
+
+    synchronized (viewLocks[slot]) {
+      view = views.get(slot);
+      if (view == null || view.version != version()) {
+        view = order != null ? view(null).sortedBy(order) : snapshot();
+        views.set(slot, view);
+      }
+      return view;
+    }
+  }
+
+
+  /* Count of the changes made to the repository. Each stripe counts its own changes, so writers to different stripes don't
+    contend on one counter. Counts only go up, so the total is only the same as a snapshot's if nothing has changed since */
+  private long version() {
+    long version = 0;
+    for (Stripe stripe : stripes) {
+      version += stripe.version;
+    }
+    return version;
+  }
+
+
+  /* Put the Todos of a snapshot back in the order they were added (ids are handed out in order), by sorting each id packed
+    together with its index. Ids of 2^32 or more don't fit beside the index, so then the indexes are sorted by id instead,
+    which is slower but keeps the order */
+  static void inIdOrder(long[] ids, Todo[] todos) {
+
+    if (ids.length < 2) {
+      return;
+    }
+    long maxId = 0;
+    for (long id : ids) {
+      maxId = Math.max(maxId, id);
+    }
+    Todo[] unsorted = todos.clone();
+
+    if (maxId >= (1L << 32)) {
+      long[] unsortedIds = ids.clone();
+      Integer[] order = new Integer[ids.length];
+      Arrays.setAll(order, i -> i);
+      Arrays.parallelSort(order, Comparator.comparingLong(i -> unsortedIds[i]));
+      for (int i = 0; i < order.length; i++) {
+        ids[i] = unsortedIds[order[i]];
+        todos[i] = unsorted[order[i]];
+      }
+      return;
+    }
+
+    long[] packed = new long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      packed[i] = ids[i] << 31 | i;
+    }
+    Arrays.parallelSort(packed);
+    for (int i = 0; i < packed.length; i++) {
+      ids[i] = packed[i] >>> 31;
+      todos[i] = unsorted[(int) (packed[i] & Integer.MAX_VALUE)];
+    }
+  }
+
+
+  private Stripe stripeFor(long hash) {
+    return stripes[(int) hash & (stripes.length - 1)];
+  }
+
+  // Spread consecutive ids over the stripes & the slots of each stripe's table (the SplitMix64 finaliser)
+  private static long hash(long id) {
+    long z = id;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  private static Todo copy(Todo todo) {
+    return new Todo(todo.getText(), todo.getDue(), todo.getCat(), todo.getImportance(), todo.getCompletion());
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* The Todos whose ids fall in one stripe, in an open addressing hash table (linear probing, at most half full) guarded by
+    a StampedLock. Reads first try an optimistic read, which takes no lock: the slot is read & the stamp checked afterwards,
+    and only if a write happened meanwhile is the read done again under the read lock */
+
+  private static class Stripe {
+
+    private final StampedLock lock = new StampedLock();
+    // Replaced whole when the table grows, so an optimistic reader always sees ids & todos arrays of the same length
+    private Table table = new Table(16);
+    private int size;
+    // Count of changes to the stripe, only changed under the write lock
+    private volatile long version;
+
+    Todo get(long id, long hash) {
+      long stamp = lock.tryOptimisticRead();
+      Todo found = table.find(id, hash);
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock();
+        try {
+          found = table.find(id, hash);
+        } finally {
+          lock.unlockRead(stamp);
+        }
+      }
+      return found;
+    }
+
+    void put(long id, long hash, Todo todo) {
+      long stamp = lock.writeLock();
+      try {
+        if (size + 1 > table.todos.length / 2) {
+          table = table.grown();
+        }
+        if (table.put(id, hash, todo)) {
+          size++;
+        }
+        version++;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    // Replace the Todo with the given id, if it's still expected (or if expected is null, whatever it is)
+    boolean replace(long id, long hash, Todo expected, Todo todo) {
+      long stamp = lock.writeLock();
+      try {
+        int slot = table.slotOf(id, hash);
+        if (slot < 0 || (expected != null && table.todos[slot] != expected)) {
+          return false;
+        }
+        table.todos[slot] = todo;
+        version++;
+        return true;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    Todo remove(long id, long hash) {
+      long stamp = lock.writeLock();
+      try {
+        Todo removed = table.remove(id, hash);
+        if (removed != null) {
+          size--;
+          version++;
+        }
+        return removed;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    // Called with the read lock held
+    int copyTo(long[] ids, Todo[] todos, int from) {
+      Table current = table;
+      for (int slot = 0; slot < current.todos.length; slot++) {
+        if (current.todos[slot] != null) {
+          ids[from] = current.ids[slot];
+          todos[from++] = current.todos[slot];
+        }
+      }
+      return from;
+    }
+  }
+
+
+  private static class Table {
+
+    private final long[] ids;
+    // null marks an empty slot
+    private final Todo[] todos;
+    private final int mask;
+
+    Table(int capacity) {
+      ids = new long[capacity];
+      todos = new Todo[capacity];
+      mask = capacity - 1;
+    }
+
+    Todo find(long id, long hash) {
+      int slot = slotOf(id, hash);
+      return slot >= 0 ? todos[slot] : null;
+    }
+
+    // The slot holding the given id, or -1. Gives up after checking every slot, since an optimistic reader may see the table mid-change
+    int slotOf(long id, long hash) {
+      int slot = (int) (hash >>> 32) & mask;
+      for (int probes = 0; probes <= mask && todos[slot] != null; probes++) {
+        if (ids[slot] == id) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    // Returns true if the id is new to the table
+    boolean put(long id, long hash, Todo todo) {
+      int slot = (int) (hash >>> 32) & mask;
+      while (todos[slot] != null) {
+        if (ids[slot] == id) {
+          todos[slot] = todo;
+          return false;
+        }
+        slot = (slot + 1) & mask;
+      }
+      ids[slot] = id;
+      todos[slot] = todo;
+      return true;
+    }
+
+    Todo remove(long id, long hash) {
+      int slot = slotOf(id, hash);
+      if (slot < 0) {
+        return null;
+      }
+      Todo removed = todos[slot];
+      // Shift later entries of the same run back into the gap, so lookups never stop early at it
+      int gap = slot;
+      for (int next = (gap + 1) & mask; todos[next] != null; next = (next + 1) & mask) {
+        int home = (int) (hash(ids[next]) >>> 32) & mask;
+        if (((next - home) & mask) >= ((next - gap) & mask)) {
+          ids[gap] = ids[next];
+          todos[gap] = todos[next];
+          gap = next;
+        }
+      }
+      todos[gap] = null;
+      return removed;
+    }
+
+    Table grown() {
+      Table grown = new Table(todos.length * 2);
+      for (int slot = 0; slot < todos.length; slot++) {
+        if (todos[slot] != null) {
+          grown.put(ids[slot], hash(ids[slot]), todos[slot]);
+        }
+      }
+      return grown;
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // The Todos in the repository at one moment, with their ids. get returns a copy, so changing it doesn't change the snapshot
+
+  public static class Snapshot extends AbstractList<Todo> implements RandomAccess {
+
+    private final long[] ids;
+    private final Todo[] todos;
+    // The repository's version when the snapshot was taken
+    private final long version;
+
+    private Snapshot(long[] ids, Todo[] todos, long version) {
+      this.ids = ids;
+      this.todos = todos;
+      this.version = version;
+    }
+
+    public int size() {
+      return todos.length;
+    }
+
+    public Todo get(int index) {
+      return copy(todos[index]);
+    }
+
+    public long getId(int index) {
+      return ids[index];
+    }
+
+
+    /* The same Todos sorted in the given order (Todos with the same key keep their order). Each key, less the smallest, is
+      packed together with its index & the packed values sorted as plain longs if they fit, otherwise indexes are sorted by key */
+    public Snapshot sortedBy(SortOrder order) {
+
+      int size = todos.length;
+      long[] keys = new long[size];
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      for (int i = 0; i < size; i++) {
+        keys[i] = order.keyOf(todos[i]);
+        min = Math.min(min, keys[i]);
+        max = Math.max(max, keys[i]);
+      }
+
+      int[] sortedIndexes = new int[size];
+      int indexBits = 64 - Long.numberOfLeadingZeros(Math.max(1, size - 1));
+      if (size > 0 && 64 - Long.numberOfLeadingZeros(max - min) + indexBits <= 63) {
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+          packed[i] = (keys[i] - min) << indexBits | i;
+        }
+        Arrays.parallelSort(packed);
+        long indexMask = (1L << indexBits) - 1;
+        for (int i = 0; i < size; i++) {
+          sortedIndexes[i] = (int) (packed[i] & indexMask);
+        }
+      } else {
+        Integer[] boxed = new Integer[size];
+        Arrays.setAll(boxed, i -> i);
+        Arrays.sort(boxed, (a, b) -> Long.compare(keys[a], keys[b]));
+        Arrays.setAll(sortedIndexes, i -> boxed[i]);
+      }
+
+      long[] sortedIds = new long[size];
+      Todo[] sortedTodos = new Todo[size];
+      for (int i = 0; i < size; i++) {
+        sortedIds[i] = ids[sortedIndexes[i]];
+        sortedTodos[i] = todos[sortedIndexes[i]];
+      }
+      return new Snapshot(sortedIds, sortedTodos, version);
+    }
+  }
+
+}
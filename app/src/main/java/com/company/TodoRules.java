@@ -0,0 +1,78 @@
+package com.company;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/* The rules a Todo has to follow, shared by the GUI, the CLI, the server, batch mode & imports so they all accept the same
+  Todos. Titles are checked character by character rather than with String.matches, which compiles the regex again on
+  every call */
+public class TodoRules {
+
+  public static final int MAX_TITLE_LENGTH = 30;
+  public static final String TITLE_RULE = "Title must be 1-30 characters long, containing only letters, digits, spaces and apostrophes. Title cannot be a single apostrophe";
+  // Todos can't be updated to be due before the app was released. Files may still hold todos due earlier, which load as they are
+  public static final LocalDateTime RELEASED = LocalDateTime.of(2021, 5, 6, 9, 0);
+  // TITLE_CHARS[c] is true for the ASCII characters allowed in a title, so each character is checked with one lookup
+  private static final boolean[] TITLE_CHARS = new boolean[128];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      TITLE_CHARS[c] = true;
+      TITLE_CHARS[Character.toUpperCase(c)] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      TITLE_CHARS[c] = true;
+    }
+    TITLE_CHARS[' '] = true;
+    TITLE_CHARS['\''] = true;
+  }
+
+  private TodoRules() {
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // A title is 1-30 letters, digits, spaces & apostrophes, and not just an apostrophe
+
+  public static boolean isValidTitle(String title) {
+    int length = title.length();
+    if (length < 1 || length > MAX_TITLE_LENGTH || (length == 1 && title.charAt(0) == '\'')) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = title.charAt(i);
+      if (c >= TITLE_CHARS.length || !TITLE_CHARS[c]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Whether a Todo can be due at the given time after being created. New Todos also have to be due in the future
+  public static boolean isValidDue(LocalDateTime due) {
+    return due.isAfter(RELEASED);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Check the line a codec last decoded against the rules for the format of an existing Todo, returning what's wrong with it or
+    null if nothing is. Lines are stricter than when loaded without checking: categories, importances & statuses must be ones
+    the UIs offer rather than falling back to a default, and there must be exactly five fields. The due date isn't checked
+    against RELEASED, which only applies when a todo is changed, so files of todos due before then still load */
+
+  static String check(TodoCodec codec) {
+    if (codec.hasExtraFields()) {
+      return "Line has more than 5 comma separated fields";
+    }
+    if (!isValidTitle(codec.getTitle())) {
+      return TITLE_RULE;
+    }
+    String unknownField = codec.getUnknownField();
+    if (unknownField != null) {
+      Enum<?>[] values = unknownField.equals("category") ? Category.values() : unknownField.equals("importance") ? Importance.values() : Status.values();
+      return "The " + unknownField + " must be one of " + Arrays.toString(values);
+    }
+    return null;
+  }
+
+}
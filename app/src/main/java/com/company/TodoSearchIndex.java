@@ -0,0 +1,350 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+
+/* Index of the titles of the Todos in a TodoList, so they can be searched without reading every title. Each title is broken
+  into trigrams (every run of three characters, with a space added at each end so the starts & ends of words have trigrams
+  too), and the index keeps, for each trigram, the Todos whose titles contain it. A search only has to check the Todos listed
+  under the rarest trigram of the query. The index listens to the list, so it stays up to date as Todos are added, removed or
+  given a new title.
+
+  A query is split into words, and a Todo matches if its title contains every word (ignoring case). Words of one or two
+  characters only match the start of a word in the title. Matches are ranked: titles equal to the query first, then titles
+  starting with it, then titles containing it at the start of a word, then anywhere, then titles containing its words
+  separately. Shorter titles rank higher within each of those */
+public class TodoSearchIndex implements TodoListener {
+
+  // Characters are folded into an alphabet of 39 (space, a-z, 0-9, apostrophe & everything else) so every trigram has a slot in an array
+  private static final int ALPHABET = 39;
+  private static final int OTHER = ALPHABET - 1;
+  private static final int TRIGRAMS = ALPHABET * ALPHABET * ALPHABET;
+
+  // Postings left behind by removed or renamed Todos are only cleared once there are this many, and more than there are live postings
+  private static final long MIN_STALE_TO_REBUILD = 1 << 20;
+
+  // For each trigram, the ids of the Todos whose titles contain it. Ids of removed or renamed Todos are left until the postings are rebuilt
+  private final int[][] postings = new int[TRIGRAMS][];
+  private final int[] postingSizes = new int[TRIGRAMS];
+
+  // Each Todo's id is its slot in these arrays. Ids of removed Todos are reused
+  private final IdentityHashMap<Todo, Integer> ids = new IdentityHashMap<>();
+  private Todo[] todosById = new Todo[1024];
+  private String[] titlesById = new String[1024];
+  private int[] postingCountsById = new int[1024];
+  private int[] freeIds = new int[64];
+  private int freeCount;
+  private int nextId;
+
+  // Marks the Todos already checked by the current search, so a Todo listed twice under a trigram is only checked once
+  private int[] searchedBy = new int[1024];
+  private int searchNumber;
+
+  private long postingCount;
+  private long livePostingCount;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Index every Todo already in the list, then listen to the list for changes
+
+  public TodoSearchIndex(TodoList todos) {
+    todos.forEach(this::todoAdded);
+    todos.addListener(this);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods called by the list to keep the index up to date
+
+  public void todoAdded(Todo todo) {
+    if (ids.containsKey(todo)) {
+      return;
+    }
+    int id = freeCount > 0 ? freeIds[--freeCount] : newId();
+    ids.put(todo, id);
+    todosById[id] = todo;
+    index(id, todo.getText());
+  }
+
+  public void todoRemoved(Todo todo) {
+    Integer id = ids.remove(todo);
+    if (id == null) {
+      return;
+    }
+    livePostingCount -= postingCountsById[id];
+    todosById[id] = null;
+    titlesById[id] = null;
+    if (freeCount == freeIds.length) {
+      freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+    }
+    freeIds[freeCount++] = id;
+    clearStalePostings();
+  }
+
+  public void todoChanged(Todo todo, TodoField field, Object oldValue) {
+    Integer id = ids.get(todo);
+    if (field == TodoField.text && id != null) {
+      // The postings for the old title are left to be skipped by searches, since the new title no longer contains their trigrams
+      livePostingCount -= postingCountsById[id];
+      index(id, todo.getText());
+      clearStalePostings();
+    }
+  }
+
+
+  public int size() {
+    return ids.size();
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Up to limit Todos whose titles match the query, best match first. An empty query matches nothing
+
+  public List<Todo> search(String query, int limit) {
+
+    String trimmed = query.trim().toLowerCase(Locale.ROOT);
+    if (trimmed.isEmpty() || limit < 1) {
+      return new ArrayList<>();
+    }
+    String[] words = trimmed.split("\\s+");
+    String whole = String.join(" ", words);
+
+    /* Only the Todos listed under the rarest trigram of any word need checking, since a match has to contain them all. Words shorter than a trigram
+      are padded with spaces, which look them up as the start of a word */
+    int rarest = -1;
+    for (String word : words) {
+      String padded = word.length() < 3 ? "  ".substring(word.length() - 1) + word : word;
+      for (int i = 0; i + 3 <= padded.length(); i++) {
+        int trigram = trigramAt(padded, i);
+        if (rarest == -1 || postingSizes[trigram] < postingSizes[rarest]) {
+          rarest = trigram;
+        }
+      }
+    }
+
+    if (++searchNumber == 0) {
+      Arrays.fill(searchedBy, 0);
+      searchNumber = 1;
+    }
+
+    TopMatches top = new TopMatches(Math.min(limit, Math.max(ids.size(), 1)));
+    int[] candidates = postings[rarest];
+    for (int i = 0, n = postingSizes[rarest]; i < n; i++) {
+      check(candidates[i], whole, words, top);
+    }
+    return top.todos();
+  }
+
+
+  // Rank the Todo with the given id against the query, and keep it if it's among the best matches so far
+  private void check(int id, String whole, String[] words, TopMatches top) {
+
+    if (searchedBy[id] == searchNumber || titlesById[id] == null) {
+      return;
+    }
+    searchedBy[id] = searchNumber;
+
+    String title = titlesById[id];
+    int rank = rank(title, whole, words);
+    if (rank >= 0) {
+      top.offer(rank, title.length(), id);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // How well the (lower case) title matches the query, 0 being best, or -1 if it doesn't match
+
+  private static int rank(String title, String whole, String[] words) {
+
+    for (String word : words) {
+      int at = word.length() < 3 ? indexOfWordStart(title, word) : title.indexOf(word);
+      if (at < 0) {
+        return -1;
+      }
+    }
+
+    if (title.equals(whole)) {
+      return 0;
+    } else if (title.startsWith(whole)) {
+      return 1;
+    } else if (indexOfWordStart(title, whole) >= 0) {
+      return 2;
+    } else if (title.contains(whole)) {
+      return 3;
+    }
+    return 4;
+  }
+
+
+  // Where the text appears at the start of a word of the title, or -1 if it doesn't
+  private static int indexOfWordStart(String title, String text) {
+    for (int at = title.indexOf(text); at >= 0; at = title.indexOf(text, at + 1)) {
+      if (at == 0 || title.charAt(at - 1) == ' ') {
+        return at;
+      }
+    }
+    return -1;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods to add a title's trigrams to the postings, and to clear out the postings left behind once there are too many
+
+  private void index(int id, String text) {
+
+    String title = text.toLowerCase(Locale.ROOT);
+    titlesById[id] = title;
+
+    // The trigrams of the title with a space at each end. The first letter of each word is also listed under the trigram of two spaces & that letter
+    int count = 0;
+    int previous = 0;
+    int trigram = 0;
+    for (int i = 0; i <= title.length(); i++) {
+      int current = i < title.length() ? fold(title.charAt(i)) : 0;
+      trigram = (trigram * ALPHABET + current) % TRIGRAMS;
+      if (i >= 1) {
+        addPosting(trigram, id);
+        count++;
+      }
+      if (previous == 0 && current != 0) {
+        addPosting(current, id);
+        count++;
+      }
+      previous = current;
+    }
+    postingCountsById[id] = count;
+    postingCount += count;
+    livePostingCount += count;
+  }
+
+  private void addPosting(int trigram, int id) {
+    int[] ids = postings[trigram];
+    int size = postingSizes[trigram];
+    if (ids == null) {
+      ids = postings[trigram] = new int[4];
+    } else if (size == ids.length) {
+      ids = postings[trigram] = Arrays.copyOf(ids, size + (size >> 1));
+    }
+    // A title with the same trigram twice only needs listing once, and the repeat is always its last posting
+    if (size == 0 || ids[size - 1] != id) {
+      ids[size] = id;
+      postingSizes[trigram] = size + 1;
+    }
+  }
+
+  private void clearStalePostings() {
+
+    long stale = postingCount - livePostingCount;
+    if (ids.isEmpty()) {
+      Arrays.fill(postings, null);
+      Arrays.fill(postingSizes, 0);
+      postingCount = livePostingCount = 0;
+    } else if (stale >= MIN_STALE_TO_REBUILD && stale > livePostingCount) {
+      Arrays.fill(postingSizes, 0);
+      postingCount = livePostingCount = 0;
+      for (int id = 0; id < nextId; id++) {
+        if (todosById[id] != null) {
+          index(id, todosById[id].getText());
+        }
+      }
+    }
+  }
+
+  private int newId() {
+    if (nextId == todosById.length) {
+      int capacity = nextId * 2;
+      todosById = Arrays.copyOf(todosById, capacity);
+      titlesById = Arrays.copyOf(titlesById, capacity);
+      postingCountsById = Arrays.copyOf(postingCountsById, capacity);
+      searchedBy = Arrays.copyOf(searchedBy, capacity);
+    }
+    return nextId++;
+  }
+
+  private static int trigramAt(String text, int i) {
+    return (fold(text.charAt(i)) * ALPHABET + fold(text.charAt(i + 1))) * ALPHABET + fold(text.charAt(i + 2));
+  }
+
+  private static int fold(char c) {
+    if (c == ' ') {
+      return 0;
+    } else if (c >= 'a' && c <= 'z') {
+      return c - 'a' + 1;
+    } else if (c >= '0' && c <= '9') {
+      return c - '0' + 27;
+    } else if (c == '\'') {
+      return 37;
+    }
+    return OTHER;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* The best limit matches found so far, kept in a heap whose root is the worst of them. Each match is packed into a long
+    (rank, then title length, then id) so better matches are smaller numbers */
+
+  private class TopMatches {
+
+    private final long[] heap;
+    private int size;
+
+    TopMatches(int limit) {
+      heap = new long[limit];
+    }
+
+    void offer(int rank, int length, int id) {
+      long match = ((long) rank << 56) | ((long) Math.min(length, 0xFFFFFF) << 32) | id;
+      if (size < heap.length) {
+        heap[size] = match;
+        siftUp(size++);
+      } else if (match < heap[0]) {
+        heap[0] = match;
+        siftDown(0);
+      }
+    }
+
+    List<Todo> todos() {
+      long[] best = Arrays.copyOf(heap, size);
+      Arrays.sort(best);
+      List<Todo> found = new ArrayList<>(size);
+      for (long match : best) {
+        found.add(todosById[(int) match]);
+      }
+      return found;
+    }
+
+    private void siftUp(int i) {
+      while (i > 0 && heap[(i - 1) / 2] < heap[i]) {
+        swap(i, (i - 1) / 2);
+        i = (i - 1) / 2;
+      }
+    }
+
+    private void siftDown(int i) {
+      while (true) {
+        int largest = i;
+        for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+          if (heap[child] > heap[largest]) {
+            largest = child;
+          }
+        }
+        if (largest == i) {
+          return;
+        }
+        swap(i, largest);
+        i = largest;
+      }
+    }
+
+    private void swap(int i, int j) {
+      long held = heap[i];
+      heap[i] = heap[j];
+      heap[j] = held;
+    }
+  }
+
+}
@@ -0,0 +1,376 @@
+package com.company;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/* Headless HTTP server for the Todos in a TodoRepository, using the JDK's built-in HttpServer. Requests & responses are JSON
+  (see TodoJson):
+
+    GET    /todos?sort=due&offset=0&limit=100   list the todos (sort is due, priority or status; unsorted is the order they were added)
+    POST   /todos                               create a todo from {"title", "due", "cat", "importance"}, responding with it & its id
+    GET    /todos/<id>                          read a todo
+    PUT    /todos/<id>                          update any of a todo's "title", "due", "cat", "importance" & "status"
+    DELETE /todos/<id>                          delete a todo
+
+  Each request is handled on its own virtual thread when the JVM has them (Java 21 and later), otherwise on a pool of
+  platform threads. The repository lets any number of requests read & change the todos at once */
+public class TodoServer {
+
+  // Most todos returned by one list request, and how many are returned if the request doesn't say
+  private static final int MAX_LIMIT = 10_000;
+  private static final int DEFAULT_LIMIT = 100;
+  // Largest request body accepted
+  private static final int MAX_BODY = 64 * 1024;
+  // The fields of a todo a request can send
+  private static final List<String> TODO_FIELDS = List.of("title", "due", "cat", "importance", "status");
+
+  private final TodoRepository repository;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+
+  public TodoServer(TodoRepository repository, int port) throws IOException {
+    this.repository = repository;
+    this.executor = requestExecutor();
+    this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+    server.createContext("/todos", this::handle);
+    server.setExecutor(executor);
+  }
+
+
+  public void start() {
+    server.start();
+  }
+
+  // Stop accepting requests, giving those already running up to the given number of seconds to finish
+  public void stop(int delaySeconds) {
+    server.stop(delaySeconds);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+    } catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Turn on TCP_NODELAY for the JDK's HTTP server, unless -Dsun.net.httpserver.nodelay was given. Without it, small responses
+    sent as separate header & body writes wait on the client's delayed ACK (around 40ms each). This sets a system property for
+    the whole JVM, which the HTTP server only reads once, so launchers call it before the first TodoServer is created */
+
+  public static void useTcpNoDelay() {
+    if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* An executor which runs each task on a new virtual thread. Virtual threads are looked up by reflection so the app still
+    builds & runs on Java 17, where a pool of platform threads (a couple per core, since requests rarely block) is used instead */
+
+  static ExecutorService requestExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException exc) {
+      return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Method to route a request to the handler for its method & path, responding with an error if the request is bad (400) or
+    handling it failed (500). The exchange is always closed, so the client is never left waiting */
+
+  private void handle(HttpExchange exchange) throws IOException {
+
+    try {
+      String path = exchange.getRequestURI().getPath();
+      String method = exchange.getRequestMethod();
+
+      if (path.equals("/todos") || path.equals("/todos/")) {
+        switch (method) {
+          case "GET":
+            list(exchange);
+            break;
+          case "POST":
+            create(exchange);
+            break;
+          default:
+            error(exchange, 405, "Use GET or POST on /todos");
+        }
+        return;
+      }
+
+      long id;
+      try {
+        id = Long.parseLong(path.substring("/todos/".length()));
+      } catch (NumberFormatException | StringIndexOutOfBoundsException exc) {
+        error(exchange, 404, "No such resource");
+        return;
+      }
+
+      switch (method) {
+        case "GET":
+          read(exchange, id);
+          break;
+        case "PUT":
+          update(exchange, id);
+          break;
+        case "DELETE":
+          delete(exchange, id);
+          break;
+        default:
+          error(exchange, 405, "Use GET, PUT or DELETE on /todos/<id>");
+      }
+    } catch (IllegalArgumentException exc) {
+      errorIfNotResponded(exchange, 400, exc.getMessage());
+    } catch (RuntimeException exc) {
+      errorIfNotResponded(exchange, 500, "The request couldn't be handled");
+      System.out.println("Handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed: " + exc);
+    } finally {
+      exchange.close();
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Handlers for each kind of request
+
+  private void list(HttpExchange exchange) throws IOException {
+
+    Map<String, String> query = queryOf(exchange.getRequestURI());
+    int offset = intParameter(query, "offset", 0, Integer.MAX_VALUE, 0);
+    int limit = intParameter(query, "limit", 0, MAX_LIMIT, DEFAULT_LIMIT);
+
+    SortOrder order = null;
+    if (query.containsKey("sort")) {
+      try {
+        order = SortOrder.valueOf(query.get("sort"));
+      } catch (IllegalArgumentException exc) {
+        throw new IllegalArgumentException("sort must be due, priority or status");
+      }
+    }
+    // Shared with every other list request in the same order until a todo changes, rather than copied & sorted per request
+    TodoRepository.Snapshot todos = repository.view(order);
+
+    int end = (int) Math.min(todos.size(), (long) offset + limit);
+    StringBuilder out = new StringBuilder(64 + 128 * Math.max(0, end - offset));
+    out.append("{\"total\":").append(todos.size()).append(",\"offset\":").append(offset).append(",\"todos\":[");
+    for (int i = offset; i < end; i++) {
+      if (i > offset) {
+        out.append(',');
+      }
+      TodoJson.write(out, todos.getId(i), todos.get(i));
+    }
+    out.append("]}");
+    respond(exchange, 200, out);
+  }
+
+  private void create(HttpExchange exchange) throws IOException {
+
+    Map<String, String> fields = fieldsOf(exchange);
+    if (!fields.containsKey("title") || !fields.containsKey("due")) {
+      throw new IllegalArgumentException("A todo needs a title and a due date");
+    }
+
+    String title = title(fields.get("title"));
+    LocalDateTime due = due(fields.get("due"), LocalDateTime.now());
+    Category cat = fields.containsKey("cat") ? enumValue(Category.class, "cat", fields.get("cat")) : Category.green;
+    Importance importance = fields.containsKey("importance") ? enumValue(Importance.class, "importance", fields.get("importance")) : Importance.normal;
+
+    Todo todo = new Todo(title, due, cat, importance, Status.pending);
+    long id = repository.add(todo);
+    exchange.getResponseHeaders().set("Location", "/todos/" + id);
+    respond(exchange, 201, TodoJson.write(new StringBuilder(160), id, todo));
+  }
+
+  private void read(HttpExchange exchange, long id) throws IOException {
+    Todo todo = repository.get(id);
+    if (todo == null) {
+      error(exchange, 404, "No todo with id " + id);
+    } else {
+      respond(exchange, 200, TodoJson.write(new StringBuilder(160), id, todo));
+    }
+  }
+
+  private void update(HttpExchange exchange, long id) throws IOException {
+
+    Map<String, String> fields = fieldsOf(exchange);
+
+    // Check every field before changing anything, so a bad request changes nothing
+    String title = fields.containsKey("title") ? title(fields.get("title")) : null;
+    LocalDateTime due = fields.containsKey("due") ? due(fields.get("due"), TodoRules.RELEASED) : null;
+    Category cat = fields.containsKey("cat") ? enumValue(Category.class, "cat", fields.get("cat")) : null;
+    Importance importance = fields.containsKey("importance") ? enumValue(Importance.class, "importance", fields.get("importance")) : null;
+    Status status = fields.containsKey("status") ? enumValue(Status.class, "status", fields.get("status")) : null;
+
+    Todo updated = repository.update(id, todo -> {
+      if (title != null) {
+        todo.setText(title);
+      }
+      if (due != null) {
+        todo.setDue(due);
+      }
+      if (cat != null) {
+        todo.setCat(cat);
+      }
+      if (importance != null) {
+        todo.setImportance(importance);
+      }
+      if (status != null) {
+        todo.setCompletion(status);
+      }
+    });
+
+    if (updated == null) {
+      error(exchange, 404, "No todo with id " + id);
+    } else {
+      respond(exchange, 200, TodoJson.write(new StringBuilder(160), id, updated));
+    }
+  }
+
+  private void delete(HttpExchange exchange, long id) throws IOException {
+    if (repository.remove(id) == null) {
+      error(exchange, 404, "No todo with id " + id);
+    } else {
+      exchange.sendResponseHeaders(204, -1);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods to validate the fields of a request, with the same rules as the GUI & CLIMenu. Each throws IllegalArgumentException if the field isn't valid
+
+  private static String title(String title) {
+    if (!TodoRules.isValidTitle(title)) {
+      throw new IllegalArgumentException(TodoRules.TITLE_RULE);
+    }
+    return title;
+  }
+
+  private static LocalDateTime due(String due, LocalDateTime notBefore) {
+    LocalDateTime parsed;
+    try {
+      parsed = LocalDateTime.parse(due);
+    } catch (DateTimeParseException exc) {
+      throw new IllegalArgumentException("The due date must be in the format YYYY-MM-DDTHH:MM");
+    }
+    if (!parsed.isAfter(notBefore)) {
+      throw new IllegalArgumentException("The due date must be after " + notBefore);
+    }
+    return parsed;
+  }
+
+  private static <E extends Enum<E>> E enumValue(Class<E> type, String field, String name) {
+    try {
+      return Enum.valueOf(type, name);
+    } catch (IllegalArgumentException exc) {
+      throw new IllegalArgumentException(field + " can't be " + name);
+    }
+  }
+
+  private static int intParameter(Map<String, String> query, String name, int min, int max, int otherwise) {
+    if (!query.containsKey(name)) {
+      return otherwise;
+    }
+    try {
+      return Math.max(min, Math.min(max, Integer.parseInt(query.get(name))));
+    } catch (NumberFormatException exc) {
+      throw new IllegalArgumentException(name + " must be a number");
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods to read requests & write responses
+
+  // The query parameters, split on the raw query so an encoded & or = stays part of its name or value, then URL decoded
+  private static Map<String, String> queryOf(URI uri) {
+    Map<String, String> query = new HashMap<>();
+    String raw = uri.getRawQuery();
+    if (raw != null) {
+      for (String pair : raw.split("&")) {
+        int equals = pair.indexOf('=');
+        if (equals > 0) {
+          query.put(decode(pair.substring(0, equals)), decode(pair.substring(equals + 1)));
+        }
+      }
+    }
+    return query;
+  }
+
+  private static String decode(String component) {
+    try {
+      return URLDecoder.decode(component, StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException exc) {
+      throw new IllegalArgumentException("The query parameter " + component + " isn't URL encoded properly");
+    }
+  }
+
+  // The fields of a todo sent in the request body. Every field the server reads must be a JSON string, so e.g. {"title":null} is rejected rather than titled "null"
+  private static Map<String, String> fieldsOf(HttpExchange exchange) throws IOException {
+    Set<String> nonStrings = new HashSet<>();
+    Map<String, String> fields = TodoJson.parseObject(bodyOf(exchange), nonStrings);
+    for (String name : TODO_FIELDS) {
+      if (nonStrings.contains(name)) {
+        throw new IllegalArgumentException(name + " must be a string");
+      }
+    }
+    return fields;
+  }
+
+  private static String bodyOf(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      byte[] body = in.readNBytes(MAX_BODY + 1);
+      if (body.length > MAX_BODY) {
+        throw new IllegalArgumentException("The request body is too big");
+      }
+      return new String(body, StandardCharsets.UTF_8);
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, CharSequence json) throws IOException {
+    byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private static void error(HttpExchange exchange, int status, String message) throws IOException {
+    respond(exchange, status, TodoJson.writeString(new StringBuilder("{\"error\":"), message).append('}'));
+  }
+
+  // Send an error, unless the response had already been started when the request failed (then closing the exchange ends it)
+  private static void errorIfNotResponded(HttpExchange exchange, int status, String message) throws IOException {
+    if (exchange.getResponseCode() == -1) {
+      error(exchange, status, message);
+    }
+  }
+
+}
@@ -0,0 +1,325 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/* Stores the Todos in a directory with one file per Category (red.todb, white.todb, ..., in the binary format), so that only
+  the categories being worked on need to be read into memory. The GUI & CLI work on one TodoList (getTodos) holding the Todos
+  of the categories they've opened. Each category's file is only read the first time it's needed, so startup time & memory
+  depend on the categories opened rather than on every Todo stored.
+
+  The shards listen to the working list: a Todo created there is added to its category's shard, a deleted one removed, and one
+  whose category changes moves to the new category's shard (which is read first if it hasn't been). Shards which have changed
+  are written back when saved, closed or dropped. A shard none of whose Todos are in the working list (because its category
+  was closed, or was only read to move a Todo into it) is idle, and once it's been idle for a while it's written back if it
+  changed & dropped from memory, to be read again next time it's needed. Each file is written to a temporary file first &
+  moved into place, so a shard on disk is always complete */
+public class TodoShards implements TodoListener {
+
+  private static final long DEFAULT_IDLE_MILLIS = 5 * 60 * 1000;
+  private static final Category[] CATEGORIES = Category.values();
+
+  // One category's Todos, read from its file when first needed
+  private static class Shard {
+
+    private final Category cat;
+    private final Path file;
+    // null until the shard is read, and again once it's dropped
+    private List<Todo> todos;
+    // How many of the shard's Todos are in the working list. A shard is only dropped when this is 0
+    private int inUse;
+    private boolean open;
+    private boolean changed;
+    private long lastUsed;
+
+    Shard(Category cat, Path file) {
+      this.cat = cat;
+      this.file = file;
+    }
+  }
+
+  private final Path dir;
+  private final Shard[] shards = new Shard[CATEGORIES.length];
+  private final TodoList working = new TodoList();
+  private final long idleMillis;
+  private final LongSupplier clock;
+  private ScheduledExecutorService dropper;
+  // Set while the shards themselves add or remove Todos in the working list, so those changes aren't applied to the shards again
+  private boolean updatingWorkingList;
+
+
+  public TodoShards(Path dir) throws IOException {
+    this(dir, DEFAULT_IDLE_MILLIS, System::currentTimeMillis);
+  }
+
+  // Shards kept in the given directory, dropped once idle for idleMillis as measured by the clock (in milliseconds)
+  public TodoShards(Path dir, long idleMillis, LongSupplier clock) throws IOException {
+    this.dir = Files.createDirectories(dir);
+    this.idleMillis = idleMillis;
+    this.clock = clock;
+    for (Category cat : CATEGORIES) {
+      shards[cat.ordinal()] = new Shard(cat, dir.resolve(cat.name() + TodoBinaryFormat.EXTENSION));
+    }
+    working.addListener(this);
+  }
+
+
+  // The working list: the Todos of every open category, plus any Todos moved out of them since they were opened
+  public TodoList getTodos() {
+    return working;
+  }
+
+  public Path getDirectory() {
+    return dir;
+  }
+
+  public synchronized boolean isOpen(Category cat) {
+    return shards[cat.ordinal()].open;
+  }
+
+  public synchronized boolean isLoaded(Category cat) {
+    return shards[cat.ordinal()].todos != null;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Number of Todos in a category, read from the header of its file if the shard isn't in memory
+
+  public synchronized long count(Category cat) throws IOException {
+    Shard shard = shards[cat.ordinal()];
+    if (shard.todos != null) {
+      return shard.todos.size();
+    }
+    return Files.exists(shard.file) ? TodoBinaryFormat.count(shard.file) : 0;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Open categories, adding their Todos to the end of the working list (reading their shards if they haven't been read). Todos
+    already in the working list (e.g. moved into an open category from another) aren't added twice */
+
+  public synchronized void open(Category... cats) throws IOException {
+
+    List<Todo> toAdd = new ArrayList<>();
+    for (Category cat : cats) {
+      Shard shard = load(cat);
+      if (!shard.open) {
+        shard.open = true;
+        for (Todo todo : shard.todos) {
+          if (todo.getOwner() != working) {
+            toAdd.add(todo);
+            shard.inUse++;
+          }
+        }
+      }
+    }
+    updateWorkingList(() -> working.addAll(toAdd));
+  }
+
+
+  // Close categories, removing their Todos from the working list. Their shards become idle & are dropped once idle long enough
+
+  public synchronized void close(Category... cats) {
+
+    Set<Todo> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Category cat : cats) {
+      Shard shard = shards[cat.ordinal()];
+      if (shard.open) {
+        shard.open = false;
+        for (Todo todo : shard.todos) {
+          if (todo.getOwner() == working) {
+            toRemove.add(todo);
+          }
+        }
+        shard.inUse = 0;
+        shard.lastUsed = clock.getAsLong();
+      }
+    }
+    updateWorkingList(() -> working.removeIf(toRemove::contains));
+  }
+
+
+  private void updateWorkingList(Runnable change) {
+    updatingWorkingList = true;
+    try {
+      change.run();
+    } finally {
+      updatingWorkingList = false;
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Add Todos to their categories' shards (e.g. when importing a todo file), reading the shards if needed. Todos of open
+    categories are also added to the working list */
+
+  public synchronized void addAll(Collection<Todo> todos) throws IOException {
+
+    List<Todo> toShow = new ArrayList<>();
+    for (Todo todo : todos) {
+      Shard shard = load(todo.getCat());
+      shard.todos.add(todo);
+      shard.changed = true;
+      shard.lastUsed = clock.getAsLong();
+      if (shard.open) {
+        shard.inUse++;
+        toShow.add(todo);
+      }
+    }
+    updateWorkingList(() -> working.addAll(toShow));
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods called by the working list, to make the same changes to the shards
+
+  public synchronized void todoAdded(Todo todo) {
+    if (!updatingWorkingList) {
+      Shard shard = loadForChange(todo.getCat());
+      shard.todos.add(todo);
+      shard.inUse++;
+    }
+  }
+
+  public synchronized void todoRemoved(Todo todo) {
+    if (!updatingWorkingList) {
+      Shard shard = loadForChange(todo.getCat());
+      removeFrom(shard, Collections.singleton(todo));
+    }
+  }
+
+  // Removed Todos are taken out of each shard in one pass, rather than one search of the shard per Todo
+  public synchronized void todosRemoved(List<Todo> todos) {
+    if (updatingWorkingList) {
+      return;
+    }
+    Map<Category, Set<Todo>> byCat = new IdentityHashMap<>();
+    for (Todo todo : todos) {
+      byCat.computeIfAbsent(todo.getCat(), cat -> Collections.newSetFromMap(new IdentityHashMap<>())).add(todo);
+    }
+    byCat.forEach((cat, gone) -> removeFrom(loadForChange(cat), gone));
+  }
+
+  public synchronized void todoChanged(Todo todo, TodoField field, Object oldValue) {
+    if (field == TodoField.cat) {
+      removeFrom(loadForChange((Category) oldValue), Collections.singleton(todo));
+      Shard shard = loadForChange(todo.getCat());
+      shard.todos.add(todo);
+      shard.inUse++;
+    } else {
+      loadForChange(todo.getCat());
+    }
+  }
+
+  private void removeFrom(Shard shard, Set<Todo> gone) {
+    int before = shard.todos.size();
+    shard.todos.removeIf(gone::contains);
+    shard.inUse -= before - shard.todos.size();
+  }
+
+  // The shard of a category, read if it has to be, & marked as changed. Shards in use are never dropped, so this only reads a shard when moving a Todo into it
+  private Shard loadForChange(Category cat) {
+    try {
+      Shard shard = load(cat);
+      shard.changed = true;
+      return shard;
+    } catch (IOException exc) {
+      throw new IllegalStateException("Reading the " + cat + " shard failed", exc);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Read a category's shard from its file, unless it's already in memory
+
+  private Shard load(Category cat) throws IOException {
+    Shard shard = shards[cat.ordinal()];
+    if (shard.todos == null) {
+      shard.todos = Files.exists(shard.file) ? TodoBinaryFormat.load(shard.file) : new ArrayList<>();
+      shard.inUse = 0;
+      shard.changed = false;
+    }
+    shard.lastUsed = clock.getAsLong();
+    return shard;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Write every shard which has changed since it was read or last saved
+
+  public synchronized void save() throws IOException {
+    for (Shard shard : shards) {
+      if (shard.todos != null && shard.changed) {
+        write(shard);
+      }
+    }
+  }
+
+  private void write(Shard shard) throws IOException {
+    TodoBinaryFormat.save(shard.file, shard.todos);
+    shard.changed = false;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Drop every shard which isn't in use & hasn't been used for the idle time, writing it first if it changed. Returns the
+    number of shards dropped */
+
+  public synchronized int dropIdle() throws IOException {
+    int dropped = 0;
+    long now = clock.getAsLong();
+    for (Shard shard : shards) {
+      if (shard.todos != null && shard.inUse == 0 && !shard.open && now - shard.lastUsed >= idleMillis) {
+        if (shard.changed) {
+          write(shard);
+        }
+        shard.todos = null;
+        dropped++;
+      }
+    }
+    return dropped;
+  }
+
+
+  // Start a background thread which drops idle shards, checking a few times per idle period
+  public synchronized void startDropping() {
+    if (dropper == null) {
+      dropper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "todo-shard-dropper");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long period = Math.max(1000, idleMillis / 4);
+      dropper.scheduleWithFixedDelay(() -> {
+        try {
+          dropIdle();
+        } catch (IOException exc) {
+          System.out.println("Writing an idle shard failed: " + exc.getMessage());
+        }
+      }, period, period, TimeUnit.MILLISECONDS);
+    }
+  }
+
+
+  // Stop dropping shards & write every changed shard
+  public synchronized void close() throws IOException {
+    if (dropper != null) {
+      dropper.shutdown();
+      dropper = null;
+    }
+    save();
+  }
+
+}
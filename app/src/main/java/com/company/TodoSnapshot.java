@@ -0,0 +1,72 @@
+package com.company;
+
+import java.util.Arrays;
+import java.util.List;
+
+/* A consistent copy of a list of Todos, taken in one go on the thread which edits them, so it can be saved on another thread
+  while editing carries on. The values are copied into a TodoStore (a handful of arrays, so the copy is quick to take and
+  small), along with which Todo each one came from and that Todo's version, so an IncrementalSaver can still tell which Todos
+  have changed since it last saved them */
+public class TodoSnapshot {
+
+  private final Todo[] sources;
+  private final int[] versions;
+  private final List<Todo> values;
+
+
+  private TodoSnapshot(Todo[] sources, int[] versions, List<Todo> values) {
+    this.sources = sources;
+    this.versions = versions;
+    this.values = values;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Copy the values & versions of the given Todos as they are now
+
+  public static TodoSnapshot copyOf(List<Todo> todos) {
+    Todo[] sources = todos.toArray(new Todo[0]);
+    int[] versions = new int[sources.length];
+    TodoStore store = new TodoStore(sources.length);
+    for (int i = 0; i < sources.length; i++) {
+      versions[i] = sources[i].getVersion();
+      store.add(sources[i]);
+    }
+    return new TodoSnapshot(sources, versions, store.asList());
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Wrap Todos which won't change until they've been saved (e.g. when they're saved on the thread which edits them), reading
+    their values straight from the Todos instead of copying them */
+
+  static TodoSnapshot of(List<Todo> todos) {
+    Todo[] sources = todos.toArray(new Todo[0]);
+    int[] versions = new int[sources.length];
+    for (int i = 0; i < sources.length; i++) {
+      versions[i] = sources[i].getVersion();
+    }
+    return new TodoSnapshot(sources, versions, Arrays.asList(sources));
+  }
+
+
+  public int size() {
+    return sources.length;
+  }
+
+  // The Todo the values at the given index were taken from
+  public Todo getSource(int index) {
+    return sources[index];
+  }
+
+  // The version of the source Todo when the snapshot was taken
+  public int getVersion(int index) {
+    return versions[index];
+  }
+
+  // The values of every Todo as they were when the snapshot was taken, in the order of the list the snapshot was taken of
+  public List<Todo> getValues() {
+    return values;
+  }
+
+}
@@ -0,0 +1,301 @@
+package com.company;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.IntToLongFunction;
+
+/* Class to sort lists of Todos without comparing Todo objects. The fields to sort by are packed into a single long key for
+  each Todo (the first field in the most significant bits), using only as many bits as the values in the list need, and the
+  keys are then sorted as plain numbers:
+    - keys with a small range (e.g. only enum fields) are counting sorted in one pass
+    - otherwise, if the key and the Todo's position fit in 63 bits together, the combined longs are sorted as primitives,
+      in parallel for large lists. The position in the low bits keeps the sort stable
+    - otherwise the keys are radix sorted, 16 bits at a time
+  Every sort is stable, so Todos which tie on every field keep the order they were in */
+public class TodoSorter {
+
+  // Lists at least this long have their keys built & sorted in parallel
+  static final int PARALLEL_THRESHOLD = 1 << 16;
+
+  private static final int COUNTING_SORT_MAX_RANGE = 1 << 16;
+  private static final int RADIX_BITS = 16;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Sort the list by the given fields, e.g. sort(todos, TodoField.importance, TodoField.due) sorts by importance, then by due
+    date among Todos of the same importance. Enums are sorted by ordinal. A TodoList doesn't tell its listeners about the
+    sort, since no Todos are added or removed */
+
+  public static <L extends List<Todo>> L sort(L todos, TodoField... fields) {
+    if (fields.length == 0) {
+      throw new IllegalArgumentException("At least one field to sort by is needed");
+    }
+    if (todos.size() < 2) {
+      return todos;
+    }
+    // Titles can't be packed into a number, so they're left to a comparison sort
+    if (Arrays.asList(fields).contains(TodoField.text)) {
+      todos.sort(comparator(fields));
+      return todos;
+    }
+
+    Todo[] unsorted = todos.toArray(new Todo[0]);
+    long[] keys = packKeys(unsorted, fields);
+    if (keys == null) {
+      // The fields need more than 63 bits between them, e.g. due dates with nanoseconds spread over centuries
+      todos.sort(comparator(fields));
+      return todos;
+    }
+
+    long maxKey = 0;
+    for (long key : keys) {
+      maxKey = Math.max(maxKey, key);
+    }
+    int keyBits = bitsFor(maxKey);
+    int indexBits = bitsFor(unsorted.length - 1);
+
+    Todo[] sorted;
+    if (maxKey < COUNTING_SORT_MAX_RANGE) {
+      sorted = countingSort(unsorted, keys, (int) maxKey + 1);
+    } else if (keyBits + indexBits <= 63) {
+      sorted = packedSort(unsorted, keys, indexBits);
+    } else {
+      sorted = radixSort(unsorted, keys, keyBits);
+    }
+    writeBack(todos, sorted);
+    return todos;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Build the key for every Todo, working from the last field to the first so the first field ends up most significant.
+    Returns null if the fields don't fit in 63 bits */
+
+  private static long[] packKeys(Todo[] todos, TodoField[] fields) {
+    // A field repeated later on can't change the order, so only the first mention of each field counts
+    EnumSet<TodoField> seen = EnumSet.noneOf(TodoField.class);
+    TodoField[] distinct = Arrays.stream(fields).filter(seen::add).toArray(TodoField[]::new);
+
+    long[] keys = new long[todos.length];
+    int shift = 0;
+    for (int f = distinct.length - 1; f >= 0; f--) {
+      int width;
+      int at = shift;
+      switch (distinct[f]) {
+        case cat:
+          width = bitsFor(Category.values().length - 1);
+          fill(keys, i -> keys[i] | ((long) todos[i].getCat().ordinal() << at));
+          break;
+        case importance:
+          width = bitsFor(Importance.values().length - 1);
+          fill(keys, i -> keys[i] | ((long) todos[i].getImportance().ordinal() << at));
+          break;
+        case completion:
+          width = bitsFor(Status.values().length - 1);
+          fill(keys, i -> keys[i] | ((long) todos[i].getCompletion().ordinal() << at));
+          break;
+        default:
+          width = packDues(todos, keys, at);
+          break;
+      }
+      if (width < 0 || shift + width > 63) {
+        return null;
+      }
+      shift += width;
+    }
+    return keys;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Add each Todo's due date to its key as the number of seconds since the earliest due date in the list (or nanoseconds, if
+    any due date has a fraction of a second). Returns the number of bits used, or -1 if the range of due dates is too big */
+
+  private static int packDues(Todo[] todos, long[] keys, int shift) {
+    // Going from each Todo to its due date is the slow part of sorting a big list, so it's done only once per Todo
+    long[] seconds = new long[todos.length];
+    int[] nanos = new int[todos.length];
+    fill(seconds, i -> {
+      LocalDateTime due = todos[i].getDue();
+      nanos[i] = due.getNano();
+      return due.toEpochSecond(ZoneOffset.UTC);
+    });
+    long earliest = Long.MAX_VALUE;
+    long latest = Long.MIN_VALUE;
+    boolean withNanos = false;
+    for (int i = 0; i < seconds.length; i++) {
+      earliest = Math.min(earliest, seconds[i]);
+      latest = Math.max(latest, seconds[i]);
+      withNanos |= nanos[i] != 0;
+    }
+
+    long range;
+    try {
+      range = Math.subtractExact(latest, earliest);
+      if (withNanos) {
+        range = Math.addExact(Math.multiplyExact(range, NANOS_PER_SECOND), NANOS_PER_SECOND - 1);
+      }
+    } catch (ArithmeticException tooBig) {
+      return -1;
+    }
+    int width = bitsFor(range);
+    if (shift + width > 63) {
+      return -1;
+    }
+
+    long start = earliest;
+    if (withNanos) {
+      fill(keys, i -> keys[i] | (((seconds[i] - start) * NANOS_PER_SECOND + nanos[i]) << shift));
+    } else {
+      fill(keys, i -> keys[i] | ((seconds[i] - start) << shift));
+    }
+    return width;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Counting sort, for keys below range: count the Todos with each key, then place each Todo after all those with lower keys
+
+  private static Todo[] countingSort(Todo[] todos, long[] keys, int range) {
+    int[] starts = new int[range + 1];
+    for (long key : keys) {
+      starts[(int) key + 1]++;
+    }
+    for (int key = 1; key <= range; key++) {
+      starts[key] += starts[key - 1];
+    }
+    Todo[] sorted = new Todo[todos.length];
+    for (int i = 0; i < todos.length; i++) {
+      sorted[starts[(int) keys[i]]++] = todos[i];
+    }
+    return sorted;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Shift each key up and put the Todo's position in the bits below it, so every value is unique and sorting the values as
+    primitives sorts the Todos stably. The keys array is reused for the combined values */
+
+  private static Todo[] packedSort(Todo[] todos, long[] keys, int indexBits) {
+    long indexMask = (1L << indexBits) - 1;
+    fill(keys, i -> (keys[i] << indexBits) | i);
+    if (keys.length >= PARALLEL_THRESHOLD) {
+      Arrays.parallelSort(keys);
+    } else {
+      Arrays.sort(keys);
+    }
+    Todo[] sorted = new Todo[todos.length];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = todos[(int) (keys[i] & indexMask)];
+    }
+    return sorted;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Least significant digit radix sort of the keys, 16 bits at a time, carrying the Todos' positions along with them. Each
+    pass is a stable counting sort on one digit, and passes where every key has the same digit are skipped */
+
+  private static Todo[] radixSort(Todo[] todos, long[] keys, int keyBits) {
+    int n = todos.length;
+    int[] order = new int[n];
+    Arrays.setAll(order, i -> i);
+    long[] keysOut = new long[n];
+    int[] orderOut = new int[n];
+    int[] starts = new int[(1 << RADIX_BITS) + 1];
+    int digitMask = (1 << RADIX_BITS) - 1;
+
+    for (int shift = 0; shift < keyBits; shift += RADIX_BITS) {
+      Arrays.fill(starts, 0);
+      for (long key : keys) {
+        starts[(int) (key >>> shift & digitMask) + 1]++;
+      }
+      boolean oneDigit = false;
+      for (int digit = 1; digit < starts.length; digit++) {
+        oneDigit |= starts[digit] == n;
+        starts[digit] += starts[digit - 1];
+      }
+      if (oneDigit) {
+        continue;
+      }
+      for (int i = 0; i < n; i++) {
+        int to = starts[(int) (keys[i] >>> shift & digitMask)]++;
+        keysOut[to] = keys[i];
+        orderOut[to] = order[i];
+      }
+      long[] swapKeys = keys;
+      keys = keysOut;
+      keysOut = swapKeys;
+      int[] swapOrder = order;
+      order = orderOut;
+      orderOut = swapOrder;
+    }
+
+    Todo[] sorted = new Todo[n];
+    for (int i = 0; i < n; i++) {
+      sorted[i] = todos[order[i]];
+    }
+    return sorted;
+  }
+
+
+  // Comparison sort on the same fields, for when the keys can't be packed
+  private static Comparator<Todo> comparator(TodoField[] fields) {
+    Comparator<Todo> comparator = null;
+    for (TodoField field : fields) {
+      Comparator<Todo> byField;
+      switch (field) {
+        case text:
+          byField = Comparator.comparing(Todo::getText);
+          break;
+        case due:
+          byField = Comparator.comparing(Todo::getDue);
+          break;
+        case cat:
+          byField = Comparator.comparing(Todo::getCat);
+          break;
+        case importance:
+          byField = Comparator.comparing(Todo::getImportance);
+          break;
+        default:
+          byField = Comparator.comparing(Todo::getCompletion);
+          break;
+      }
+      comparator = comparator == null ? byField : comparator.thenComparing(byField);
+    }
+    return comparator;
+  }
+
+
+  private static void writeBack(List<Todo> todos, Todo[] sorted) {
+    if (todos instanceof TodoList) {
+      ((TodoList) todos).reorder(sorted);
+      return;
+    }
+    ListIterator<Todo> it = todos.listIterator();
+    for (Todo todo : sorted) {
+      it.next();
+      it.set(todo);
+    }
+  }
+
+  private static void fill(long[] values, IntToLongFunction generator) {
+    if (values.length >= PARALLEL_THRESHOLD) {
+      Arrays.parallelSetAll(values, generator);
+    } else {
+      Arrays.setAll(values, generator);
+    }
+  }
+
+  // Number of bits needed to hold every value from 0 to max
+  private static int bitsFor(long max) {
+    return 64 - Long.numberOfLeadingZeros(max);
+  }
+
+}
@@ -0,0 +1,368 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/* Column-oriented store for very large numbers of Todos. Instead of one Todo object per todo (each pointing at a String, a
+  LocalDateTime with its LocalDate & LocalTime, and three enums), each property is kept in its own array: titles in a String[],
+  due dates as seconds since the epoch (UTC) in a long[] and the enums as byte ordinals. Apart from the title that's 11 bytes
+  per todo. Todos can still be read & updated as Todo objects through lightweight views which read from and write to the arrays.
+  Each todo's version is kept in an int[] too, so a view's version goes up with every setter as a Todo's does */
+public class TodoStore {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private static final Category[] CATEGORIES = Category.values();
+  private static final Importance[] IMPORTANCES = Importance.values();
+  private static final Status[] STATUSES = Status.values();
+
+  private String[] texts;
+  private long[] dues;
+  private byte[] cats;
+  private byte[] importances;
+  private byte[] statuses;
+  private int[] versions;
+  // Fractions of a second are rare (dates are entered to the minute), so this is only allocated once one is stored
+  private int[] nanos;
+  private int size;
+
+
+  public TodoStore() {
+    this(INITIAL_CAPACITY);
+  }
+
+  public TodoStore(int capacity) {
+    capacity = Math.max(capacity, INITIAL_CAPACITY);
+    texts = new String[capacity];
+    dues = new long[capacity];
+    cats = new byte[capacity];
+    importances = new byte[capacity];
+    statuses = new byte[capacity];
+    versions = new int[capacity];
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Load every Todo in a text or binary todo file straight into a new store
+
+  public static TodoStore load(Path path) throws IOException {
+    TodoStore store = new TodoStore();
+    if (TodoBinaryFormat.isBinary(path)) {
+      TodoBinaryFormat.stream(path, store::add);
+    } else {
+      TodoFileReader.stream(path, store::add);
+    }
+    return store;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Copy the values of the given Todos into a new store
+
+  public static TodoStore copyOf(List<Todo> todos) {
+    TodoStore store = new TodoStore(todos.size());
+    todos.forEach(store::add);
+    return store;
+  }
+
+
+  public int size() {
+    return size;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Methods to add a todo to the end of the store, returning its index. A Todo added keeps its version
+
+  public int add(Todo todo) {
+    int index = add(todo.getText(), todo.getDue(), todo.getCat(), todo.getImportance(), todo.getCompletion());
+    versions[index] = todo.getVersion();
+    return index;
+  }
+
+  public int add(String text, LocalDateTime due, Category cat, Importance importance, Status completion) {
+    if (size == texts.length) {
+      grow();
+    }
+    int index = size++;
+    texts[index] = text;
+    setDue(index, due);
+    cats[index] = (byte) cat.ordinal();
+    importances[index] = (byte) importance.ordinal();
+    statuses[index] = (byte) completion.ordinal();
+    versions[index] = 0;
+    return index;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Remove the todo at the given index, moving every todo after it down by one
+
+  public void remove(int index) {
+    checkIndex(index);
+    int toMove = size - index - 1;
+    System.arraycopy(texts, index + 1, texts, index, toMove);
+    System.arraycopy(dues, index + 1, dues, index, toMove);
+    System.arraycopy(cats, index + 1, cats, index, toMove);
+    System.arraycopy(importances, index + 1, importances, index, toMove);
+    System.arraycopy(statuses, index + 1, statuses, index, toMove);
+    System.arraycopy(versions, index + 1, versions, index, toMove);
+    if (nanos != null) {
+      System.arraycopy(nanos, index + 1, nanos, index, toMove);
+    }
+    texts[--size] = null;
+  }
+
+
+  public void clear() {
+    Arrays.fill(texts, 0, size, null);
+    size = 0;
+    nanos = null;
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Getters and setters for the todo at an index. Each setter increments the todo's version
+
+  public String getText(int index) {
+    checkIndex(index);
+    return texts[index];
+  }
+
+  public void setText(int index, String newText) {
+    checkIndex(index);
+    texts[index] = newText;
+    versions[index]++;
+  }
+
+  public LocalDateTime getDue(int index) {
+    checkIndex(index);
+    return LocalDateTime.ofEpochSecond(dues[index], nanos == null ? 0 : nanos[index], ZoneOffset.UTC);
+  }
+
+  // The due date as seconds since the epoch (treating the due date as UTC), without creating a LocalDateTime
+  public long getDueEpochSecond(int index) {
+    checkIndex(index);
+    return dues[index];
+  }
+
+  public void setDue(int index, LocalDateTime newDue) {
+    checkIndex(index);
+    dues[index] = newDue.toEpochSecond(ZoneOffset.UTC);
+    if (newDue.getNano() != 0 && nanos == null) {
+      nanos = new int[texts.length];
+    }
+    if (nanos != null) {
+      nanos[index] = newDue.getNano();
+    }
+    versions[index]++;
+  }
+
+  public Category getCat(int index) {
+    checkIndex(index);
+    return CATEGORIES[cats[index]];
+  }
+
+  public void setCat(int index, Category newCat) {
+    checkIndex(index);
+    cats[index] = (byte) newCat.ordinal();
+    versions[index]++;
+  }
+
+  public Importance getImportance(int index) {
+    checkIndex(index);
+    return IMPORTANCES[importances[index]];
+  }
+
+  public void setImportance(int index, Importance newImportance) {
+    checkIndex(index);
+    importances[index] = (byte) newImportance.ordinal();
+    versions[index]++;
+  }
+
+  public Status getCompletion(int index) {
+    checkIndex(index);
+    return STATUSES[statuses[index]];
+  }
+
+  public void setCompletion(int index, Status newCompletion) {
+    checkIndex(index);
+    statuses[index] = (byte) newCompletion.ordinal();
+    versions[index]++;
+  }
+
+
+  public int getVersion(int index) {
+    checkIndex(index);
+    return versions[index];
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Return a Todo which reads from & writes to the todo at the given index. The view holds nothing but the index, so it is
+    cheap to create but stops referring to the same todo if todos before it are removed. Each call returns a new view, so
+    anything matching Todos by identity (e.g. a TodoList's listeners) must be given the same view each time */
+
+  public Todo get(int index) {
+    checkIndex(index);
+    return new View(index);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Pass every todo to the consumer through a single reused view (a flyweight), so nothing is allocated per todo. The consumer
+    mustn't keep hold of the Todo it is given, since it will point at the next todo as soon as the consumer returns */
+
+  public void forEach(Consumer<Todo> consumer) {
+    View cursor = new View(0);
+    for (int i = 0; i < size; i++) {
+      cursor.index = i;
+      consumer.accept(cursor);
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* A List view of the store, so it can be passed anywhere a List<Todo> is expected (e.g. Menu.saveToPath). Adding copies the
+    Todo's values into the store, and get returns a view */
+
+  public List<Todo> asList() {
+    return new StoreList();
+  }
+
+
+  // Copy every todo into a Todo object of its own, for code which needs an ArrayList (e.g. GUI)
+  public ArrayList<Todo> toArrayList() {
+    ArrayList<Todo> todos = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      todos.add(new Todo(texts[i], getDue(i), getCat(i), getImportance(i), getCompletion(i)));
+    }
+    return todos;
+  }
+
+
+  private void grow() {
+    int capacity = texts.length + (texts.length >> 1);
+    texts = Arrays.copyOf(texts, capacity);
+    dues = Arrays.copyOf(dues, capacity);
+    cats = Arrays.copyOf(cats, capacity);
+    importances = Arrays.copyOf(importances, capacity);
+    statuses = Arrays.copyOf(statuses, capacity);
+    versions = Arrays.copyOf(versions, capacity);
+    if (nanos != null) {
+      nanos = Arrays.copyOf(nanos, capacity);
+    }
+  }
+
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size + " todos");
+    }
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  /* Todo whose getters & setters go straight to the store's arrays. The fields inherited from Todo are left empty, apart from
+    the owner, which is told about every change as for any other Todo */
+
+  private class View extends Todo {
+
+    private int index;
+
+    View(int index) {
+      super(null, null, null, null, null);
+      this.index = index;
+    }
+
+    public String getText() {
+      return TodoStore.this.getText(index);
+    }
+
+    public void setText(String newText) {
+      String old = TodoStore.this.getText(index);
+      TodoStore.this.setText(index, newText);
+      changed(TodoField.text, old);
+    }
+
+    public LocalDateTime getDue() {
+      return TodoStore.this.getDue(index);
+    }
+
+    public void setDue(LocalDateTime newDue) {
+      LocalDateTime old = TodoStore.this.getDue(index);
+      TodoStore.this.setDue(index, newDue);
+      changed(TodoField.due, old);
+    }
+
+    public Category getCat() {
+      return TodoStore.this.getCat(index);
+    }
+
+    public void setCat(Category newCat) {
+      Category old = TodoStore.this.getCat(index);
+      TodoStore.this.setCat(index, newCat);
+      changed(TodoField.cat, old);
+    }
+
+    public Importance getImportance() {
+      return TodoStore.this.getImportance(index);
+    }
+
+    public void setImportance(Importance newImportance) {
+      Importance old = TodoStore.this.getImportance(index);
+      TodoStore.this.setImportance(index, newImportance);
+      changed(TodoField.importance, old);
+    }
+
+    public Status getCompletion() {
+      return TodoStore.this.getCompletion(index);
+    }
+
+    public void setCompletion(Status newCompletion) {
+      Status old = TodoStore.this.getCompletion(index);
+      TodoStore.this.setCompletion(index, newCompletion);
+      changed(TodoField.completion, old);
+    }
+
+    public int getVersion() {
+      return TodoStore.this.getVersion(index);
+    }
+  }
+
+
+  private class StoreList extends AbstractList<Todo> implements RandomAccess {
+
+    public Todo get(int index) {
+      return TodoStore.this.get(index);
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public void add(int index, Todo todo) {
+      if (index != size) {
+        throw new UnsupportedOperationException("Todos can only be added to the end of a TodoStore");
+      }
+      TodoStore.this.add(todo);
+      modCount++;
+    }
+
+    public Todo remove(int index) {
+      Todo removed = new Todo(getText(index), getDue(index), getCat(index), getImportance(index), getCompletion(index));
+      TodoStore.this.remove(index);
+      modCount++;
+      return removed;
+    }
+  }
+
+}
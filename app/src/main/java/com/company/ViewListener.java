@@ -0,0 +1,23 @@
+package com.company;
+
+/* Interface for anything showing the rows of a SortedView (e.g. the GUI's list model), which needs to know exactly which rows
+  moved as the Todos change. Every method does nothing by default, so listeners only need to implement the ones they care about */
+public interface ViewListener {
+
+  // Called after a Todo is added to the view at the given row
+  default void rowAdded(int index) {
+  }
+
+  // Called after the Todo at the given row is removed from the view
+  default void rowRemoved(int index) {
+  }
+
+  // Called after the Todo at the given row is changed without moving
+  default void rowChanged(int index) {
+  }
+
+  // Called after so many Todos were added or removed at once that the view was rebuilt, so every row may have changed
+  default void rowsReset(int oldSize) {
+  }
+
+}
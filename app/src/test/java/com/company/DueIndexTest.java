@@ -0,0 +1,100 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DueIndexTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+
+  @Test
+  void overdueIsMostOverdueFirstAndNextDueIsSoonestFirst() {
+    TodoList todos = new TodoList();
+    todos.add(todo("Yesterday", NOW.minusDays(1), Status.pending));
+    todos.add(todo("Last week", NOW.minusWeeks(1), Status.started));
+    todos.add(todo("Done last week", NOW.minusWeeks(1), Status.completed));
+    todos.add(todo("Tomorrow", NOW.plusDays(1), Status.pending));
+    todos.add(todo("Now", NOW, Status.partial));
+    todos.add(todo("Next week", NOW.plusWeeks(1), Status.pending));
+    DueIndex index = new DueIndex(todos);
+
+    assertEquals(List.of("Last week", "Yesterday"), titles(index.overdue(NOW, 10)));
+    assertEquals(List.of("Last week"), titles(index.overdue(NOW, 1)));
+    assertEquals(List.of("Now", "Tomorrow"), titles(index.nextDue(NOW, 2)));
+    assertEquals(List.of("Last week", "Done last week", "Yesterday", "Now"), titles(index.dueBetween(NOW.minusWeeks(2), NOW.plusHours(1))));
+    assertEquals(6, index.size());
+  }
+
+
+  @Test
+  void followsChangesToStatusAndDueDate() {
+    TodoList todos = new TodoList();
+    DueIndex index = new DueIndex(todos);
+    Todo late = todo("Late", NOW.minusDays(2), Status.pending);
+    Todo soon = todo("Soon", NOW.plusHours(2), Status.pending);
+    todos.add(late);
+    todos.add(soon);
+
+    late.setCompletion(Status.completed);
+    assertEquals(List.of(), titles(index.overdue(NOW, 10)));
+    assertEquals(List.of("Late"), titles(index.dueBetween(NOW.minusDays(3), NOW)));
+
+    late.setCompletion(Status.started);
+    assertEquals(List.of("Late"), titles(index.overdue(NOW, 10)));
+
+    soon.setDue(NOW.minusDays(3));
+    assertEquals(List.of("Soon", "Late"), titles(index.overdue(NOW, 10)));
+    assertEquals(List.of(), titles(index.nextDue(NOW, 10)));
+
+    late.setDue(NOW.plusDays(1));
+    assertEquals(List.of("Late"), titles(index.nextDue(NOW, 10)));
+    // A title change doesn't move the todo
+    late.setText("Renamed");
+    assertEquals(List.of("Renamed"), titles(index.nextDue(NOW, 10)));
+  }
+
+
+  @Test
+  void removedTodosLeaveTheIndex() {
+    TodoList todos = new TodoList();
+    todos.add(todo("Kept", NOW.minusDays(1), Status.pending));
+    todos.add(todo("Removed", NOW.minusDays(2), Status.pending));
+    todos.add(todo("Cleared", NOW.plusDays(2), Status.completed));
+    DueIndex index = new DueIndex(todos);
+
+    todos.remove(1);
+    assertEquals(List.of("Kept"), titles(index.overdue(NOW, 10)));
+    todos.clear();
+    assertEquals(0, index.size());
+    assertEquals(List.of(), titles(index.dueBetween(NOW.minusYears(1), NOW.plusYears(1))));
+  }
+
+
+  // Todos due at the same moment stay in the order they were indexed
+  @Test
+  void tiesKeepIndexOrder() {
+    TodoList todos = new TodoList();
+    DueIndex index = new DueIndex(todos);
+    for (int i = 0; i < 5; i++) {
+      todos.add(todo("Tie " + i, NOW.plusDays(1), Status.pending));
+    }
+    assertEquals(List.of("Tie 0", "Tie 1", "Tie 2", "Tie 3", "Tie 4"), titles(index.nextDue(NOW, 10)));
+  }
+
+
+  private static Todo todo(String title, LocalDateTime due, Status status) {
+    return new Todo(title, due, Category.red, Importance.normal, status);
+  }
+
+  private static List<String> titles(List<Todo> todos) {
+    List<String> titles = new ArrayList<>();
+    todos.forEach(todo -> titles.add(todo.getText()));
+    return titles;
+  }
+}
@@ -0,0 +1,51 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportQuarantineTest {
+
+  // The todo file bundled with the repository, whose todos are all due before TodoRules.RELEASED
+  private static final Path FIXTURE = Paths.get("..", "loadingTestTasks.txt");
+
+  @TempDir
+  Path dir;
+
+
+  @Test
+  void loadsBundledFixtureWithNothingQuarantined() throws IOException {
+    Path file = Files.copy(FIXTURE, dir.resolve("loadingTestTasks.txt"));
+
+    List<Todo> todos = Menu.loadFromPath(file);
+
+    assertEquals(3, todos.size());
+    assertEquals("Task 1", todos.get(0).getText());
+    assertFalse(Files.exists(ImportQuarantine.pathFor(file)));
+  }
+
+
+  @Test
+  void quarantinesLinesBreakingFormatRules() throws IOException {
+    Path file = dir.resolve("todos.txt");
+    Files.writeString(file, "Good,2020-01-01T09:00,red,high,pending\nBad title!,2030-01-01T09:00,red,high,pending\n"
+        + "Pay rent,2030-01-01T09:00,red,urgent,pending\nExtra,2030-01-01T09:00,red,high,pending,x\n");
+
+    List<Todo> todos = Menu.loadFromPath(file);
+
+    assertEquals(1, todos.size());
+    assertEquals("Good", todos.get(0).getText());
+    List<String> rejected = Files.readAllLines(ImportQuarantine.pathFor(file));
+    assertEquals(6, rejected.size());
+    assertTrue(rejected.get(4).startsWith("# line 4: "));
+  }
+}
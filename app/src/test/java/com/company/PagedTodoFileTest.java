@@ -0,0 +1,106 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PagedTodoFileTest {
+
+  private static final int TODOS = 1000;
+
+  @TempDir
+  Path dir;
+
+
+  @Test
+  void readsEveryTodoInOrderSkippingOtherLines() throws IOException {
+    Path file = write(TODOS);
+
+    try (PagedTodoFile paged = PagedTodoFile.open(file)) {
+      assertEquals(TODOS, paged.size());
+      assertEquals(TODOS / 100, paged.getIndex().getRejected());
+      assertEquals((TODOS + TodoFileIndex.PAGE_SIZE - 1) / TodoFileIndex.PAGE_SIZE, paged.getIndex().getPages());
+      // From the end backwards, so no page is read because of the one before it
+      for (int i = TODOS - 1; i >= 0; i--) {
+        assertEquals("Task " + i, paged.get(i).getText());
+      }
+      assertThrows(IndexOutOfBoundsException.class, () -> paged.get(TODOS));
+    }
+  }
+
+  @Test
+  void reusesTheIndexUntilTheFileChanges() throws IOException {
+    Path file = write(TODOS);
+    Path indexFile = TodoFileIndex.pathFor(file);
+    PagedTodoFile.open(file).close();
+    assertTrue(Files.exists(indexFile));
+
+    // An index which is saved again gets a new modification time, so an old one shows it was reused
+    FileTime old = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(indexFile, old);
+    try (PagedTodoFile paged = PagedTodoFile.open(file)) {
+      assertEquals(TODOS, paged.size());
+    }
+    assertEquals(old, Files.getLastModifiedTime(indexFile));
+
+    Files.write(file, "Task 1000,2030-01-01T09:00,red,high,pending\n".getBytes(StandardCharsets.UTF_8),
+        StandardOpenOption.APPEND);
+    try (PagedTodoFile paged = PagedTodoFile.open(file)) {
+      assertEquals(TODOS + 1, paged.size());
+      assertEquals("Task 1000", paged.get(TODOS).getText());
+    }
+    assertNotEquals(old, Files.getLastModifiedTime(indexFile));
+  }
+
+  @Test
+  void keepsOnlyTheMostRecentlyUsedPages() throws IOException {
+    Path file = write(TODOS);
+    int page = TodoFileIndex.PAGE_SIZE;
+
+    try (PagedTodoFile paged = new PagedTodoFile(file, TodoFileIndex.open(file), 2)) {
+      paged.get(0);
+      paged.get(page + 1);
+      paged.get(page - 1);
+      assertEquals(2, paged.getPagesRead());
+      assertEquals(2, paged.getCachedPages());
+
+      // Page 0 was used last, so reading page 2 drops page 1
+      paged.get(2 * page);
+      paged.get(5);
+      assertEquals(3, paged.getPagesRead());
+      paged.get(page);
+      assertEquals(4, paged.getPagesRead());
+      assertEquals(2, paged.getCachedPages());
+    }
+  }
+
+
+  // A todo file of good lines, with a comment, a blank line or a bad line after every hundredth
+  private Path write(int count) throws IOException {
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      lines.add("Task " + i + ",2030-01-01T09:00,red,high,pending");
+      if (i % 100 == 0) {
+        lines.add("# Comment " + i);
+        lines.add("");
+        lines.add("Bad " + i + ",not a date,red,high,pending");
+      }
+    }
+    Path file = dir.resolve("todos.txt");
+    Files.write(file, lines, StandardCharsets.UTF_8);
+    return file;
+  }
+}
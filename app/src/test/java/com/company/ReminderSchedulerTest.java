@@ -0,0 +1,129 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/* The scheduler's clock is moved by hand, one due second at a time, so each test checks that every reminder fires at its
+  second and not the second before. Clocks start just short of a wheel turning over, so reminders move down the wheels (and
+  out of the overflow) within a few days of simulated time */
+class ReminderSchedulerTest {
+
+  private final TodoList todos = new TodoList();
+  private final List<Todo> fired = new ArrayList<>();
+  private long millis;
+  private ReminderScheduler scheduler;
+
+
+  @Test
+  void firesRemindersFromEveryWheel() {
+    start((1L << 24) - 300);
+    Random random = new Random(3);
+    List<Todo> expected = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      // Offsets from under a second up to past a turn of the third wheel
+      long offset = 1 + random.nextInt(1 << (1 + random.nextInt(25)));
+      expected.add(add(seconds() + offset));
+    }
+    expected.sort(Comparator.comparing(Todo::getDue));
+
+    // Several reminders can share a second, so the count fired is checked against the number due up to each second
+    for (int i = 0; i < expected.size(); i++) {
+      long due = expected.get(i).getDue().toEpochSecond(ZoneOffset.UTC);
+      if (due - 1 > seconds()) {
+        moveTo(due - 1);
+        assertEquals(i, fired.size(), "before " + due);
+      }
+      moveTo(due);
+      int dueNow = i;
+      while (dueNow < expected.size() && expected.get(dueNow).getDue().equals(expected.get(i).getDue())) {
+        dueNow++;
+      }
+      assertEquals(dueNow, fired.size(), "at " + due);
+      assertEquals(expected.get(i).getDue(), fired.get(dueNow - 1).getDue());
+    }
+    assertEquals(expected.size(), fired.size());
+    assertEquals(0, scheduler.size());
+  }
+
+  @Test
+  void firesRemindersFromTheOverflow() {
+    start((1L << 32) - 10);
+    Todo soon = add(seconds() + 5);
+    Todo pastTopWheel = add(seconds() + 20);
+    Todo downEveryWheel = add((1L << 32) + (1L << 16) + 3);
+    Todo farOff = add(seconds() + (1L << 33));
+
+    moveTo(seconds() + 5);
+    assertEquals(List.of(soon), fired);
+    moveTo((1L << 32) + 9);
+    assertEquals(List.of(soon), fired);
+    moveTo((1L << 32) + 10);
+    assertEquals(List.of(soon, pastTopWheel), fired);
+    moveTo((1L << 32) + (1L << 16) + 2);
+    assertEquals(2, fired.size());
+    moveTo((1L << 32) + (1L << 16) + 3);
+    assertEquals(List.of(soon, pastTopWheel, downEveryWheel), fired);
+
+    // The far reminder went back into the overflow when the top wheel moved on, and is still there
+    assertEquals(1, scheduler.size());
+    todos.remove(farOff);
+    assertEquals(0, scheduler.size());
+  }
+
+  @Test
+  void followsChangesToTheList() {
+    start(1_000_000);
+    Todo moved = add(seconds() + 100);
+    Todo completed = add(seconds() + 200);
+    Todo removed = add(seconds() + 300);
+    add(seconds() - 1);
+    assertEquals(3, scheduler.size());
+
+    moved.setDue(LocalDateTime.ofEpochSecond(seconds() + 1000, 0, ZoneOffset.UTC));
+    completed.setCompletion(Status.completed);
+    todos.remove(removed);
+    moveTo(seconds() + 999);
+    assertEquals(List.of(), fired);
+
+    moveTo(seconds() + 1);
+    assertEquals(List.of(moved), fired);
+
+    // Reopening a Todo which is now overdue doesn't bring its reminder back, but moving it into the future does
+    completed.setCompletion(Status.started);
+    assertEquals(0, scheduler.size());
+    completed.setDue(LocalDateTime.ofEpochSecond(seconds() + 1, 0, ZoneOffset.UTC));
+    moveTo(seconds() + 1);
+    assertEquals(List.of(moved, completed), fired);
+  }
+
+
+  private void start(long second) {
+    millis = second * 1000 + 500;
+    scheduler = new ReminderScheduler(todos, () -> millis, ZoneOffset.UTC);
+    scheduler.addListener(fired::add);
+  }
+
+  private long seconds() {
+    return millis / 1000;
+  }
+
+  private void moveTo(long second) {
+    millis = second * 1000 + 500;
+    scheduler.advance();
+  }
+
+  private Todo add(long dueSecond) {
+    Todo todo = new Todo("Todo " + todos.size(), LocalDateTime.ofEpochSecond(dueSecond, 0, ZoneOffset.UTC), Category.red,
+        Importance.normal, Status.pending);
+    todos.add(todo);
+    return todo;
+  }
+}
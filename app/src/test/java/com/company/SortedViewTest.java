@@ -0,0 +1,156 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/* Each test makes random changes to a TodoList and checks every view against the list sorted by a comparator on the same
+  key, with ties in the order the todos were added to the view. A mirror list kept up to date only from the ViewListener
+  events checks that the rows reported are the ones which moved */
+class SortedViewTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+  private final Random random = new Random(7);
+  // The order each todo was added to the list, which is its order among todos with equal keys
+  private final Map<Todo, Long> added = new IdentityHashMap<>();
+  private long nextAdded;
+
+
+  @Test
+  void orderAndRankFollowEdits() {
+    TodoList todos = new TodoList();
+    for (int i = 0; i < 200; i++) {
+      add(todos, newTodo(i));
+    }
+    List<Checked> views = viewsOf(todos);
+
+    for (int step = 0; step < 2000; step++) {
+      int choice = random.nextInt(10);
+      if (choice < 3 || todos.isEmpty()) {
+        add(todos, newTodo(step));
+      } else if (choice < 5) {
+        todos.remove(random.nextInt(todos.size()));
+      } else {
+        change(todos.get(random.nextInt(todos.size())));
+      }
+      if (step % 100 == 0) {
+        views.forEach(view -> view.check(todos));
+      }
+    }
+    views.forEach(view -> view.check(todos));
+  }
+
+
+  @Test
+  void bulkAddsAndRemovesRebuildInOrder() {
+    TodoList todos = new TodoList();
+    for (int i = 0; i < 50; i++) {
+      add(todos, newTodo(i));
+    }
+    List<Checked> views = viewsOf(todos);
+
+    List<Todo> batch = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      Todo todo = newTodo(i);
+      added.put(todo, nextAdded++);
+      batch.add(todo);
+    }
+    todos.addAll(batch);
+    views.forEach(view -> view.check(todos));
+
+    for (int i = 0; i < 100; i++) {
+      change(todos.get(random.nextInt(todos.size())));
+    }
+    todos.removeAll(new ArrayList<>(todos.subList(100, 400)));
+    views.forEach(view -> view.check(todos));
+
+    todos.clear();
+    views.forEach(view -> view.check(todos));
+  }
+
+
+  private List<Checked> viewsOf(TodoList todos) {
+    List<Checked> views = new ArrayList<>();
+    for (SortOrder order : SortOrder.values()) {
+      views.add(new Checked(new SortedView(todos, order)));
+    }
+    return views;
+  }
+
+  private void add(TodoList todos, Todo todo) {
+    added.put(todo, nextAdded++);
+    todos.add(todo);
+  }
+
+  private Todo newTodo(int i) {
+    // Due dates are drawn from a small range so plenty of todos tie
+    return new Todo("Todo " + i, START.plusHours(random.nextInt(48)), Category.red, Importance.values()[random.nextInt(3)],
+        Status.values()[random.nextInt(Status.values().length)]);
+  }
+
+  private void change(Todo todo) {
+    switch (random.nextInt(4)) {
+      case 0:
+        todo.setDue(START.plusHours(random.nextInt(48)));
+        break;
+      case 1:
+        todo.setImportance(Importance.values()[random.nextInt(3)]);
+        break;
+      case 2:
+        todo.setCompletion(Status.values()[random.nextInt(Status.values().length)]);
+        break;
+      default:
+        todo.setText("Renamed " + random.nextInt(100));
+    }
+  }
+
+
+  private class Checked implements ViewListener {
+
+    private final SortedView view;
+    private final List<Todo> mirror;
+
+    Checked(SortedView view) {
+      this.view = view;
+      this.mirror = new ArrayList<>(view.toList());
+      view.addListener(this);
+    }
+
+    public void rowAdded(int index) {
+      mirror.add(index, view.get(index));
+    }
+
+    public void rowRemoved(int index) {
+      mirror.remove(index);
+    }
+
+    public void rowsReset(int oldSize) {
+      assertEquals(oldSize, mirror.size());
+      mirror.clear();
+      mirror.addAll(view.toList());
+    }
+
+    void check(List<Todo> todos) {
+      List<Todo> expected = new ArrayList<>(todos);
+      SortOrder order = view.getOrder();
+      expected.sort(Comparator.comparingLong((Todo todo) -> order.keyOf(todo)).thenComparingLong(added::get));
+
+      assertEquals(expected, view.toList(), order.name());
+      assertEquals(expected, mirror, order.name());
+      assertEquals(expected.size(), view.size());
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(i, view.indexOf(expected.get(i)));
+        assertEquals(expected.get(i), view.get(i));
+      }
+    }
+  }
+}
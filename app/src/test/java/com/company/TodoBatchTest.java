@@ -0,0 +1,43 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TodoBatchTest {
+
+  @TempDir
+  Path dir;
+
+
+  @Test
+  void commandWhichCantBeJournalledChangesNothing() throws IOException {
+    TodoJournal journal = TodoJournal.open(dir);
+    Todo todo = new Todo("Shop", LocalDateTime.of(2030, 1, 1, 9, 0), Category.green, Importance.normal, Status.pending);
+    journal.created(todo);
+    List<Todo> todos = new ArrayList<>(List.of(todo));
+    // A closed journal fails every write
+    journal.close();
+
+    TodoBatch batch = new TodoBatch(todos, journal);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    batch.run(new StringReader("add,Cook,2030-02-01T09:00\nupdate,1,title,Bake\ndelete,1\n"), out);
+
+    assertEquals(3, batch.getErrCount());
+    assertEquals(1, batch.getTodos().size());
+    assertEquals("Shop", batch.getTodos().get(0).getText());
+    TodoJournal reopened = TodoJournal.open(dir);
+    assertEquals(1, reopened.getTodos().size());
+    reopened.close();
+  }
+}
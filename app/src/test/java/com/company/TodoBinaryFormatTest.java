@@ -0,0 +1,66 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoBinaryFormatTest {
+
+  @TempDir
+  Path dir;
+
+
+  @Test
+  void textFileStartingWithTodbIsText() throws IOException {
+    Path file = dir.resolve("todos.txt");
+    Files.writeString(file, "TODB migration,2030-01-01T09:00,red,high,pending\n");
+
+    assertFalse(TodoBinaryFormat.isBinary(file));
+    assertEquals("TODB migration", Menu.loadFromPath(file).get(0).getText());
+  }
+
+
+  @Test
+  void readsFilesWithTheOldMagic() throws IOException {
+    Path file = dir.resolve("todos.todb");
+    TodoBinaryFormat.save(file, List.of(todo("Old file")));
+    byte[] bytes = Files.readAllBytes(file);
+    bytes[0] = 'T';
+    bytes[1] = 'O';
+    Files.write(file, bytes);
+
+    assertTrue(TodoBinaryFormat.isBinary(file));
+    assertEquals("Old file", Menu.loadFromPath(file).get(0).getText());
+  }
+
+
+  @Test
+  void failedSaveKeepsThePreviousFile() throws IOException {
+    Path file = dir.resolve("todos.todb");
+    TodoBinaryFormat.save(file, List.of(todo("Kept")));
+
+    List<Todo> tooLong = new ArrayList<>(List.of(todo("Lost")));
+    tooLong.add(todo("x".repeat(0x10000)));
+    assertThrows(IOException.class, () -> TodoBinaryFormat.save(file, tooLong));
+
+    assertEquals("Kept", TodoBinaryFormat.load(file).get(0).getText());
+    assertFalse(Files.exists(dir.resolve("todos.todb.tmp")));
+  }
+
+
+  private static Todo todo(String title) {
+    return new Todo(title, LocalDateTime.of(2030, 1, 1, 9, 0), Category.red, Importance.high, Status.pending);
+  }
+
+}
@@ -0,0 +1,107 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TodoCodecTest {
+
+  // Lines in the form saveToFile writes, so re-encoding each gives the same line back
+  private static final List<String> LINES = List.of(
+      "Shop,2030-01-01T09:00,red,high,pending",
+      "Seconds,2030-01-01T09:00:30,white,low,started",
+      "Tenths,2030-01-01T09:00:00.500,blue,normal,partial",
+      "Nanos,2030-01-01T09:00:00.123456789,purple,high,completed",
+      "Midnight,2030-01-01T00:00,yellow,normal,pending",
+      "Before midnight,2029-12-31T23:59:59,green,low,pending",
+      "Leap day,2024-02-29T12:00,red,normal,started",
+      "Century leap day,2000-02-29T00:00,red,normal,started",
+      "Before 1970,1969-12-31T23:59:59,white,high,completed",
+      "Long ago,1066-10-14T09:00,blue,low,completed",
+      "After 9999,+10000-01-01T00:00,blue,low,pending",
+      "Año nuevo 🎉,2031-01-01T00:00:01,green,normal,pending");
+
+
+  @Test
+  void decodesLikeTheBaselineParse() {
+    TodoCodec codec = new TodoCodec();
+    for (String line : LINES) {
+      byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+      codec.decode(bytes, 0, bytes.length);
+      assertSameTodo(baselineParse(line), codec.toTodo(), line);
+    }
+  }
+
+
+  @Test
+  void encodesLikeTheBaselineToString() {
+    TodoCodec codec = new TodoCodec();
+    for (String line : LINES) {
+      Todo todo = baselineParse(line);
+      int length = codec.encode(todo);
+      assertEquals(line + "\n", new String(codec.getLine(), 0, length, StandardCharsets.UTF_8));
+      assertEquals(Menu.todoToLine(todo) + "\n", new String(codec.getLine(), 0, length, StandardCharsets.UTF_8));
+    }
+  }
+
+
+  @Test
+  void readsDefaultsForUnknownNamesLikeTheBaseline() {
+    TodoCodec codec = new TodoCodec();
+    String line = "Odd,2030-01-01T09:00,orange,urgent,waiting";
+    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+    codec.decode(bytes, 0, bytes.length);
+    assertSameTodo(baselineParse(line), codec.toTodo(), line);
+  }
+
+
+  @Test
+  void rejectsDatesTheBaselineRejects() {
+    TodoCodec codec = new TodoCodec();
+    for (String line : List.of("Not leap,2023-02-29T12:00,red,high,pending", "Hour 24,2030-01-01T24:00,red,high,pending",
+        "No time,2030-01-01,red,high,pending")) {
+      byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+      assertThrows(DateTimeException.class, () -> baselineParse(line), line);
+      assertThrows(DateTimeException.class, () -> codec.decode(bytes, 0, bytes.length), line);
+    }
+  }
+
+
+  @Test
+  void readsLastLineWithoutLineBreak(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("todos.txt");
+    Files.writeString(file, String.join("\n", LINES));
+
+    List<Todo> loaded = TodoFileReader.load(file);
+    assertEquals(LINES.size(), loaded.size());
+    for (int i = 0; i < LINES.size(); i++) {
+      assertSameTodo(baselineParse(LINES.get(i)), loaded.get(i), LINES.get(i));
+    }
+  }
+
+
+  // How Menu read a line before TodoCodec: split on commas, LocalDateTime.parse & the stringTo methods
+  private static Todo baselineParse(String line) {
+    String[] fields = line.split(",");
+    return new Todo(fields[0], LocalDateTime.parse(fields[1]), Menu.stringToCat(fields[2]), Menu.stringToImportance(fields[3]),
+        Menu.stringToStatus(fields[4]));
+  }
+
+  private static void assertSameTodo(Todo expected, Todo actual, String line) {
+    assertEquals(expected.getText(), actual.getText(), line);
+    assertEquals(expected.getDue(), actual.getDue(), line);
+    assertEquals(expected.getCat(), actual.getCat(), line);
+    assertEquals(expected.getImportance(), actual.getImportance(), line);
+    assertEquals(expected.getCompletion(), actual.getCompletion(), line);
+  }
+}
@@ -0,0 +1,229 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/* Recovery from a crash at each point where a compaction or replaceAll has written some of its files but not all of them.
+  Each test makes the changes, lets the operation finish, then puts back the files the crash would have left behind. The
+  compaction failure tests put a directory where a file is about to be written, so the write fails */
+class TodoJournalTest {
+
+  @TempDir
+  Path dir;
+
+
+  @Test
+  void recoversAfterCleanClose() throws IOException {
+    TodoJournal journal = open();
+    List<Todo> todos = create(journal, 5);
+    todos.get(2).setText("Changed");
+    journal.updated(todos.get(2));
+    journal.deleted(todos.remove(0));
+    journal.close();
+
+    assertRecovers(todos);
+  }
+
+
+  // The compaction's snapshot is in place, but the set-aside log (with the ids of the snapshot before it) wasn't deleted
+  @Test
+  void skipsSetAsideLogAlreadyInSnapshot() throws IOException {
+    TodoJournal journal = open();
+    List<Todo> todos = create(journal, 4);
+    journal.deleted(todos.remove(0));
+    journal.compact();
+    todos.addAll(create(journal, 2));
+    journal.deleted(todos.remove(1));
+    byte[] setAside = Files.readAllBytes(dir.resolve("journal.log"));
+
+    journal.compact();
+    todos.get(2).setText("After compaction");
+    journal.updated(todos.get(2));
+    journal.deleted(todos.remove(0));
+    journal.close();
+
+    Files.write(dir.resolve("journal.log.compacting"), setAside);
+    assertRecovers(todos);
+  }
+
+
+  // The log was set aside & a new one started, but the compaction's snapshot wasn't written
+  @Test
+  void foldsSetAsideLogWhenSnapshotMissing() throws IOException {
+    TodoJournal journal = open();
+    List<Todo> todos = create(journal, 4);
+    journal.compact();
+    todos.addAll(create(journal, 3));
+    journal.deleted(todos.remove(1));
+    byte[] oldSnapshot = Files.readAllBytes(dir.resolve("snapshot.txt"));
+    byte[] setAside = Files.readAllBytes(dir.resolve("journal.log"));
+
+    journal.compact();
+    todos.get(4).setText("After compaction");
+    journal.updated(todos.get(4));
+    journal.deleted(todos.remove(0));
+    journal.close();
+
+    Files.write(dir.resolve("snapshot.txt"), oldSnapshot);
+    Files.write(dir.resolve("journal.log.compacting"), setAside);
+    assertRecovers(todos);
+  }
+
+
+  // replaceAll wrote its snapshot, but the log of changes to the replaced todos wasn't emptied
+  @Test
+  void skipsLogReplacedBySnapshot() throws IOException {
+    TodoJournal journal = open();
+    List<Todo> old = create(journal, 5);
+    journal.deleted(old.get(2));
+    byte[] oldLog = Files.readAllBytes(dir.resolve("journal.log"));
+
+    List<Todo> loaded = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      loaded.add(todo("Loaded " + i));
+    }
+    journal.replaceAll(loaded);
+    journal.close();
+
+    Files.write(dir.resolve("journal.log"), oldLog);
+    assertRecovers(loaded);
+  }
+
+
+  // replaceAll ran while a compaction had set the log aside, then crashed before emptying the log
+  @Test
+  void skipsSetAsideLogAndLogAfterReplaceAll() throws IOException {
+    TodoJournal journal = open();
+    create(journal, 5);
+    byte[] setAside = Files.readAllBytes(dir.resolve("journal.log"));
+    journal.compact();
+    List<Todo> moreOld = create(journal, 2);
+    journal.deleted(moreOld.get(0));
+    byte[] oldLog = Files.readAllBytes(dir.resolve("journal.log"));
+
+    List<Todo> loaded = List.of(todo("Loaded a"), todo("Loaded b"));
+    journal.replaceAll(loaded);
+    journal.close();
+
+    Files.write(dir.resolve("journal.log.compacting"), setAside);
+    Files.write(dir.resolve("journal.log"), oldLog);
+    assertRecovers(loaded);
+  }
+
+
+  // The log couldn't be set aside (a directory is in the way), so the journal carries on with it & compacts once it can
+  @Test
+  void keepsLoggingWhenLogCantBeSetAside() throws IOException {
+    TodoJournal journal = open();
+    List<Todo> todos = create(journal, 3);
+    Path blocker = Files.createDirectories(dir.resolve("journal.log.compacting").resolve("blocker"));
+
+    assertThrows(IOException.class, journal::compact);
+    todos.addAll(create(journal, 2));
+    journal.deleted(todos.remove(0));
+
+    Files.delete(blocker);
+    Files.delete(blocker.getParent());
+    journal.compact();
+    todos.addAll(create(journal, 1));
+    journal.close();
+
+    assertRecovers(todos);
+  }
+
+
+  // The log was set aside but the snapshot couldn't be written. Recovery folds the set-aside log in, and the next compaction
+  // writes a full snapshot rather than setting another log aside over it
+  @Test
+  void retriesSnapshotWhichCouldntBeWritten() throws IOException {
+    TodoJournal journal = open();
+    List<Todo> todos = create(journal, 3);
+    journal.deleted(todos.remove(1));
+    Path blocker = Files.createDirectories(dir.resolve("snapshot.txt.tmp").resolve("blocker"));
+
+    assertThrows(IOException.class, journal::compact);
+    todos.addAll(create(journal, 2));
+    journal.deleted(todos.remove(0));
+    assertTrue(Files.exists(dir.resolve("journal.log.compacting")));
+
+    Files.delete(blocker);
+    Files.delete(blocker.getParent());
+    journal.compact();
+    assertFalse(Files.exists(dir.resolve("journal.log.compacting")));
+    todos.get(1).setText("After retry");
+    journal.updated(todos.get(1));
+    journal.close();
+
+    assertRecovers(todos);
+  }
+
+
+  // As above, but the journal is reopened (as after a crash) while the snapshot is still missing
+  @Test
+  void recoversWhileSnapshotPending() throws IOException {
+    TodoJournal journal = open();
+    List<Todo> todos = create(journal, 3);
+    journal.deleted(todos.remove(2));
+    Path blocker = Files.createDirectories(dir.resolve("snapshot.txt.tmp").resolve("blocker"));
+
+    assertThrows(IOException.class, journal::compact);
+    todos.addAll(create(journal, 2));
+    journal.deleted(todos.remove(0));
+    journal.close();
+
+    Files.delete(blocker);
+    Files.delete(blocker.getParent());
+    assertRecovers(todos);
+  }
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Reopen the journal twice (the second time checking recovery left the directory consistent) & compare its todos
+
+  private void assertRecovers(List<Todo> expected) throws IOException {
+    for (int attempt = 0; attempt < 2; attempt++) {
+      TodoJournal journal = open();
+      assertEquals(lines(expected), lines(journal.getTodos()));
+      journal.close();
+      assertFalse(Files.exists(dir.resolve("journal.log.compacting")));
+    }
+  }
+
+  private TodoJournal open() throws IOException {
+    return TodoJournal.open(dir, 1, 0, Long.MAX_VALUE);
+  }
+
+  private static List<Todo> create(TodoJournal journal, int count) throws IOException {
+    List<Todo> todos = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      Todo todo = todo("Task " + System.nanoTime() % 100000 + " " + i);
+      journal.created(todo);
+      todos.add(todo);
+    }
+    return todos;
+  }
+
+  private static Todo todo(String title) {
+    return new Todo(title, LocalDateTime.of(2030, 1, 1, 9, 0), Category.red, Importance.high, Status.pending);
+  }
+
+  private static List<String> lines(List<Todo> todos) {
+    List<String> lines = new ArrayList<>();
+    todos.forEach(todo -> lines.add(Menu.todoToLine(todo)));
+    lines.sort(null);
+    return lines;
+  }
+
+}
@@ -0,0 +1,32 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TodoJsonTest {
+
+  @Test
+  void collectsTheNamesOfValuesWhichArentStrings() {
+    Set<String> nonStrings = new HashSet<>();
+    Map<String, String> fields = TodoJson.parseObject(
+        "{\"title\":null,\"due\":\"2030-01-01T09:00\",\"importance\":3,\"status\":true,\"cat\":\"null\"}", nonStrings);
+
+    assertEquals("null", fields.get("title"));
+    assertEquals("null", fields.get("cat"));
+    assertEquals(Set.of("title", "importance", "status"), nonStrings);
+  }
+
+
+  @Test
+  void laterStringValueReplacesNonString() {
+    Set<String> nonStrings = new HashSet<>();
+    TodoJson.parseObject("{\"title\":null,\"title\":\"Shop\"}", nonStrings);
+
+    assertEquals(Set.of(), nonStrings);
+  }
+}
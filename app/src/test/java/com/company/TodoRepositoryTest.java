@@ -0,0 +1,144 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoRepositoryTest {
+
+  @Test
+  void todosGoingInAndOutAreCopies() {
+    TodoRepository repository = new TodoRepository();
+    Todo added = todo("Added");
+    long id = repository.add(added);
+    added.setText("Changed after add");
+    repository.get(id).setText("Changed after get");
+    TodoRepository.Snapshot before = repository.snapshot();
+
+    Todo removed = repository.remove(id);
+    removed.setText("Changed after remove");
+
+    assertEquals("Added", before.get(0).getText());
+    assertNull(repository.get(id));
+    assertNull(repository.remove(id));
+  }
+
+
+  @Test
+  void snapshotIsInTheOrderTodosWereAdded() {
+    TodoRepository repository = new TodoRepository(16);
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ids.add(repository.add(todo("Todo " + i)));
+    }
+    for (int i = 0; i < 1000; i += 3) {
+      repository.remove(ids.get(i));
+    }
+
+    TodoRepository.Snapshot snapshot = repository.snapshot();
+    assertEquals(666, snapshot.size());
+    for (int i = 1; i < snapshot.size(); i++) {
+      assertTrue(snapshot.getId(i - 1) < snapshot.getId(i));
+      assertEquals("Todo " + (snapshot.getId(i) - 1), snapshot.get(i).getText());
+    }
+  }
+
+
+  @Test
+  void idsPastTwoToThe32KeepTheirOrder() {
+    long big = 1L << 32;
+    long[] ids = {big + 5, 3, big + 1, big * 4, 7};
+    Todo[] todos = new Todo[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      todos[i] = todo("Id " + ids[i]);
+    }
+
+    TodoRepository.inIdOrder(ids, todos);
+
+    assertEquals(List.of(3L, 7L, big + 1, big + 5, big * 4), List.of(ids[0], ids[1], ids[2], ids[3], ids[4]));
+    for (int i = 0; i < ids.length; i++) {
+      assertEquals("Id " + ids[i], todos[i].getText());
+    }
+  }
+
+
+  @Test
+  void viewIsSharedUntilATodoChanges() {
+    TodoRepository repository = new TodoRepository();
+    long id = repository.add(todo("First"));
+    TodoRepository.Snapshot view = repository.view(SortOrder.due);
+
+    assertTrue(view == repository.view(SortOrder.due));
+    repository.update(id, todo -> todo.setText("Second"));
+    TodoRepository.Snapshot changed = repository.view(SortOrder.due);
+    assertTrue(view != changed);
+    assertEquals("Second", changed.get(0).getText());
+  }
+
+
+  // Writers add todos, remove half of them & update a shared counter while a reader takes snapshots. Every snapshot must be
+  // in id order with no missing todos, and no update may be lost
+  @Test
+  void concurrentAddRemoveUpdateAndSnapshot() throws Exception {
+    TodoRepository repository = new TodoRepository(16);
+    long counterId = repository.add(todo("0"));
+    int writers = 4;
+    int perWriter = 5000;
+    ExecutorService threads = Executors.newFixedThreadPool(writers + 1);
+    AtomicBoolean writing = new AtomicBoolean(true);
+
+    Future<Integer> reader = threads.submit(() -> {
+      int snapshots = 0;
+      while (writing.get()) {
+        TodoRepository.Snapshot snapshot = repository.snapshot();
+        for (int i = 0; i < snapshot.size(); i++) {
+          assertNotNull(snapshot.get(i));
+          if (i > 0) {
+            assertTrue(snapshot.getId(i - 1) < snapshot.getId(i));
+          }
+        }
+        snapshots++;
+      }
+      return snapshots;
+    });
+    List<Future<?>> writes = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      writes.add(threads.submit(() -> {
+        for (int i = 0; i < perWriter; i++) {
+          long id = repository.add(todo("Todo"));
+          if (i % 2 == 0) {
+            assertNotNull(repository.remove(id));
+          }
+          repository.update(counterId, todo -> todo.setText(String.valueOf(Integer.parseInt(todo.getText()) + 1)));
+        }
+      }));
+    }
+    for (Future<?> write : writes) {
+      write.get(1, TimeUnit.MINUTES);
+    }
+    writing.set(false);
+    assertTrue(reader.get(1, TimeUnit.MINUTES) > 0);
+    threads.shutdown();
+
+    assertEquals(1 + writers * perWriter / 2, repository.size());
+    assertEquals(1 + writers * perWriter / 2, repository.snapshot().size());
+    assertEquals(String.valueOf(writers * perWriter), repository.get(counterId).getText());
+  }
+
+
+  private static Todo todo(String title) {
+    return new Todo(title, LocalDateTime.of(2030, 1, 1, 9, 0), Category.red, Importance.high, Status.pending);
+  }
+}
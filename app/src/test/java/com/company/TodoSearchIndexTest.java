@@ -0,0 +1,112 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoSearchIndexTest {
+
+  private final TodoList todos = new TodoList();
+  private final TodoSearchIndex index = new TodoSearchIndex(todos);
+
+
+  @Test
+  void ranksBetterMatchesFirst() {
+    Todo separate = add("Paint the garden shed");
+    Todo anywhere = add("Repaint shed");
+    Todo wordStart = add("Go and paint shed");
+    Todo longerStart = add("Paint shed door and frame");
+    Todo start = add("Paint shed door");
+    Todo equal = add("PAINT SHED");
+    add("Paint the fence");
+
+    assertEquals(List.of(equal, start, longerStart, wordStart, anywhere, separate), index.search("paint  Shed", 10));
+    // Only the best few are kept, in the same order
+    assertEquals(List.of(equal, start, longerStart), index.search("paint shed", 3));
+  }
+
+  @Test
+  void shortWordsOnlyMatchWordStarts() {
+    Todo go = add("Go shopping");
+    Todo ago = add("Shopping a while ago");
+    Todo a = add("A shop");
+
+    assertEquals(List.of(go), index.search("go", 10));
+    assertEquals(List.of(a, ago), index.search("a shop", 10));
+    assertEquals(List.of(), index.search("   ", 10));
+    assertEquals(List.of(), index.search("shop", 0));
+  }
+
+  @Test
+  void followsRenamesAndRemovals() {
+    Todo bins = add("Put the bins out");
+    Todo post = add("Post the letter");
+
+    bins.setText("Bring the bins in");
+    assertEquals(List.of(), index.search("put", 10));
+    assertEquals(List.of(bins), index.search("bring", 10));
+
+    todos.remove(post);
+    Todo reused = add("Post the parcel");
+    assertEquals(List.of(reused), index.search("post", 10));
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  void findsExactlyTheTodosContainingEveryWord() {
+    String[] vocabulary = {"alpha", "beta", "gamma", "delta", "epsilon", "zeta", "theta", "kappa"};
+    Random random = new Random(5);
+
+    for (int step = 0; step < 3000; step++) {
+      int choice = random.nextInt(10);
+      if (choice < 5 || todos.isEmpty()) {
+        add(title(vocabulary, random));
+      } else if (choice < 7) {
+        todos.remove(random.nextInt(todos.size()));
+      } else {
+        todos.get(random.nextInt(todos.size())).setText(title(vocabulary, random));
+      }
+    }
+
+    for (int i = 0; i < 50; i++) {
+      // Fragments of words as well as whole words, so matches in the middle of words are found too
+      String first = vocabulary[random.nextInt(vocabulary.length)].substring(1);
+      String second = vocabulary[random.nextInt(vocabulary.length)];
+      String query = first + " " + second.toUpperCase(Locale.ROOT);
+
+      List<Todo> expected = new ArrayList<>();
+      for (Todo todo : todos) {
+        String title = todo.getText().toLowerCase(Locale.ROOT);
+        if (title.contains(first) && title.contains(second)) {
+          expected.add(todo);
+        }
+      }
+      List<Todo> found = index.search(query, todos.size());
+      assertEquals(expected.size(), found.size(), query);
+      assertTrue(new HashSet<>(found).containsAll(expected), query);
+    }
+    assertEquals(todos.size(), index.size());
+  }
+
+
+  private Todo add(String text) {
+    Todo todo = new Todo(text, LocalDateTime.of(2030, 1, 1, 0, 0), Category.red, Importance.normal, Status.pending);
+    todos.add(todo);
+    return todo;
+  }
+
+  private static String title(String[] vocabulary, Random random) {
+    String[] words = new String[1 + random.nextInt(4)];
+    Arrays.setAll(words, i -> vocabulary[random.nextInt(vocabulary.length)]);
+    return String.join(" ", words);
+  }
+}
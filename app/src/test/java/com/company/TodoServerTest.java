@@ -0,0 +1,77 @@
+package com.company;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoServerTest {
+
+  private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+  private TodoServer server;
+
+
+  @AfterEach
+  void stop() {
+    if (server != null) {
+      server.stop(0);
+    }
+  }
+
+
+  @Test
+  void decodesQueryParameters() throws Exception {
+    TodoRepository repository = new TodoRepository();
+    repository.add(todo("Later", 2031));
+    repository.add(todo("Sooner", 2030));
+    start(repository);
+
+    HttpResponse<String> response = get("/todos?sort=d%75e&limit=%31");
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().contains("\"Sooner\""), response.body());
+    assertTrue(!response.body().contains("\"Later\""), response.body());
+    // An encoded & is part of the value, not the start of another parameter
+    assertEquals(400, get("/todos?sort=due%26limit%3D1").statusCode());
+  }
+
+
+  @Test
+  void answersUnexpectedFailureWith500() throws Exception {
+    start(new TodoRepository() {
+      @Override
+      public Todo get(long id) {
+        throw new IllegalStateException("Broken");
+      }
+    });
+
+    HttpResponse<String> response = get("/todos/1");
+
+    assertEquals(500, response.statusCode());
+    assertEquals(404, get("/todos/x").statusCode());
+  }
+
+
+  private void start(TodoRepository repository) throws IOException {
+    server = new TodoServer(repository, 0);
+    server.start();
+  }
+
+  private HttpResponse<String> get(String path) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).timeout(Duration.ofSeconds(5)).build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static Todo todo(String title, int year) {
+    return new Todo(title, LocalDateTime.of(year, 1, 1, 9, 0), Category.red, Importance.high, Status.pending);
+  }
+}
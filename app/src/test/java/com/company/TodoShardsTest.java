@@ -0,0 +1,115 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TodoShardsTest {
+
+  private static final long IDLE_MILLIS = 60_000;
+
+  @TempDir
+  Path dir;
+
+  private long millis = 1_000_000;
+
+
+  @Test
+  void savesShardsAndReadsThemBack() throws IOException {
+    TodoShards shards = shards();
+    shards.addAll(List.of(todo("Paint", Category.red), todo("Post", Category.blue), todo("Shop", Category.red)));
+    shards.open(Category.red);
+    assertEquals(List.of("Paint", "Shop"), texts(shards.getTodos()));
+
+    shards.getTodos().get(0).setText("Repaint");
+    shards.getTodos().add(todo("Cook", Category.red));
+    shards.getTodos().remove(1);
+    shards.close();
+    assertTrue(Files.exists(dir.resolve("red" + TodoBinaryFormat.EXTENSION)));
+    assertFalse(Files.exists(dir.resolve("green" + TodoBinaryFormat.EXTENSION)));
+
+    TodoShards reopened = shards();
+    assertEquals(2, reopened.count(Category.red));
+    assertEquals(1, reopened.count(Category.blue));
+    assertFalse(reopened.isLoaded(Category.red));
+    reopened.open(Category.blue, Category.red);
+    assertEquals(List.of("Post", "Repaint", "Cook"), texts(reopened.getTodos()));
+    assertFalse(reopened.isLoaded(Category.green));
+  }
+
+  @Test
+  void dropsClosedShardsOnceIdle() throws IOException {
+    TodoShards shards = shards();
+    shards.open(Category.red, Category.white);
+    shards.getTodos().add(todo("Paint", Category.red));
+    shards.getTodos().add(todo("Post", Category.white));
+    shards.close(Category.red);
+    assertEquals(List.of("Post"), texts(shards.getTodos()));
+    assertFalse(shards.isOpen(Category.red));
+
+    millis += IDLE_MILLIS - 1;
+    assertEquals(0, shards.dropIdle());
+    millis += 1;
+    assertEquals(1, shards.dropIdle());
+    assertFalse(shards.isLoaded(Category.red));
+    assertTrue(shards.isLoaded(Category.white));
+    // The dropped shard was written first, so it reads back with its Todo
+    assertEquals(1, shards.count(Category.red));
+    shards.open(Category.red);
+    assertEquals(List.of("Post", "Paint"), texts(shards.getTodos()));
+  }
+
+  @Test
+  void movesTodosBetweenShards() throws IOException {
+    TodoShards shards = shards();
+    shards.addAll(List.of(todo("Paint", Category.red), todo("Post", Category.blue)));
+    shards.save();
+    TodoShards reopened = shards();
+    reopened.open(Category.red);
+
+    Todo paint = reopened.getTodos().get(0);
+    paint.setCat(Category.blue);
+    assertTrue(reopened.isLoaded(Category.blue));
+    assertEquals(0, reopened.count(Category.red));
+    assertEquals(2, reopened.count(Category.blue));
+
+    // The moved Todo is still being worked on, so its shard isn't dropped, and opening its category doesn't add it twice
+    millis += IDLE_MILLIS;
+    reopened.close(Category.red);
+    millis += IDLE_MILLIS;
+    assertEquals(1, reopened.dropIdle());
+    assertTrue(reopened.isLoaded(Category.blue));
+    reopened.open(Category.blue);
+    assertEquals(List.of("Paint", "Post"), texts(reopened.getTodos()));
+
+    reopened.close(Category.blue);
+    millis += IDLE_MILLIS;
+    assertEquals(1, reopened.dropIdle());
+    assertEquals(List.of(), reopened.getTodos());
+    assertEquals(0, shards().count(Category.red));
+    assertEquals(2, shards().count(Category.blue));
+  }
+
+
+  private TodoShards shards() throws IOException {
+    return new TodoShards(dir, IDLE_MILLIS, () -> millis);
+  }
+
+  private static Todo todo(String text, Category cat) {
+    return new Todo(text, LocalDateTime.of(2030, 1, 1, 9, 0), cat, Importance.normal, Status.pending);
+  }
+
+  private static List<String> texts(List<Todo> todos) {
+    return todos.stream().map(Todo::getText).collect(Collectors.toList());
+  }
+}
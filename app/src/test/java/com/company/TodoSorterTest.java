@@ -0,0 +1,117 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/* Each test builds todos whose keys take one of TodoSorter's paths and checks the result against a stable comparison sort
+  of the same list. Todos are compared by identity, so a sort which isn't stable fails even when the fields all match */
+class TodoSorterTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+  private final Random random = new Random(11);
+
+
+  @Test
+  void countingSortsSmallKeys() {
+    // Enum fields and due dates less than a day apart all fit below the counting sort's range
+    check(list(5000, i -> todo(START.plusSeconds(random.nextInt(60_000)))), TodoField.importance, TodoField.completion);
+    check(list(5000, i -> todo(START.plusSeconds(random.nextInt(60_000)))), TodoField.due);
+    check(list(5000, i -> todo(START)), TodoField.cat, TodoField.importance, TodoField.due);
+  }
+
+  @Test
+  void packedSortsDuesOverYears() {
+    check(list(5000, i -> todo(START.plusSeconds(random.nextInt(1 << 30)))), TodoField.completion, TodoField.due);
+    // Only a few distinct due dates, so nearly every Todo ties with others
+    check(list(5000, i -> todo(START.plusYears(random.nextInt(4)))), TodoField.due, TodoField.importance);
+  }
+
+  @Test
+  void parallelSortsLargeLists() {
+    check(list(TodoSorter.PARALLEL_THRESHOLD + 1000, i -> todo(START.plusMinutes(random.nextInt(1 << 24)))), TodoField.due);
+    check(list(TodoSorter.PARALLEL_THRESHOLD, i -> todo(START.plusSeconds(random.nextInt(100)))), TodoField.importance,
+        TodoField.due);
+  }
+
+  @Test
+  void radixSortsKeysTooWideToPackWithPositions() {
+    // Nanoseconds over a century take 62 bits, leaving no room for the positions of a thousand Todos
+    check(list(1000, i -> todo(START.plusDays(random.nextInt(36_500)).plusNanos(random.nextInt(1_000_000_000)))),
+        TodoField.due);
+    // Ties on wide keys, so every pass has to keep the order of the last
+    check(list(1000, i -> todo(START.plusYears(random.nextInt(2) * 99).withNano(1))), TodoField.due);
+  }
+
+  @Test
+  void comparesKeysWhichDontFit() {
+    // Due dates with nanoseconds over a century leave no room for importance, and text is never packed
+    check(list(1000, i -> todo(START.plusDays(random.nextInt(36_500)).plusNanos(random.nextInt(1000)))),
+        TodoField.importance, TodoField.due);
+    check(list(1000, i -> todo(START.plusHours(random.nextInt(10)))), TodoField.text, TodoField.due);
+  }
+
+  @Test
+  void sortsTodoListsInPlace() {
+    TodoList todos = new TodoList();
+    todos.addAll(list(3000, i -> todo(START.plusSeconds(random.nextInt(1 << 30)))));
+    List<Todo> expected = expected(todos, TodoField.due, TodoField.importance);
+
+    assertSame(todos, TodoSorter.sort(todos, TodoField.due, TodoField.importance));
+    assertEquals(expected, todos);
+  }
+
+
+  private void check(List<Todo> todos, TodoField... fields) {
+    List<Todo> expected = expected(todos, fields);
+    assertEquals(expected, TodoSorter.sort(todos, fields));
+  }
+
+  private static List<Todo> expected(List<Todo> todos, TodoField... fields) {
+    Comparator<Todo> comparator = (a, b) -> 0;
+    for (TodoField field : fields) {
+      switch (field) {
+        case text:
+          comparator = comparator.thenComparing(Todo::getText);
+          break;
+        case due:
+          comparator = comparator.thenComparing(Todo::getDue);
+          break;
+        case cat:
+          comparator = comparator.thenComparing(Todo::getCat);
+          break;
+        case importance:
+          comparator = comparator.thenComparing(Todo::getImportance);
+          break;
+        default:
+          comparator = comparator.thenComparing(Todo::getCompletion);
+      }
+    }
+    List<Todo> expected = new ArrayList<>(todos);
+    expected.sort(comparator);
+    return expected;
+  }
+
+  private static List<Todo> list(int size, IntFunction<Todo> generator) {
+    List<Todo> todos = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      todos.add(generator.apply(i));
+    }
+    return todos;
+  }
+
+  private Todo todo(LocalDateTime due) {
+    return new Todo("Todo " + random.nextInt(50), due, Category.values()[random.nextInt(Category.values().length)],
+        Importance.values()[random.nextInt(Importance.values().length)],
+        Status.values()[random.nextInt(Status.values().length)]);
+  }
+}
@@ -0,0 +1,120 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TodoStoreTest {
+
+  @TempDir
+  Path dir;
+
+
+  @Test
+  void viewsReadAndWriteTheStore() {
+    TodoStore store = TodoStore.copyOf(List.of(todo("First", 9), todo("Second", 10)));
+    Todo view = store.get(1);
+
+    view.setText("Changed");
+    view.setDue(LocalDateTime.of(2031, 2, 3, 4, 5, 6, 789));
+    view.setCat(Category.blue);
+    view.setImportance(Importance.low);
+    view.setCompletion(Status.partial);
+
+    assertEquals("Changed", store.getText(1));
+    assertEquals(LocalDateTime.of(2031, 2, 3, 4, 5, 6, 789), store.getDue(1));
+    assertEquals(Category.blue, store.getCat(1));
+    assertEquals(Importance.low, store.getImportance(1));
+    assertEquals(Status.partial, store.getCompletion(1));
+    assertEquals("First", store.get(0).getText());
+    assertEquals(LocalDateTime.of(2030, 1, 1, 9, 0), store.getDue(0));
+  }
+
+
+  @Test
+  void viewSettersIncrementTheVersion() {
+    Todo todo = todo("Versioned", 9);
+    todo.setText("Versioned again");
+    TodoStore store = TodoStore.copyOf(List.of(todo));
+
+    assertEquals(1, store.get(0).getVersion());
+    store.get(0).setCat(Category.white);
+    store.setImportance(0, Importance.low);
+    assertEquals(3, store.get(0).getVersion());
+  }
+
+
+  @Test
+  void viewInTodoListTellsItsListeners() {
+    TodoStore store = TodoStore.copyOf(List.of(todo("Listed", 9)));
+    Todo view = store.get(0);
+    TodoList list = new TodoList();
+    list.add(view);
+    List<Object> changes = new ArrayList<>();
+    list.addListener(new TodoListener() {
+      public void todoChanged(Todo todo, TodoField field, Object oldValue) {
+        changes.add(todo == view ? field + " was " + oldValue : "another todo");
+      }
+    });
+
+    view.setCompletion(Status.completed);
+    view.setDue(LocalDateTime.of(2030, 1, 2, 9, 0));
+
+    assertEquals(List.of("completion was pending", "due was 2030-01-01T09:00"), changes);
+  }
+
+
+  @Test
+  void removingShiftsLaterTodosAndTheirVersions() {
+    TodoStore store = TodoStore.copyOf(List.of(todo("A", 9), todo("B", 10), todo("C", 11)));
+    store.setText(2, "C2");
+    store.remove(0);
+
+    assertEquals(2, store.size());
+    assertEquals("B", store.getText(0));
+    assertEquals("C2", store.getText(1));
+    assertEquals(1, store.getVersion(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> store.getText(2));
+  }
+
+
+  @Test
+  void roundTripsThroughListAndFile() throws IOException {
+    List<Todo> todos = List.of(todo("One", 9), todo("Two", 10), new Todo("Three", LocalDateTime.of(2030, 1, 1, 9, 0, 30, 5),
+        Category.yellow, Importance.normal, Status.started));
+    TodoStore store = new TodoStore();
+    List<Todo> list = store.asList();
+    list.addAll(todos);
+    assertEquals("Two", list.remove(1).getText());
+    list.add(todos.get(1));
+
+    Path file = dir.resolve("todos.txt");
+    Menu.saveToPath(file, list);
+    TodoStore loaded = TodoStore.load(file);
+
+    List<String> expected = List.of(Menu.todoToLine(todos.get(0)), Menu.todoToLine(todos.get(2)), Menu.todoToLine(todos.get(1)));
+    assertEquals(expected, lines(loaded.toArrayList()));
+    List<String> viewed = new ArrayList<>();
+    loaded.forEach(todo -> viewed.add(Menu.todoToLine(todo)));
+    assertEquals(expected, viewed);
+  }
+
+
+  private static Todo todo(String title, int hour) {
+    return new Todo(title, LocalDateTime.of(2030, 1, 1, hour, 0), Category.red, Importance.high, Status.pending);
+  }
+
+  private static List<String> lines(List<Todo> todos) {
+    List<String> lines = new ArrayList<>();
+    todos.forEach(todo -> lines.add(Menu.todoToLine(todo)));
+    return lines;
+  }
+}
@@ -0,0 +1,19 @@
+package com.company;
+
+import java.util.Arrays;
+
+/* Entry point of benchmarks.jar. Takes the same options as JMH's own Main, but adds JMH's GC profiler unless another profiler
+  is asked for, so every run reports how much each operation allocates (gc.alloc.rate.norm) as well as its throughput */
+public class BenchmarkMain {
+
+  public static void main(String[] args) throws Exception {
+    if (!Arrays.asList(args).contains("-prof")) {
+      String[] withGc = Arrays.copyOf(args, args.length + 2);
+      withGc[args.length] = "-prof";
+      withGc[args.length + 1] = "gc";
+      args = withGc;
+    }
+    org.openjdk.jmh.Main.main(args);
+  }
+
+}
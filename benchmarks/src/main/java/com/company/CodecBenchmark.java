@@ -0,0 +1,79 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/* TodoCodec reading & writing one line of a todo text file per operation, against building the line with Menu.todoToLine.
+  decode should allocate only the title (a String & its bytes), and encode nothing at all */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CodecBenchmark {
+
+  @Param({"1000", "100000"})
+  public int size;
+
+  private ArrayList<Todo> todos;
+  private byte[][] lines;
+  private final TodoCodec codec = new TodoCodec();
+  private int next;
+
+
+  @Setup(Level.Trial)
+  public void makeLines() {
+    todos = TodoData.generate(size, 42);
+    lines = new byte[size][];
+    for (int i = 0; i < size; i++) {
+      lines[i] = Menu.todoToLine(todos.get(i)).getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+
+  @Benchmark
+  public long decode() {
+    byte[] line = lines[nextIndex()];
+    codec.decode(line, 0, line.length);
+    return codec.getDueEpochSecond() + codec.getTitle().length();
+  }
+
+  @Benchmark
+  public Todo decodeToTodo() {
+    byte[] line = lines[nextIndex()];
+    return codec.decode(line, 0, line.length) ? codec.toTodo() : null;
+  }
+
+  @Benchmark
+  public int encode() {
+    return codec.encode(todos.get(nextIndex()));
+  }
+
+  @Benchmark
+  public byte[] todoToLine() {
+    return (Menu.todoToLine(todos.get(nextIndex())) + "\n").getBytes(StandardCharsets.UTF_8);
+  }
+
+
+  private int nextIndex() {
+    int index = next;
+    next = next + 1 == size ? 0 : next + 1;
+    return index;
+  }
+
+}
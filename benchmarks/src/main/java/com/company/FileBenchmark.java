@@ -0,0 +1,87 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/* Loading & saving todo files through the headless Menu.loadFromPath & Menu.saveToPath, which are what Menu.loadFromFile &
+  Menu.saveToFile call once the user has picked a file. ".txt" files are the comma separated text format, ".todb" the binary */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class FileBenchmark {
+
+  @Param({"1000", "100000", "10000000"})
+  public int size;
+
+  @Param({".txt", ".todb"})
+  public String extension;
+
+  private Path dir;
+  private Path source;
+  private Path[] targets;
+  private int nextTarget;
+  private ArrayList<Todo> todos;
+
+
+  @Setup(Level.Trial)
+  public void writeSource() throws IOException {
+    dir = Files.createTempDirectory("todo-bench");
+    todos = TodoData.generate(size, 42);
+    source = dir.resolve("source" + extension);
+    Menu.saveToPath(source, todos);
+    targets = new Path[]{dir.resolve("first" + extension), dir.resolve("second" + extension)};
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFiles() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(file);
+      }
+    }
+  }
+
+
+  @Benchmark
+  public ArrayList<Todo> load() throws IOException {
+    return Menu.loadFromPath(source);
+  }
+
+
+  // Saving to a different file each time, so every save writes the whole file
+  @Benchmark
+  public void save() throws IOException {
+    nextTarget ^= 1;
+    Menu.saveToPath(targets[nextTarget], todos);
+  }
+
+
+  // Saving the same, unchanged Todos to the same file again, which text saves only re-write what changed for
+  @Benchmark
+  public void saveUnchanged() throws IOException {
+    Menu.saveToPath(targets[0], todos);
+  }
+
+}
@@ -0,0 +1,59 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/* Menu.formatTodo (the GUI's detail view) & Todo.toString (the CLI's list), one Todo per operation. Each operation formats
+  the next Todo in the list, so with bigger lists the Todos are less likely to already be in the CPU's caches */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class FormatBenchmark {
+
+  @Param({"1000", "100000", "10000000"})
+  public int size;
+
+  private ArrayList<Todo> todos;
+  private int next;
+
+
+  @Setup(Level.Trial)
+  public void makeTodos() {
+    todos = TodoData.generate(size, 42);
+  }
+
+
+  @Benchmark
+  public String formatTodo() {
+    return Menu.formatTodo(nextTodo());
+  }
+
+  @Benchmark
+  public String todoToString() {
+    return nextTodo().toString();
+  }
+
+
+  private Todo nextTodo() {
+    Todo todo = todos.get(next);
+    next = next + 1 == size ? 0 : next + 1;
+    return todo;
+  }
+
+}
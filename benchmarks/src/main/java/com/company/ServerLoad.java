@@ -0,0 +1,143 @@
+package com.company;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/* Load generator for TodoServer. Each connection is a thread sending requests one after another over a keep-alive socket:
+  90% read a random todo, 9% update one & 1% create one. Prints the requests per second and the latency percentiles.
+  Runs against a server started in the same JVM unless given the port of one already running on localhost:
+
+    java -cp benchmarks/target/benchmarks.jar com.company.ServerLoad [connections] [seconds] [todos] [port] */
+public class ServerLoad {
+
+  public static void main(String[] args) throws Exception {
+
+    int connections = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+    int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    int todoCount = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+    TodoServer server = null;
+    int port;
+    if (args.length > 3) {
+      port = Integer.parseInt(args[3]);
+    } else {
+      TodoRepository repository = new TodoRepository();
+      repository.addAll(TodoData.generate(todoCount, 42));
+      TodoServer.useTcpNoDelay();
+      server = new TodoServer(repository, 0);
+      server.start();
+      port = server.getPort();
+    }
+
+    ExecutorService clients = Executors.newFixedThreadPool(connections);
+    long end = System.nanoTime() + seconds * 1_000_000_000L;
+    List<Future<long[]>> results = new ArrayList<>();
+    for (int c = 0; c < connections; c++) {
+      int seed = c;
+      results.add(clients.submit(() -> run(port, todoCount, end, seed)));
+    }
+
+    long[] latencies = new long[0];
+    for (Future<long[]> result : results) {
+      long[] connectionLatencies = result.get();
+      int from = latencies.length;
+      latencies = Arrays.copyOf(latencies, from + connectionLatencies.length);
+      System.arraycopy(connectionLatencies, 0, latencies, from, connectionLatencies.length);
+    }
+    clients.shutdown();
+    if (server != null) {
+      server.stop(0);
+    }
+
+    Arrays.sort(latencies);
+    System.out.printf("%,d requests in %d seconds over %d connections: %,.0f requests/s%n", latencies.length, seconds, connections, latencies.length / (double) seconds);
+    System.out.printf("latency p50 %.0fus, p99 %.0fus, p99.9 %.0fus, max %.0fus%n",
+        percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999), percentile(latencies, 1.0));
+  }
+
+
+  // Send requests over one connection until the end time, returning how long each took in nanoseconds
+  private static long[] run(int port, int todoCount, long end, int seed) throws IOException {
+
+    SplittableRandom random = new SplittableRandom(seed);
+    long[] latencies = new long[1 << 16];
+    int count = 0;
+
+    try (Socket socket = new Socket("localhost", port)) {
+      socket.setTcpNoDelay(true);
+      OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+      InputStream in = new BufferedInputStream(socket.getInputStream());
+
+      for (long started = System.nanoTime(); started < end; started = System.nanoTime()) {
+        int kind = random.nextInt(100);
+        long id = 1 + random.nextInt(todoCount);
+        if (kind < 90) {
+          send(out, "GET", "/todos/" + id, null);
+        } else if (kind < 99) {
+          send(out, "PUT", "/todos/" + id, "{\"status\":\"started\"}");
+        } else {
+          send(out, "POST", "/todos", "{\"title\":\"Load test\",\"due\":\"2099-01-01T09:00\",\"cat\":\"blue\"}");
+        }
+        readResponse(in);
+
+        if (count == latencies.length) {
+          latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = System.nanoTime() - started;
+      }
+    }
+    return Arrays.copyOf(latencies, count);
+  }
+
+  private static void send(OutputStream out, String method, String path, String body) throws IOException {
+    byte[] bodyBytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    String head = method + " " + path + " HTTP/1.1\r\nHost: localhost\r\n"
+        + (body != null ? "Content-Type: application/json\r\nContent-Length: " + bodyBytes.length + "\r\n" : "") + "\r\n";
+    out.write(head.getBytes(StandardCharsets.US_ASCII));
+    out.write(bodyBytes);
+    out.flush();
+  }
+
+  // Read a response's headers, then skip its body
+  private static void readResponse(InputStream in) throws IOException {
+    StringBuilder headers = new StringBuilder();
+    int matched = 0;
+    while (matched < 4) {
+      int b = in.read();
+      if (b < 0) {
+        throw new IOException("The server closed the connection");
+      }
+      headers.append((char) b);
+      matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : (b == '\r' ? 1 : 0);
+    }
+    String text = headers.toString().toLowerCase();
+    int at = text.indexOf("content-length:");
+    if (at >= 0) {
+      long length = Long.parseLong(text.substring(at + 15, text.indexOf('\r', at)).trim());
+      while (length > 0) {
+        length -= in.skip(length);
+      }
+    }
+  }
+
+  private static double percentile(long[] sorted, double fraction) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+    return sorted[Math.max(0, index)] / 1000.0;
+  }
+
+}
@@ -0,0 +1,60 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/* Menu.sortByDue, sortByPriority & sortByStatus on lists in random order. Each invocation sorts a fresh copy of the same
+  shuffled list, since sorting an already sorted list is much quicker. Copying the list is part of what's measured, but is
+  only an array copy */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class SortBenchmark {
+
+  @Param({"1000", "100000", "10000000"})
+  public int size;
+
+  private ArrayList<Todo> shuffled;
+
+
+  @Setup(Level.Trial)
+  public void makeTodos() {
+    shuffled = TodoData.generate(size, 42);
+    Collections.shuffle(shuffled, new Random(42));
+  }
+
+
+  @Benchmark
+  public ArrayList<Todo> sortByDue() {
+    return Menu.sortByDue(new ArrayList<>(shuffled));
+  }
+
+  @Benchmark
+  public ArrayList<Todo> sortByPriority() {
+    return Menu.sortByPriority(new ArrayList<>(shuffled));
+  }
+
+  @Benchmark
+  public ArrayList<Todo> sortByStatus() {
+    return Menu.sortByStatus(new ArrayList<>(shuffled));
+  }
+
+}
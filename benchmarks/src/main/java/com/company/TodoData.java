@@ -0,0 +1,43 @@
+package com.company;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+// Class to make repeatable lists of Todos for the benchmarks, with titles, due dates & enums spread like real todo lists
+public class TodoData {
+
+  private static final String[] WORDS = {"Buy", "milk", "call", "the", "bank", "finish", "report", "book", "dentist",
+      "walk", "dog", "pay", "rent", "email", "team", "review", "pull", "request", "clean", "kitchen"};
+  // After TodoRules.RELEASED, so generated due dates are ones the app accepts
+  private static final LocalDateTime START = LocalDateTime.of(2021, 6, 1, 9, 0);
+
+
+  ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+  // Make count Todos due at some minute in the 3 years after START. The same seed always gives the same Todos
+
+  public static ArrayList<Todo> generate(int count, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    ArrayList<Todo> todos = new ArrayList<>(count);
+    StringBuilder title = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      title.setLength(0);
+      int words = 2 + random.nextInt(5);
+      for (int w = 0; w < words; w++) {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        // Titles are kept within TodoRules.MAX_TITLE_LENGTH, so every generated Todo can be imported
+        if (w > 0 && title.length() + 1 + word.length() <= TodoRules.MAX_TITLE_LENGTH) {
+          title.append(' ').append(word);
+        } else if (w == 0) {
+          title.append(word);
+        }
+      }
+      LocalDateTime due = START.plusMinutes(random.nextInt(3 * 365 * 24 * 60));
+      todos.add(new Todo(title.toString(), due, Category.values()[random.nextInt(Category.values().length)],
+          Importance.values()[random.nextInt(Importance.values().length)],
+          Status.values()[random.nextInt(Status.values().length)]));
+    }
+    return todos;
+  }
+
+}